@@ -0,0 +1,124 @@
+package com.jdmatchr.core.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded worker pool for asynchronous analysis jobs.
+ * The queue is bounded on purpose: when it is full, submissions are rejected
+ * (and surfaced to the client as 503) instead of piling up uploads in memory and on disk.
+ *
+ * With spring.threads.virtual.enabled=true (Java 21 runtime, build with -Pjava21) the job workers are
+ * virtual threads: a job spends almost all of its time waiting on the LLM, so many more of them can be in
+ * flight than platform threads would allow. PDF parsing is CPU-bound and PDFBox synchronizes internally,
+ * which would pin and monopolize carrier threads, so it is moved to a small pool of platform threads instead.
+ */
+@Configuration
+public class AnalysisExecutorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisExecutorConfig.class);
+
+    @Bean(name = "analysisJobExecutor")
+    public ThreadPoolTaskExecutor analysisJobExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${jdmatchr.analysis.async.core-pool-size:4}") int corePoolSize,
+            @Value("${jdmatchr.analysis.async.max-pool-size:8}") int maxPoolSize,
+            @Value("${jdmatchr.analysis.async.virtual.max-concurrency:200}") int virtualMaxConcurrency,
+            @Value("${jdmatchr.analysis.async.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        if (virtualThreads) {
+            // Same bounded queue and rejection behaviour, but each worker is a virtual thread
+            executor.setCorePoolSize(virtualMaxConcurrency);
+            executor.setMaxPoolSize(virtualMaxConcurrency);
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("analysis-job-").getVirtualThreadFactory());
+            logger.info("Analysis jobs run on virtual threads (max concurrency {}).", virtualMaxConcurrency);
+        } else {
+            executor.setCorePoolSize(corePoolSize);
+            executor.setMaxPoolSize(maxPoolSize);
+            executor.setThreadNamePrefix("analysis-job-");
+        }
+        executor.setQueueCapacity(queueCapacity);
+        // AbortPolicy makes execute() throw RejectedExecutionException, which the job service turns into a 503
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Where PdfParserServiceImpl runs PDFBox. On platform request threads parsing simply stays on the
+     * caller; on virtual threads it is handed to a fixed pool of platform threads sized to the CPU count,
+     * so parsing never occupies more carriers than there are cores to spare.
+     */
+    @Bean(name = "pdfParsingExecutor")
+    public TaskExecutor pdfParsingExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${jdmatchr.pdf.parser.threads:0}") int parserThreads,
+            @Value("${jdmatchr.pdf.parser.queue-capacity:200}") int queueCapacity) {
+        if (!virtualThreads) {
+            return new SyncTaskExecutor();
+        }
+        int threads = parserThreads > 0 ? parserThreads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("pdf-parser-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        logger.info("PDF parsing offloaded to {} platform threads.", threads);
+        return executor;
+    }
+
+    /**
+     * Runs single attempts of blocking LLM calls for ResilientLlmClient, so the caller can stop waiting at the
+     * per-attempt timeout. Every attempt, hedges included, holds an LLM admission slot, so this pool hands
+     * work straight to a thread instead of queueing it; if it still runs out of threads, the call fails with
+     * 503 + Retry-After.
+     */
+    @Bean(name = "llmCallExecutor")
+    public TaskExecutor llmCallExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${jdmatchr.llm.resilience.executor.max-threads:64}") int maxThreads) {
+        if (virtualThreads) {
+            return new VirtualThreadTaskExecutor("llm-call-");
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(0);
+        executor.setMaxPoolSize(maxThreads);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("llm-call-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bulk re-analysis runs on one platform thread: jobs are processed one after another and each sends one
+     * prompt at a time, so a backfill never competes with interactive analyses for more than one LLM slot.
+     */
+    @Bean(name = "reanalysisJobExecutor")
+    public ThreadPoolTaskExecutor reanalysisJobExecutor(
+            @Value("${jdmatchr.reanalysis.queue-capacity:10}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("reanalysis-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        // Interrupt the running job on shutdown; it stays RUNNING and continues from its checkpoint on restart
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
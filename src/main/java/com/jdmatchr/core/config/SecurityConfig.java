@@ -2,6 +2,7 @@ package com.jdmatchr.core.config;
 
 import com.jdmatchr.core.security.JwtAuthenticationFilter; // Adjust package if you chose differently
 import com.jdmatchr.core.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -55,6 +56,9 @@ public class SecurityConfig {
                 // Configure authorization rules for HTTP requests
                 .authorizeHttpRequests(authorizeRequests ->
                         authorizeRequests
+                                // Async dispatches (completion of SSE streams) belong to a request that was already
+                                // authorized; the stateless JWT context is not carried over to them
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                 // Permit all requests to authentication and OAuth user synchronization endpoints
                                 .requestMatchers(
                                         "/api/v1/auth/**",
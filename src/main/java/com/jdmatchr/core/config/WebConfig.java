@@ -0,0 +1,20 @@
+package com.jdmatchr.core.config;
+
+import com.jdmatchr.core.security.JwtPrincipalArgumentResolver;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Lets controllers declare a JwtPrincipal parameter to receive the authenticated user.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new JwtPrincipalArgumentResolver());
+    }
+}
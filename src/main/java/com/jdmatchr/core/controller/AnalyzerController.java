@@ -1,26 +1,44 @@
 // src/main/java/com/jdmatchr/core/controller/AnalyzerController.java
 package com.jdmatchr.core.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.jdmatchr.core.dto.AnalysisJobDto;
+import com.jdmatchr.core.dto.AnalysisResultDto;
+import com.jdmatchr.core.dto.BatchAnalysisItemDto;
 import com.jdmatchr.core.dto.InsightDetailDto;
 // import com.jdmatchr.core.dto.InsightResponseDto; // No longer needed for /process success response
-import com.jdmatchr.core.dto.InsightSummaryDto;
+import com.jdmatchr.core.dto.InsightHistoryFilter;
+import com.jdmatchr.core.dto.JobDescriptionInput;
 import com.jdmatchr.core.dto.LatestInsightResponseDto;
 import com.jdmatchr.core.dto.ApiErrorResponse;
 import com.jdmatchr.core.entity.User;
+import com.jdmatchr.core.exception.AnalysisQueueFullException;
+import com.jdmatchr.core.exception.CapacityExceededException;
 import com.jdmatchr.core.repository.UserRepository;
+import com.jdmatchr.core.security.JwtPrincipal;
+import com.jdmatchr.core.service.AnalysisJobService;
+import com.jdmatchr.core.service.AnalysisStreamListener;
+import com.jdmatchr.core.service.BatchAnalysisListener;
 import com.jdmatchr.core.service.AnalyzerService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -31,13 +49,31 @@ public class AnalyzerController {
 
     private static final Logger logger = LoggerFactory.getLogger(AnalyzerController.class);
 
+    private static final String QUEUE_FULL_RETRY_AFTER_SECONDS = "30";
+
     private final AnalyzerService analyzerService;
+    private final AnalysisJobService analysisJobService;
     private final UserRepository userRepository;
+    private final Duration streamTimeout;
+    private final int batchMaxItems;
+    private final int historyDefaultPageSize;
+    private final int historyMaxPageSize;
 
     @Autowired
-    public AnalyzerController(AnalyzerService analyzerService, UserRepository userRepository) {
+    public AnalyzerController(AnalyzerService analyzerService,
+                              AnalysisJobService analysisJobService,
+                              UserRepository userRepository,
+                              @Value("${jdmatchr.analysis.stream.timeout:PT3M}") Duration streamTimeout,
+                              @Value("${jdmatchr.analysis.batch.max-items:30}") int batchMaxItems,
+                              @Value("${jdmatchr.insights.history.default-page-size:20}") int historyDefaultPageSize,
+                              @Value("${jdmatchr.insights.history.max-page-size:100}") int historyMaxPageSize) {
         this.analyzerService = analyzerService;
+        this.analysisJobService = analysisJobService;
         this.userRepository = userRepository;
+        this.streamTimeout = streamTimeout;
+        this.batchMaxItems = batchMaxItems;
+        this.historyDefaultPageSize = historyDefaultPageSize;
+        this.historyMaxPageSize = historyMaxPageSize;
     }
 
     @PostMapping("/process")
@@ -45,29 +81,31 @@ public class AnalyzerController {
             @RequestParam(value = "resumeFile", required = false) MultipartFile resumeFile,
             @RequestParam("jobTitle") String jobTitle,
             @RequestParam("jobDescription") String jobDescription,
-            @AuthenticationPrincipal UserDetails springUserDetails,
+            @RequestParam(value = "async", defaultValue = "false") boolean async,
+            JwtPrincipal principal,
             HttpServletRequest request
     ) {
-        if (springUserDetails == null) {
+        if (principal == null) {
             logger.warn("POST /process: Request with no authenticated user details.");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ApiErrorResponse(HttpStatus.UNAUTHORIZED.value(), "Unauthorized", "User not authenticated", request.getRequestURI()));
         }
 
-        User authenticatedUser = userRepository.findByEmail(springUserDetails.getUsername())
-                .orElseThrow(() -> {
-                    logger.error("POST /process: Authenticated user with email {} not found in repository.", springUserDetails.getUsername());
-                    return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Authenticated user details not found in system.");
-                });
+        // Lazy reference: only the id is needed to link the new rows to the user, so nothing is loaded
+        User authenticatedUser = userRepository.getReferenceById(principal.userId());
 
-        logger.info("POST /process: Received analysis request for user: {}, Job Title: {}", authenticatedUser.getEmail(), jobTitle);
+        logger.info("POST /process: Received analysis request for user: {}, Job Title: {}", principal.email(), jobTitle);
 
         if ((resumeFile == null || resumeFile.isEmpty()) && (jobDescription == null || jobDescription.isBlank())) {
-            logger.warn("POST /process: Both resume file and job description are empty/null for user {}.", authenticatedUser.getEmail());
+            logger.warn("POST /process: Both resume file and job description are empty/null for user {}.", principal.email());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ApiErrorResponse(HttpStatus.BAD_REQUEST.value(), "Bad Request", "Resume file or job description must be provided.", request.getRequestURI()));
         }
 
+        if (async) {
+            return submitAnalysisJob(resumeFile, jobTitle, jobDescription, authenticatedUser, request);
+        }
+
         try {
             InsightDetailDto fullInsightDetail = analyzerService.analyzeDocuments(resumeFile, jobTitle, jobDescription, authenticatedUser);
 
@@ -76,55 +114,330 @@ public class AnalyzerController {
                 // Return the full InsightDetailDto as requested for the frontend
                 return ResponseEntity.ok(fullInsightDetail); // MODIFIED HERE
             } else {
-                logger.error("POST /process: Service method analyzeDocuments did not return a valid InsightDetailDto for user {}", authenticatedUser.getEmail());
+                logger.error("POST /process: Service method analyzeDocuments did not return a valid InsightDetailDto for user {}", principal.email());
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                         .body(new ApiErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Processing Error", "Analysis completed but failed to retrieve structured result details.", request.getRequestURI()));
             }
+        } catch (CapacityExceededException e) {
+            logger.warn("POST /process: Capacity exhausted for user {}: {}", principal.email(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, e.getRetryAfterSeconds())
+                    .body(new ApiErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable", e.getMessage(), request.getRequestURI()));
         } catch (RuntimeException e) {
-            logger.error("POST /process: Error during document analysis for user {}: {}", authenticatedUser.getEmail(), e.getMessage(), e);
+            logger.error("POST /process: Error during document analysis for user {}: {}", principal.email(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Analysis Failed", e.getMessage(), request.getRequestURI()));
         } catch (Exception e) {
-            logger.error("POST /process: Unexpected error for user {}: {}", authenticatedUser.getEmail(), e.getMessage(), e);
+            logger.error("POST /process: Unexpected error for user {}: {}", principal.email(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Internal Server Error", "An unexpected error occurred during the analysis process.", request.getRequestURI()));
         }
     }
 
+    /**
+     * Same inputs as /process, but the result is streamed as Server-Sent Events while the model generates it:
+     * one event per completed top-level section (event name = section name, e.g. "matchScore",
+     * "keywordAnalysis"; data = its JSON value), then a "complete" event carrying the saved InsightDetailDto,
+     * or an "error" event carrying an ApiErrorResponse.
+     */
+    @PostMapping("/process/stream")
+    public ResponseEntity<?> processDocumentsStream(
+            @RequestParam(value = "resumeFile", required = false) MultipartFile resumeFile,
+            @RequestParam("jobTitle") String jobTitle,
+            @RequestParam("jobDescription") String jobDescription,
+            JwtPrincipal principal,
+            HttpServletRequest request
+    ) {
+        if (principal == null) {
+            logger.warn("POST /process/stream: Request with no authenticated user details.");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiErrorResponse(HttpStatus.UNAUTHORIZED.value(), "Unauthorized", "User not authenticated", request.getRequestURI()));
+        }
+
+        // Lazy reference: only the id is needed to link the new rows to the user, so nothing is loaded
+        User authenticatedUser = userRepository.getReferenceById(principal.userId());
+
+        logger.info("POST /process/stream: Received streaming analysis request for user: {}, Job Title: {}", principal.email(), jobTitle);
+
+        if ((resumeFile == null || resumeFile.isEmpty()) && (jobDescription == null || jobDescription.isBlank())) {
+            logger.warn("POST /process/stream: Both resume file and job description are empty/null for user {}.", principal.email());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiErrorResponse(HttpStatus.BAD_REQUEST.value(), "Bad Request", "Resume file or job description must be provided.", request.getRequestURI()));
+        }
+
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        emitter.onTimeout(() -> logger.warn("POST /process/stream: SSE connection timed out for user {}. The analysis still completes and is saved.",
+                principal.email()));
+        try {
+            analyzerService.streamAnalysis(resumeFile, jobTitle, jobDescription, authenticatedUser,
+                    new SseAnalysisStreamListener(emitter, request.getRequestURI()));
+        } catch (CapacityExceededException e) {
+            logger.warn("POST /process/stream: Capacity exhausted for user {}: {}", principal.email(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, e.getRetryAfterSeconds())
+                    .body(new ApiErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable", e.getMessage(), request.getRequestURI()));
+        } catch (RuntimeException e) {
+            // Failures before streaming starts (e.g. an unreadable PDF) still get a plain JSON error
+            logger.error("POST /process/stream: Error starting analysis for user {}: {}", principal.email(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Analysis Failed", e.getMessage(), request.getRequestURI()));
+        }
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+    }
+
+    /**
+     * One resume against many job descriptions: jobTitle and jobDescription are repeated form fields, paired by
+     * position. The resume is parsed once and the analyses run in parallel. The response is a stream of
+     * Server-Sent Events: a "result" (or "item-error") event with a BatchAnalysisItemDto as each analysis
+     * finishes, then a "complete" event carrying the list of saved InsightDetailDto (request order), or an
+     * "error" event carrying an ApiErrorResponse.
+     */
+    @PostMapping("/process/batch")
+    public ResponseEntity<?> processBatch(
+            @RequestParam(value = "resumeFile", required = false) MultipartFile resumeFile,
+            @RequestParam("jobTitle") List<String> jobTitles,
+            @RequestParam("jobDescription") List<String> jobDescriptions,
+            JwtPrincipal principal,
+            HttpServletRequest request
+    ) {
+        if (principal == null) {
+            logger.warn("POST /process/batch: Request with no authenticated user details.");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiErrorResponse(HttpStatus.UNAUTHORIZED.value(), "Unauthorized", "User not authenticated", request.getRequestURI()));
+        }
+
+        // Lazy reference: only the id is needed to link the new rows to the user, so nothing is loaded
+        User authenticatedUser = userRepository.getReferenceById(principal.userId());
+
+        logger.info("POST /process/batch: Received batch analysis request for user: {}, {} job descriptions",
+                principal.email(), jobDescriptions.size());
+
+        String validationError = null;
+        if (jobTitles.size() != jobDescriptions.size()) {
+            validationError = "Each job description needs exactly one job title.";
+        } else if (jobDescriptions.isEmpty() || jobDescriptions.size() > batchMaxItems) {
+            validationError = "A batch must contain between 1 and " + batchMaxItems + " job descriptions.";
+        } else if (jobDescriptions.stream().anyMatch(jd -> jd == null || jd.isBlank())) {
+            validationError = "Job descriptions must not be empty.";
+        }
+        if (validationError != null) {
+            logger.warn("POST /process/batch: Invalid batch from user {}: {}", principal.email(), validationError);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiErrorResponse(HttpStatus.BAD_REQUEST.value(), "Bad Request", validationError, request.getRequestURI()));
+        }
+
+        List<JobDescriptionInput> inputs = new ArrayList<>(jobDescriptions.size());
+        for (int i = 0; i < jobDescriptions.size(); i++) {
+            inputs.add(new JobDescriptionInput(jobTitles.get(i), jobDescriptions.get(i)));
+        }
+
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        emitter.onTimeout(() -> logger.warn("POST /process/batch: SSE connection timed out for user {}. The batch still completes and is saved.",
+                principal.email()));
+        try {
+            analyzerService.analyzeBatch(resumeFile, inputs, authenticatedUser, new SseBatchAnalysisListener(emitter, request.getRequestURI()));
+        } catch (CapacityExceededException e) {
+            logger.warn("POST /process/batch: Capacity exhausted for user {}: {}", principal.email(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, e.getRetryAfterSeconds())
+                    .body(new ApiErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable", e.getMessage(), request.getRequestURI()));
+        } catch (RuntimeException e) {
+            logger.error("POST /process/batch: Error starting batch analysis for user {}: {}", principal.email(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Analysis Failed", e.getMessage(), request.getRequestURI()));
+        }
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+    }
+
+    /**
+     * Writes batch analysis progress to an SseEmitter; like SseAnalysisStreamListener, send failures are only logged.
+     */
+    private static final class SseBatchAnalysisListener implements BatchAnalysisListener {
+
+        private final SseEmitter emitter;
+        private final String requestUri;
+
+        SseBatchAnalysisListener(SseEmitter emitter, String requestUri) {
+            this.emitter = emitter;
+            this.requestUri = requestUri;
+        }
+
+        @Override
+        public void onResult(int index, String jobTitle, String modelName, AnalysisResultDto result) {
+            send(SseEmitter.event().name("result")
+                    .data(new BatchAnalysisItemDto(index, jobTitle, modelName, result, null), MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void onItemError(int index, String jobTitle, Throwable error) {
+            send(SseEmitter.event().name("item-error")
+                    .data(new BatchAnalysisItemDto(index, jobTitle, null, null, errorResponse(error, requestUri)), MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void onComplete(List<InsightDetailDto> insights) {
+            send(SseEmitter.event().name("complete").data(insights, MediaType.APPLICATION_JSON));
+            emitter.complete();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            send(SseEmitter.event().name("error").data(errorResponse(error, requestUri), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Could not write SSE event to {} (client gone?): {}", requestUri, e.getMessage());
+            }
+        }
+    }
+
+    // The status is already 200 once a stream has started, so capacity rejections are reported in the event
+    private static ApiErrorResponse errorResponse(Throwable error, String requestUri) {
+        return error instanceof CapacityExceededException
+                ? new ApiErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable", error.getMessage(), requestUri)
+                : new ApiErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Analysis Failed",
+                        "AI analysis failed: " + error.getMessage(), requestUri);
+    }
+
+    /**
+     * Writes analysis progress to an SseEmitter. Send failures (client disconnected) are only logged so the
+     * analysis itself runs to completion and is saved.
+     */
+    private static final class SseAnalysisStreamListener implements AnalysisStreamListener {
+
+        private final SseEmitter emitter;
+        private final String requestUri;
+
+        SseAnalysisStreamListener(SseEmitter emitter, String requestUri) {
+            this.emitter = emitter;
+            this.requestUri = requestUri;
+        }
+
+        @Override
+        public void onSection(String name, JsonNode value) {
+            send(SseEmitter.event().name(name).data(value, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void onComplete(InsightDetailDto insight) {
+            send(SseEmitter.event().name("complete").data(insight, MediaType.APPLICATION_JSON));
+            emitter.complete();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            send(SseEmitter.event().name("error").data(errorResponse(error, requestUri), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Could not write SSE event to {} (client gone?): {}", requestUri, e.getMessage());
+            }
+        }
+    }
+
+    private ResponseEntity<?> submitAnalysisJob(MultipartFile resumeFile, String jobTitle, String jobDescription,
+                                                User authenticatedUser, HttpServletRequest request) {
+        try {
+            AnalysisJobDto job = analysisJobService.submitJob(resumeFile, jobTitle, jobDescription, authenticatedUser);
+            logger.info("POST /process (async): Accepted analysis job {} for user {}", job.jobId(), authenticatedUser.getId());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/insights/jobs/" + job.jobId()))
+                    .body(job);
+        } catch (AnalysisQueueFullException e) {
+            logger.warn("POST /process (async): {} (user {})", e.getMessage(), authenticatedUser.getId());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, QUEUE_FULL_RETRY_AFTER_SECONDS)
+                    .body(new ApiErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable", e.getMessage(), request.getRequestURI()));
+        } catch (RuntimeException e) {
+            logger.error("POST /process (async): Error submitting analysis job for user {}: {}", authenticatedUser.getId(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Analysis Failed", e.getMessage(), request.getRequestURI()));
+        }
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<AnalysisJobDto> getAnalysisJob(
+            @PathVariable UUID jobId,
+            JwtPrincipal principal
+    ) {
+        if (principal == null) {
+            logger.warn("GET /jobs/{}: Request with no authenticated user.", jobId);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        logger.debug("GET /jobs/{}: Polling job for user {}", jobId, principal.email());
+        return analysisJobService.getJobForUser(jobId, principal.userId())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.warn("GET /jobs/{}: Job not found or not owned by user {}", jobId, principal.email());
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
     // --- GET Endpoints Reverted to User's Previous Working Style ---
 
     @GetMapping("/history")
-    public ResponseEntity<List<InsightSummaryDto>> getInsightsHistory(@AuthenticationPrincipal UserDetails userDetails) {
-        if (userDetails == null) {
+    public ResponseEntity<?> getInsightsHistory(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdFrom,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdTo,
+            @RequestParam(value = "minScore", required = false) Integer minMatchScore,
+            @RequestParam(value = "maxScore", required = false) Integer maxMatchScore,
+            @RequestParam(value = "jobTitle", required = false) String jobTitlePrefix,
+            JwtPrincipal principal,
+            HttpServletRequest request) {
+        if (principal == null) {
             logger.warn("GET /history: Request with no authenticated user.");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        User user = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Authenticated user not found for history."));
+        if (limit != null && limit < 1) {
+            return badRequest("limit must be at least 1.", request);
+        }
+        if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+            return badRequest("from must be before to.", request);
+        }
+        if (minMatchScore != null && maxMatchScore != null && minMatchScore > maxMatchScore) {
+            return badRequest("minScore must not be greater than maxScore.", request);
+        }
+        int pageSize = limit == null ? historyDefaultPageSize : Math.min(limit, historyMaxPageSize);
+        InsightHistoryFilter filter = new InsightHistoryFilter(createdFrom, createdTo, minMatchScore, maxMatchScore, jobTitlePrefix);
+        logger.info("GET /history: Fetching history page for user {} (size {})", principal.email(), pageSize);
+        try {
+            return ResponseEntity.ok(analyzerService.getInsightsHistoryForUser(principal.userId(), filter, cursor, pageSize));
+        } catch (IllegalArgumentException e) {
+            logger.warn("GET /history: Invalid cursor from user {}: {}", principal.email(), e.getMessage());
+            return badRequest("Invalid cursor.", request);
+        }
+    }
 
-        logger.info("GET /history: Fetching history for user {}", user.getEmail());
-        List<InsightSummaryDto> history = analyzerService.getInsightsHistoryForUser(user);
-        return ResponseEntity.ok(history);
+    private static ResponseEntity<ApiErrorResponse> badRequest(String message, HttpServletRequest request) {
+        return ResponseEntity.badRequest()
+                .body(new ApiErrorResponse(HttpStatus.BAD_REQUEST.value(), "Bad Request", message, request.getRequestURI()));
     }
 
     @GetMapping("/latest")
-    public ResponseEntity<?> getLatestInsight(@AuthenticationPrincipal UserDetails userDetails) {
-        if (userDetails == null) {
+    public ResponseEntity<?> getLatestInsight(JwtPrincipal principal) {
+        if (principal == null) {
             logger.warn("GET /latest: Request with no authenticated user.");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        User user = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Authenticated user not found for latest insight."));
-
-        logger.info("GET /latest: Fetching latest insight for user {}", user.getEmail());
-        Optional<InsightDetailDto> latestInsightOpt = analyzerService.getLatestInsightForUser(user);
+        logger.info("GET /latest: Fetching latest insight for user {}", principal.email());
+        Optional<InsightDetailDto> latestInsightOpt = analyzerService.getLatestInsightForUser(principal.userId());
 
         if (latestInsightOpt.isPresent()) {
             UUID latestId = latestInsightOpt.get().id();
-            logger.info("GET /latest: Latest insight ID for user {}: {}", user.getEmail(), latestId);
+            logger.info("GET /latest: Latest insight ID for user {}: {}", principal.email(), latestId);
             return ResponseEntity.ok(new LatestInsightResponseDto(latestId));
         } else {
-            logger.info("GET /latest: No insights found for user {}", user.getEmail());
+            logger.info("GET /latest: No insights found for user {}", principal.email());
             return ResponseEntity.ok(new LatestInsightResponseDto(null));
         }
     }
@@ -132,23 +445,20 @@ public class AnalyzerController {
     @GetMapping("/{id}")
     public ResponseEntity<InsightDetailDto> getInsightById(
             @PathVariable UUID id,
-            @AuthenticationPrincipal UserDetails userDetails
+            JwtPrincipal principal
     ) {
-        if (userDetails == null) {
+        if (principal == null) {
             logger.warn("GET /insights/{}: Request with no authenticated user.", id);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        User user = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Authenticated user not found for insight ID " + id));
-
-        logger.info("GET /insights/{}: Fetching insight for user {}", id, user.getEmail());
-        return analyzerService.getInsightByIdAndUser(id, user)
+        logger.info("GET /insights/{}: Fetching insight for user {}", id, principal.email());
+        return analyzerService.getInsightByIdAndUser(id, principal.userId())
                 .map(insightDetailDto -> {
-                    logger.info("GET /insights/{}: Found insight for user {}", id, user.getEmail());
+                    logger.info("GET /insights/{}: Found insight for user {}", id, principal.email());
                     return ResponseEntity.ok(insightDetailDto);
                 })
                 .orElseGet(() -> {
-                    logger.warn("GET /insights/{}: Insight not found or not owned by user {}", id, user.getEmail());
+                    logger.warn("GET /insights/{}: Insight not found or not owned by user {}", id, principal.email());
                     return ResponseEntity.notFound().build();
                 });
     }
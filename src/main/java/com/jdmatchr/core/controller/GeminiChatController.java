@@ -2,19 +2,30 @@ package com.jdmatchr.core.controller;
 
 import com.jdmatchr.core.dto.GeminiChatRequest;
 import com.jdmatchr.core.dto.GeminiChatResponse;
+import com.jdmatchr.core.dto.GeminiChatUsageDto;
 import com.jdmatchr.core.dto.ApiErrorResponse; // Assuming you have this for standardized errors
+import com.jdmatchr.core.exception.LlmCapacityExceededException;
+import com.jdmatchr.core.service.AiUsageRecorder;
 import com.jdmatchr.core.service.GeminiChatService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.metadata.Usage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
 
 @RestController
 @RequestMapping("/api/v1/chat") // Base path for chat-related endpoints
@@ -51,6 +62,11 @@ public class GeminiChatController {
             // If successful, wrap the AI's message in our response DTO
             return ResponseEntity.ok(new GeminiChatResponse(aiResponse));
 
+        } catch (LlmCapacityExceededException e) {
+            logger.warn("AI capacity exhausted for chat request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, e.getRetryAfterSeconds())
+                    .body(new ApiErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable", e.getMessage(), httpRequest.getRequestURI()));
         } catch (Exception e) {
             // Catch any other unexpected exceptions during the process
             logger.error("Unexpected error in chatWithGemini endpoint: {}", e.getMessage(), e);
@@ -63,4 +79,62 @@ public class GeminiChatController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * text/event-stream variant of /gemini, selected with "Accept: text/event-stream".
+     * Emits "delta" events ({"message": "..."}) as the answer is generated and a final "done" event carrying
+     * the token usage, or an "error" event (status 503 when no AI capacity was free). Spring MVC writes the Flux with demand-driven backpressure and
+     * cancels it when the client disconnects or the async request times out, which aborts the upstream call.
+     */
+    @PostMapping(value = "/gemini", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamChatWithGemini(@Valid @RequestBody GeminiChatRequest chatRequest, HttpServletRequest httpRequest) {
+        logger.info("Received streaming chat request for Gemini: Prompt='{}'", chatRequest.getPrompt());
+        String requestUri = httpRequest.getRequestURI();
+        AtomicReference<Usage> finalUsage = new AtomicReference<>();
+
+        Flux<ServerSentEvent<Object>> deltas = geminiChatService.streamChatResponse(chatRequest.getPrompt())
+                .doOnNext(response -> {
+                    Usage usage = response.getMetadata() != null ? response.getMetadata().getUsage() : null;
+                    if (AiUsageRecorder.isReported(usage)) {
+                        finalUsage.set(usage);
+                    }
+                })
+                .mapNotNull(response -> response.getResult() != null && response.getResult().getOutput() != null
+                        ? response.getResult().getOutput().getText() : null)
+                .filter(text -> !text.isEmpty())
+                .map(text -> ServerSentEvent.builder((Object) new GeminiChatResponse(text)).event("delta").build());
+
+        Mono<ServerSentEvent<Object>> done = Mono.fromSupplier(() ->
+                ServerSentEvent.builder((Object) toUsageDto(finalUsage.get())).event("done").build());
+
+        return deltas.concatWith(done)
+                .onErrorResume(LlmCapacityExceededException.class, e -> {
+                    logger.warn("AI capacity exhausted for streaming chat request: {}", e.getMessage());
+                    ApiErrorResponse errorResponse = new ApiErrorResponse(
+                            HttpStatus.SERVICE_UNAVAILABLE.value(),
+                            "Service Unavailable",
+                            e.getMessage(),
+                            requestUri
+                    );
+                    return Flux.just(ServerSentEvent.builder((Object) errorResponse).event("error").build());
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error in streamChatWithGemini endpoint: {}", e.getMessage(), e);
+                    ApiErrorResponse errorResponse = new ApiErrorResponse(
+                            HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                            "AI Service Error",
+                            "Error: Could not get response from AI service.",
+                            requestUri
+                    );
+                    return Flux.just(ServerSentEvent.builder((Object) errorResponse).event("error").build());
+                });
+    }
+
+    private static GeminiChatUsageDto toUsageDto(Usage usage) {
+        if (usage == null) {
+            return new GeminiChatUsageDto(null, null, null, null);
+        }
+        return new GeminiChatUsageDto(usage.getPromptTokens(), AiUsageRecorder.cachedPromptTokens(usage),
+                usage.getCompletionTokens(), usage.getTotalTokens());
+    }
+}
@@ -0,0 +1,122 @@
+// src/main/java/com/jdmatchr/core/controller/ReanalysisController.java
+package com.jdmatchr.core.controller;
+
+import com.jdmatchr.core.dto.ApiErrorResponse;
+import com.jdmatchr.core.dto.ReanalysisJobDto;
+import com.jdmatchr.core.dto.ReanalysisJobRequest;
+import com.jdmatchr.core.exception.AnalysisQueueFullException;
+import com.jdmatchr.core.security.JwtPrincipal;
+import com.jdmatchr.core.service.ReanalysisJobService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Operator endpoints for bulk re-analysis jobs. There are no roles in this application yet, so access is
+ * limited to the accounts listed in jdmatchr.reanalysis.admin-emails (nobody by default).
+ */
+@RestController
+@RequestMapping("/api/v1/admin/reanalysis-jobs")
+public class ReanalysisController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReanalysisController.class);
+
+    private final ReanalysisJobService reanalysisJobService;
+    private final Set<String> adminEmails;
+
+    @Autowired
+    public ReanalysisController(ReanalysisJobService reanalysisJobService,
+                                @Value("${jdmatchr.reanalysis.admin-emails:}") List<String> adminEmails) {
+        this.reanalysisJobService = reanalysisJobService;
+        this.adminEmails = adminEmails.stream()
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .map(String::toLowerCase)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @PostMapping
+    public ResponseEntity<?> submitJob(@RequestBody ReanalysisJobRequest jobRequest,
+                                       JwtPrincipal principal,
+                                       HttpServletRequest request) {
+        ResponseEntity<ApiErrorResponse> denied = checkAdmin(principal, request);
+        if (denied != null) {
+            return denied;
+        }
+        if (jobRequest.createdFrom() != null && jobRequest.createdTo() != null && !jobRequest.createdFrom().isBefore(jobRequest.createdTo())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiErrorResponse(HttpStatus.BAD_REQUEST.value(), "Bad Request", "createdFrom must be before createdTo.", request.getRequestURI()));
+        }
+        try {
+            ReanalysisJobDto job = reanalysisJobService.submitJob(jobRequest);
+            logger.info("POST /admin/reanalysis-jobs: {} submitted re-analysis job {}", principal.email(), job.jobId());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/admin/reanalysis-jobs/" + job.jobId()))
+                    .body(job);
+        } catch (AnalysisQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ApiErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable", e.getMessage(), request.getRequestURI()));
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable UUID jobId,
+                                    JwtPrincipal principal,
+                                    HttpServletRequest request) {
+        ResponseEntity<ApiErrorResponse> denied = checkAdmin(principal, request);
+        if (denied != null) {
+            return denied;
+        }
+        return reanalysisJobService.getJob(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Continues a FAILED job from its last checkpoint.
+     */
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<?> resumeJob(@PathVariable UUID jobId,
+                                       JwtPrincipal principal,
+                                       HttpServletRequest request) {
+        ResponseEntity<ApiErrorResponse> denied = checkAdmin(principal, request);
+        if (denied != null) {
+            return denied;
+        }
+        try {
+            return reanalysisJobService.resumeJob(jobId)
+                    .<ResponseEntity<?>>map(job -> ResponseEntity.accepted().body(job))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ApiErrorResponse(HttpStatus.CONFLICT.value(), "Conflict", e.getMessage(), request.getRequestURI()));
+        } catch (AnalysisQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ApiErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable", e.getMessage(), request.getRequestURI()));
+        }
+    }
+
+    private ResponseEntity<ApiErrorResponse> checkAdmin(JwtPrincipal principal, HttpServletRequest request) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiErrorResponse(HttpStatus.UNAUTHORIZED.value(), "Unauthorized", "User not authenticated", request.getRequestURI()));
+        }
+        if (!adminEmails.contains(principal.email().toLowerCase())) {
+            logger.warn("{} {}: {} is not a re-analysis admin.", request.getMethod(), request.getRequestURI(), principal.email());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ApiErrorResponse(HttpStatus.FORBIDDEN.value(), "Forbidden", "Re-analysis jobs are restricted to administrators.", request.getRequestURI()));
+        }
+        return null;
+    }
+}
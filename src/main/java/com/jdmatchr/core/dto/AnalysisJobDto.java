@@ -0,0 +1,17 @@
+package com.jdmatchr.core.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Returned with 202 Accepted by /process?async=true and by the job poll endpoint
+public record AnalysisJobDto(
+        UUID jobId,
+        String status, // PENDING, RUNNING, COMPLETED or FAILED
+        String jobTitle,
+        String resumeFilename,
+        UUID insightId, // Null until the job has COMPLETED
+        String errorMessage, // Null unless the job has FAILED
+        OffsetDateTime createdAt,
+        OffsetDateTime updatedAt,
+        OffsetDateTime completedAt
+) {}
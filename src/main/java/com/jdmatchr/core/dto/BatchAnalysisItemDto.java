@@ -0,0 +1,11 @@
+package com.jdmatchr.core.dto;
+
+// Streamed by /process/batch as soon as the analysis of one job description is done ("result" event)
+// or has failed ("item-error" event). The insights themselves are saved and sent when the batch completes.
+public record BatchAnalysisItemDto(
+        int index, // Position of the job description in the request
+        String jobTitle,
+        String modelName, // Null on error
+        AnalysisResultDto analysisResult, // Null on error
+        ApiErrorResponse error // Null on success
+) {}
@@ -0,0 +1,13 @@
+// src/main/java/com/jdmatchr/core/dto/GeminiChatUsageDto.java
+package com.jdmatchr.core.dto;
+
+/**
+ * Token usage of a streamed chat response, sent as the final "done" event.
+ * Fields are null when the provider did not report them.
+ */
+public record GeminiChatUsageDto(
+        Integer promptTokens,
+        Integer cachedPromptTokens,
+        Integer completionTokens,
+        Integer totalTokens
+) {}
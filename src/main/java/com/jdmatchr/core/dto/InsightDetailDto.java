@@ -11,6 +11,7 @@ public record InsightDetailDto(
         String jobTitle,
         String resumeFilename,
         OffsetDateTime createdAt, // RE-ADDED
+        String modelName, // Model that produced the analysis (null for insights saved before model routing)
         AnalysisResultDto analysisResult
 ) {
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+// src/main/java/com/jdmatchr/core/dto/InsightHistoryFilter.java
+package com.jdmatchr.core.dto;
+
+import java.time.OffsetDateTime;
+
+// Optional filters for the /history page; null means "no restriction"
+public record InsightHistoryFilter(
+        OffsetDateTime createdFrom, // inclusive
+        OffsetDateTime createdTo, // exclusive
+        Integer minMatchScore,
+        Integer maxMatchScore,
+        String jobTitlePrefix // case-insensitive
+) {
+
+    public static final InsightHistoryFilter NONE = new InsightHistoryFilter(null, null, null, null, null);
+}
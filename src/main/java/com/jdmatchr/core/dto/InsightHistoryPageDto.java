@@ -0,0 +1,11 @@
+// src/main/java/com/jdmatchr/core/dto/InsightHistoryPageDto.java
+package com.jdmatchr.core.dto;
+
+import java.util.List;
+
+// One page of the /history list
+public record InsightHistoryPageDto(
+        List<InsightSummaryDto> items,
+        String nextCursor, // pass back as ?cursor= for the next page; null on the last page
+        boolean hasMore
+) {}
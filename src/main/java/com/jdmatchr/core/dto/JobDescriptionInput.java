@@ -0,0 +1,7 @@
+package com.jdmatchr.core.dto;
+
+// One job of a batch analysis request (POST /api/v1/insights/process/batch)
+public record JobDescriptionInput(
+        String jobTitle,
+        String jobDescription
+) {}
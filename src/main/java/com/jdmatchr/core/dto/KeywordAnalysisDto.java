@@ -1,7 +1,7 @@
 package com.jdmatchr.core.dto;
 import java.util.List;
 
-record KeywordAnalysisDto(
+public record KeywordAnalysisDto(
         List<String> missingKeywords,
         Integer keywordDensityScore,
         List<String> matchedKeywords
@@ -0,0 +1,24 @@
+package com.jdmatchr.core.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Returned by the bulk re-analysis admin endpoints
+public record ReanalysisJobDto(
+        UUID jobId,
+        String status, // PENDING, RUNNING, COMPLETED or FAILED
+        UUID filterUserId,
+        OffsetDateTime filterCreatedFrom,
+        OffsetDateTime filterCreatedTo,
+        String promptVersion,
+        String modelName,
+        boolean applyToInsights,
+        int processedCount,
+        int succeededCount,
+        int failedCount,
+        int skippedCount, // Insights without stored inputs (saved before insight_inputs existed)
+        String errorMessage, // Null unless the job has FAILED
+        OffsetDateTime createdAt,
+        OffsetDateTime updatedAt,
+        OffsetDateTime completedAt
+) {}
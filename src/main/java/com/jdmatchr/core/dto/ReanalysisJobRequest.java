@@ -0,0 +1,13 @@
+package com.jdmatchr.core.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Body of POST /api/v1/admin/reanalysis-jobs; every filter is optional
+public record ReanalysisJobRequest(
+        UUID userId, // Only insights of this user
+        OffsetDateTime createdFrom, // Inclusive
+        OffsetDateTime createdTo, // Exclusive
+        String modelName, // Null = the model router's choice
+        boolean applyToInsights // Also overwrite each insight's result with its new revision
+) {}
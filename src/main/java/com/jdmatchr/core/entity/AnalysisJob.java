@@ -0,0 +1,91 @@
+// src/main/java/com/jdmatchr/core/entity/AnalysisJob.java
+package com.jdmatchr.core.entity;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Tracks an analysis that was accepted by POST /api/v1/insights/process?async=true
+ * and is being (or has been) processed by the analysis worker pool.
+ * The resulting insight is referenced by ID once the job completes.
+ */
+@Entity
+@Table(name = "analysis_jobs")
+public class AnalysisJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(columnDefinition = "UUID")
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user; // Owner of the job; only they can poll it
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private AnalysisJobStatus status;
+
+    @Column(name = "job_title", length = 255, nullable = false)
+    private String jobTitle;
+
+    @Column(name = "resume_filename", length = 255)
+    private String resumeFilename;
+
+    @Column(name = "insight_id", columnDefinition = "UUID")
+    private UUID insightId; // Set once the job has COMPLETED
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage; // Set once the job has FAILED
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private OffsetDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private OffsetDateTime completedAt;
+
+    public AnalysisJob() {
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+    public AnalysisJobStatus getStatus() { return status; }
+    public void setStatus(AnalysisJobStatus status) { this.status = status; }
+    public String getJobTitle() { return jobTitle; }
+    public void setJobTitle(String jobTitle) { this.jobTitle = jobTitle; }
+    public String getResumeFilename() { return resumeFilename; }
+    public void setResumeFilename(String resumeFilename) { this.resumeFilename = resumeFilename; }
+    public UUID getInsightId() { return insightId; }
+    public void setInsightId(UUID insightId) { this.insightId = insightId; }
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+    public OffsetDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(OffsetDateTime createdAt) { this.createdAt = createdAt; }
+    public OffsetDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(OffsetDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public OffsetDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(OffsetDateTime completedAt) { this.completedAt = completedAt; }
+
+    @PrePersist
+    protected void onCreate() {
+        OffsetDateTime now = OffsetDateTime.now();
+        this.createdAt = now;
+        this.updatedAt = now;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = OffsetDateTime.now();
+    }
+}
@@ -0,0 +1,12 @@
+package com.jdmatchr.core.entity;
+
+/**
+ * Lifecycle of an asynchronous analysis job.
+ * PENDING -> RUNNING -> COMPLETED | FAILED
+ */
+public enum AnalysisJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
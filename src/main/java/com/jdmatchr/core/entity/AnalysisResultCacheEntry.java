@@ -0,0 +1,58 @@
+// src/main/java/com/jdmatchr/core/entity/AnalysisResultCacheEntry.java
+package com.jdmatchr.core.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/**
+ * Persisted tier of the analysis result cache. Rows are content-addressed:
+ * the key is a SHA-256 over the analysis inputs, the model name and the prompt version,
+ * so identical requests from any node (or after a restart) can be answered without an AI call.
+ */
+@Entity
+@Table(name = "analysis_result_cache")
+public class AnalysisResultCacheEntry {
+
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(name = "model_name", length = 255, nullable = false)
+    private String modelName;
+
+    @Column(name = "prompt_version", length = 50, nullable = false)
+    private String promptVersion;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "analysis_result", columnDefinition = "jsonb", nullable = false)
+    private Map<String, Object> analysisResult;
+
+    @Column(name = "created_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private OffsetDateTime expiresAt;
+
+    public AnalysisResultCacheEntry() {
+    }
+
+    // Getters and Setters
+    public String getCacheKey() { return cacheKey; }
+    public void setCacheKey(String cacheKey) { this.cacheKey = cacheKey; }
+    public String getModelName() { return modelName; }
+    public void setModelName(String modelName) { this.modelName = modelName; }
+    public String getPromptVersion() { return promptVersion; }
+    public void setPromptVersion(String promptVersion) { this.promptVersion = promptVersion; }
+    public Map<String, Object> getAnalysisResult() { return analysisResult; }
+    public void setAnalysisResult(Map<String, Object> analysisResult) { this.analysisResult = analysisResult; }
+    public OffsetDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(OffsetDateTime createdAt) { this.createdAt = createdAt; }
+    public OffsetDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(OffsetDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
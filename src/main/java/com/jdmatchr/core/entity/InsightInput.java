@@ -0,0 +1,54 @@
+// src/main/java/com/jdmatchr/core/entity/InsightInput.java
+package com.jdmatchr.core.entity;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * The full inputs an insight was computed from. Insights only keeps a 250 char JD summary and no resume text,
+ * so these rows are what lets a bulk re-analysis rebuild the prompt later. One row per insight, same ID.
+ */
+@Entity
+@Table(name = "insight_inputs")
+public class InsightInput {
+
+    @Id
+    @Column(name = "insight_id", columnDefinition = "UUID")
+    private UUID insightId;
+
+    @Column(name = "job_description", columnDefinition = "TEXT", nullable = false)
+    private String jobDescription;
+
+    @Column(name = "resume_text", columnDefinition = "TEXT", nullable = false)
+    private String resumeText;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private OffsetDateTime createdAt;
+
+    public InsightInput() {
+    }
+
+    public InsightInput(UUID insightId, String jobDescription, String resumeText) {
+        this.insightId = insightId;
+        this.jobDescription = jobDescription;
+        this.resumeText = resumeText;
+    }
+
+    // Getters and Setters
+    public UUID getInsightId() { return insightId; }
+    public void setInsightId(UUID insightId) { this.insightId = insightId; }
+    public String getJobDescription() { return jobDescription; }
+    public void setJobDescription(String jobDescription) { this.jobDescription = jobDescription; }
+    public String getResumeText() { return resumeText; }
+    public void setResumeText(String resumeText) { this.resumeText = resumeText; }
+    public OffsetDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(OffsetDateTime createdAt) { this.createdAt = createdAt; }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = OffsetDateTime.now();
+    }
+}
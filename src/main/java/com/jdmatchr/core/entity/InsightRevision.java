@@ -0,0 +1,80 @@
+// src/main/java/com/jdmatchr/core/entity/InsightRevision.java
+package com.jdmatchr.core.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A re-computed analysis of an existing insight, written by a bulk re-analysis job. Revisions are kept side
+ * by side (one per job, prompt version and model), so old and new scores can be compared before or after
+ * they are applied to the insight itself.
+ */
+@Entity
+@Table(name = "insight_revisions",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"insight_id", "reanalysis_job_id"}))
+public class InsightRevision {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(columnDefinition = "UUID")
+    private UUID id;
+
+    @Column(name = "insight_id", columnDefinition = "UUID", nullable = false)
+    private UUID insightId;
+
+    @Column(name = "reanalysis_job_id", columnDefinition = "UUID", nullable = false)
+    private UUID reanalysisJobId;
+
+    @Column(name = "prompt_version", length = 50, nullable = false)
+    private String promptVersion;
+
+    @Column(name = "model_name", length = 100, nullable = false)
+    private String modelName;
+
+    @Column(name = "match_score")
+    private Double matchScore;
+
+    @Column(name = "ats_score")
+    private Integer atsScore;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "analysis_result", columnDefinition = "jsonb", nullable = false)
+    private Map<String, Object> analysisResult;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private OffsetDateTime createdAt;
+
+    public InsightRevision() {
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public UUID getInsightId() { return insightId; }
+    public void setInsightId(UUID insightId) { this.insightId = insightId; }
+    public UUID getReanalysisJobId() { return reanalysisJobId; }
+    public void setReanalysisJobId(UUID reanalysisJobId) { this.reanalysisJobId = reanalysisJobId; }
+    public String getPromptVersion() { return promptVersion; }
+    public void setPromptVersion(String promptVersion) { this.promptVersion = promptVersion; }
+    public String getModelName() { return modelName; }
+    public void setModelName(String modelName) { this.modelName = modelName; }
+    public Double getMatchScore() { return matchScore; }
+    public void setMatchScore(Double matchScore) { this.matchScore = matchScore; }
+    public Integer getAtsScore() { return atsScore; }
+    public void setAtsScore(Integer atsScore) { this.atsScore = atsScore; }
+    public Map<String, Object> getAnalysisResult() { return analysisResult; }
+    public void setAnalysisResult(Map<String, Object> analysisResult) { this.analysisResult = analysisResult; }
+    public OffsetDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(OffsetDateTime createdAt) { this.createdAt = createdAt; }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = OffsetDateTime.now();
+    }
+}
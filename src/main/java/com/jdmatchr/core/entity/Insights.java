@@ -15,7 +15,9 @@ import java.util.UUID;
 // import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "insights") // Table name will be 'insights'
+@Table(name = "insights", // Table name will be 'insights'
+        // Serves the keyset-paginated /history query (InsightsHistoryRepository)
+        indexes = @Index(name = "idx_insights_user_created_at_id", columnList = "user_id, created_at DESC, id"))
 // @Getter
 // @Setter
 // @NoArgsConstructor
@@ -56,6 +58,10 @@ public class Insights {
     private Map<String, Object> analysisResult;
 
 
+    // The LLM that produced analysisResult (the primary or a fallback model)
+    @Column(name = "model_name", length = 100)
+    private String modelName;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     @Temporal(TemporalType.TIMESTAMP)
     private OffsetDateTime createdAt;
@@ -80,6 +86,8 @@ public class Insights {
     public void setAtsScore(Integer atsScore) { this.atsScore = atsScore; } // Setter for atsScore
     public Map<String, Object> getAnalysisResult() { return analysisResult; }
     public void setAnalysisResult(Map<String, Object> analysisResult) { this.analysisResult = analysisResult; }
+    public String getModelName() { return modelName; }
+    public void setModelName(String modelName) { this.modelName = modelName; }
     public OffsetDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(OffsetDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -0,0 +1,136 @@
+// src/main/java/com/jdmatchr/core/entity/ReanalysisJob.java
+package com.jdmatchr.core.entity;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A bulk re-analysis of historical insights (after a prompt or model change).
+ *
+ * The filter selects insights by owner and creation time. The worker walks them in (created_at, id) order,
+ * one page at a time, and stores the position of the last processed insight (checkpointCreatedAt,
+ * checkpointInsightId) in the same transaction as that page's revisions, so a job that was RUNNING when the
+ * node stopped continues after its last complete page.
+ */
+@Entity
+@Table(name = "reanalysis_jobs")
+public class ReanalysisJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(columnDefinition = "UUID")
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private AnalysisJobStatus status;
+
+    // --- Filter (all optional) ---
+    @Column(name = "filter_user_id", columnDefinition = "UUID")
+    private UUID filterUserId;
+
+    @Column(name = "filter_created_from")
+    private OffsetDateTime filterCreatedFrom; // Inclusive
+
+    @Column(name = "filter_created_to")
+    private OffsetDateTime filterCreatedTo; // Exclusive
+
+    // --- What to produce ---
+    @Column(name = "prompt_version", length = 50, nullable = false)
+    private String promptVersion; // The prompt template version in use when the job was created
+
+    @Column(name = "model_name", length = 100)
+    private String modelName; // Null = let the model router pick
+
+    @Column(name = "apply_to_insights", nullable = false)
+    private boolean applyToInsights; // Also overwrite the insight's result with the new revision
+
+    // --- Progress ---
+    @Column(name = "checkpoint_created_at")
+    private OffsetDateTime checkpointCreatedAt;
+
+    @Column(name = "checkpoint_insight_id", columnDefinition = "UUID")
+    private UUID checkpointInsightId;
+
+    @Column(name = "processed_count", nullable = false)
+    private int processedCount;
+
+    @Column(name = "succeeded_count", nullable = false)
+    private int succeededCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private int failedCount;
+
+    @Column(name = "skipped_count", nullable = false)
+    private int skippedCount; // Insights without stored inputs
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private OffsetDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private OffsetDateTime completedAt;
+
+    public ReanalysisJob() {
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public AnalysisJobStatus getStatus() { return status; }
+    public void setStatus(AnalysisJobStatus status) { this.status = status; }
+    public UUID getFilterUserId() { return filterUserId; }
+    public void setFilterUserId(UUID filterUserId) { this.filterUserId = filterUserId; }
+    public OffsetDateTime getFilterCreatedFrom() { return filterCreatedFrom; }
+    public void setFilterCreatedFrom(OffsetDateTime filterCreatedFrom) { this.filterCreatedFrom = filterCreatedFrom; }
+    public OffsetDateTime getFilterCreatedTo() { return filterCreatedTo; }
+    public void setFilterCreatedTo(OffsetDateTime filterCreatedTo) { this.filterCreatedTo = filterCreatedTo; }
+    public String getPromptVersion() { return promptVersion; }
+    public void setPromptVersion(String promptVersion) { this.promptVersion = promptVersion; }
+    public String getModelName() { return modelName; }
+    public void setModelName(String modelName) { this.modelName = modelName; }
+    public boolean isApplyToInsights() { return applyToInsights; }
+    public void setApplyToInsights(boolean applyToInsights) { this.applyToInsights = applyToInsights; }
+    public OffsetDateTime getCheckpointCreatedAt() { return checkpointCreatedAt; }
+    public void setCheckpointCreatedAt(OffsetDateTime checkpointCreatedAt) { this.checkpointCreatedAt = checkpointCreatedAt; }
+    public UUID getCheckpointInsightId() { return checkpointInsightId; }
+    public void setCheckpointInsightId(UUID checkpointInsightId) { this.checkpointInsightId = checkpointInsightId; }
+    public int getProcessedCount() { return processedCount; }
+    public void setProcessedCount(int processedCount) { this.processedCount = processedCount; }
+    public int getSucceededCount() { return succeededCount; }
+    public void setSucceededCount(int succeededCount) { this.succeededCount = succeededCount; }
+    public int getFailedCount() { return failedCount; }
+    public void setFailedCount(int failedCount) { this.failedCount = failedCount; }
+    public int getSkippedCount() { return skippedCount; }
+    public void setSkippedCount(int skippedCount) { this.skippedCount = skippedCount; }
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+    public OffsetDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(OffsetDateTime createdAt) { this.createdAt = createdAt; }
+    public OffsetDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(OffsetDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public OffsetDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(OffsetDateTime completedAt) { this.completedAt = completedAt; }
+
+    @PrePersist
+    protected void onCreate() {
+        OffsetDateTime now = OffsetDateTime.now();
+        this.createdAt = now;
+        this.updatedAt = now;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = OffsetDateTime.now();
+    }
+}
@@ -0,0 +1,16 @@
+package com.jdmatchr.core.exception;
+
+/**
+ * Thrown when the asynchronous analysis worker pool and its queue are both full,
+ * so a new job cannot be accepted right now. Controllers map this to 503 Service Unavailable.
+ */
+public class AnalysisQueueFullException extends RuntimeException {
+
+    public AnalysisQueueFullException(String message) {
+        super(message);
+    }
+
+    public AnalysisQueueFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,34 @@
+package com.jdmatchr.core.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the server has no capacity left for a request right now (e.g. every PDF parsing thread is busy
+ * and its queue is full). The request is fine and may be sent again later.
+ * Controllers map this to 503 Service Unavailable with a Retry-After header.
+ */
+public class CapacityExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public CapacityExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public CapacityExceededException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * @return The Retry-After header value in whole seconds (at least 1).
+     */
+    public String getRetryAfterSeconds() {
+        return String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+    }
+}
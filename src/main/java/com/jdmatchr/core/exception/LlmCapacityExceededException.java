@@ -0,0 +1,15 @@
+package com.jdmatchr.core.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when an outbound LLM call cannot be admitted: every slot is taken and the wait queue is full,
+ * the call waited longer than allowed for a slot, or the provider's circuit breaker is open.
+ * Controllers map this to 503 Service Unavailable with a Retry-After header.
+ */
+public class LlmCapacityExceededException extends CapacityExceededException {
+
+    public LlmCapacityExceededException(String message, Duration retryAfter) {
+        super(message, retryAfter);
+    }
+}
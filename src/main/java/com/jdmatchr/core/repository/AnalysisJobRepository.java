@@ -0,0 +1,33 @@
+package com.jdmatchr.core.repository;
+
+import com.jdmatchr.core.entity.AnalysisJob;
+import com.jdmatchr.core.entity.AnalysisJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface AnalysisJobRepository extends JpaRepository<AnalysisJob, UUID> {
+
+    /**
+     * Finds an analysis job by its ID and ensures it belongs to the given user.
+     * Used by the job status/poll endpoint.
+     * @param id The ID of the job.
+     * @param userId The ID of the user who should own the job.
+     * @return An Optional containing the job if found and owned by the user, otherwise empty.
+     */
+    Optional<AnalysisJob> findByIdAndUserId(UUID id, UUID userId);
+
+    /**
+     * Finds jobs in the given states that were created before the given time. Used on startup to find jobs
+     * whose worker was lost with the previous process.
+     * @param statuses The states to look for (PENDING, RUNNING).
+     * @param createdBefore Only jobs created before this time.
+     * @return A list of jobs.
+     */
+    List<AnalysisJob> findByStatusInAndCreatedAtBefore(List<AnalysisJobStatus> statuses, OffsetDateTime createdBefore);
+}
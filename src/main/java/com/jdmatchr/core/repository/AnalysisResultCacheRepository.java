@@ -0,0 +1,20 @@
+package com.jdmatchr.core.repository;
+
+import com.jdmatchr.core.entity.AnalysisResultCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AnalysisResultCacheRepository extends JpaRepository<AnalysisResultCacheEntry, String> {
+
+    /**
+     * Finds a cached analysis by key, ignoring rows whose TTL has elapsed.
+     * @param cacheKey The SHA-256 content key.
+     * @param now The current time.
+     * @return An Optional containing the entry if present and not expired, otherwise empty.
+     */
+    Optional<AnalysisResultCacheEntry> findByCacheKeyAndExpiresAtAfter(String cacheKey, OffsetDateTime now);
+}
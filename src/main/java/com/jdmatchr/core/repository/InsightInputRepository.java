@@ -0,0 +1,11 @@
+package com.jdmatchr.core.repository;
+
+import com.jdmatchr.core.entity.InsightInput;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface InsightInputRepository extends JpaRepository<InsightInput, UUID> {
+}
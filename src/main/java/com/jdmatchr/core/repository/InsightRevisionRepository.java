@@ -0,0 +1,19 @@
+package com.jdmatchr.core.repository;
+
+import com.jdmatchr.core.entity.InsightRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface InsightRevisionRepository extends JpaRepository<InsightRevision, UUID> {
+
+    /**
+     * Finds all revisions of an insight, newest first.
+     * @param insightId The ID of the insight.
+     * @return A list of revisions (empty if it was never re-analyzed).
+     */
+    List<InsightRevision> findByInsightIdOrderByCreatedAtDesc(UUID insightId);
+}
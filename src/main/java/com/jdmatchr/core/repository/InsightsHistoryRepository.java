@@ -0,0 +1,27 @@
+package com.jdmatchr.core.repository;
+
+import com.jdmatchr.core.dto.InsightHistoryFilter;
+import com.jdmatchr.core.dto.InsightSummaryDto;
+import com.jdmatchr.core.util.InsightCursor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Custom fragment of InsightsRepository for the /history page, whose where clause depends on which
+ * filters are set.
+ */
+public interface InsightsHistoryRepository {
+
+    /**
+     * Keyset page of a user's insight summaries in (createdAt desc, id) order, the order of the
+     * (user_id, created_at desc, id) index, so the cost does not grow with the position in the history.
+     * Only the summary columns are selected; the analysis_result JSONB is never read.
+     * @param userId The ID of the user whose insights are to be fetched.
+     * @param filter Optional restrictions; use InsightHistoryFilter.NONE for none.
+     * @param after The last insight of the previous page, or null for the first page.
+     * @param limit Maximum number of rows to return.
+     * @return The summaries following after, newest first.
+     */
+    List<InsightSummaryDto> findSummaryPage(UUID userId, InsightHistoryFilter filter, InsightCursor after, int limit);
+}
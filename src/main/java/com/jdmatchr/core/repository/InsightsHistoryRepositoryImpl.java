@@ -0,0 +1,69 @@
+package com.jdmatchr.core.repository;
+
+import com.jdmatchr.core.dto.InsightHistoryFilter;
+import com.jdmatchr.core.dto.InsightSummaryDto;
+import com.jdmatchr.core.util.InsightCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Picked up by Spring Data by its name (fragment interface + "Impl").
+ */
+public class InsightsHistoryRepositoryImpl implements InsightsHistoryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<InsightSummaryDto> findSummaryPage(UUID userId, InsightHistoryFilter filter, InsightCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder("""
+                select new com.jdmatchr.core.dto.InsightSummaryDto(
+                    i.id, i.jobTitle, i.createdAt, cast(i.matchScore as Integer), i.atsScore, i.resumeFilename)
+                from Insights i
+                where i.user.id = :userId""");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("userId", userId);
+
+        if (after != null) {
+            jpql.append(" and (i.createdAt < :afterCreatedAt or (i.createdAt = :afterCreatedAt and i.id > :afterId))");
+            parameters.put("afterCreatedAt", after.createdAt());
+            parameters.put("afterId", after.id());
+        }
+        if (filter.createdFrom() != null) {
+            jpql.append(" and i.createdAt >= :createdFrom");
+            parameters.put("createdFrom", filter.createdFrom());
+        }
+        if (filter.createdTo() != null) {
+            jpql.append(" and i.createdAt < :createdTo");
+            parameters.put("createdTo", filter.createdTo());
+        }
+        if (filter.minMatchScore() != null) {
+            jpql.append(" and i.matchScore >= :minMatchScore");
+            parameters.put("minMatchScore", filter.minMatchScore().doubleValue());
+        }
+        if (filter.maxMatchScore() != null) {
+            jpql.append(" and i.matchScore <= :maxMatchScore");
+            parameters.put("maxMatchScore", filter.maxMatchScore().doubleValue());
+        }
+        if (filter.jobTitlePrefix() != null && !filter.jobTitlePrefix().isBlank()) {
+            jpql.append(" and lower(i.jobTitle) like :jobTitlePrefix escape '!'");
+            parameters.put("jobTitlePrefix", escapeLike(filter.jobTitlePrefix().strip().toLowerCase(Locale.ROOT)) + "%");
+        }
+        jpql.append(" order by i.createdAt desc, i.id asc");
+
+        TypedQuery<InsightSummaryDto> query = entityManager.createQuery(jpql.toString(), InsightSummaryDto.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
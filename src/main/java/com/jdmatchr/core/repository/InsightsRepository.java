@@ -1,41 +1,57 @@
 package com.jdmatchr.core.repository;
 
 import com.jdmatchr.core.entity.Insights;
-import com.jdmatchr.core.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface InsightsRepository extends JpaRepository<Insights, UUID> {
-
-    /**
-     * Finds all insights for a given user, ordered by creation date in descending order (newest first).
-     * This will be used for the /history page.
-     * If no insights exist, it will return an empty list.
-     * @param user The user whose insights are to be fetched.
-     * @return A list of insights.
-     */
-    List<Insights> findByUserOrderByCreatedAtDesc(User user);
+public interface InsightsRepository extends JpaRepository<Insights, UUID>, InsightsHistoryRepository {
 
     /**
      * Finds the most recent insight for a given user.
      * This can be used by the /insights (generic) endpoint to get the latest.
      * Spring Data JPA's "findTop" or "findFirst" keywords can be used for this.
-     * @param user The user whose latest insight is to be fetched.
+     * @param userId The ID of the user whose latest insight is to be fetched.
      * @return An Optional containing the latest insight if found, otherwise empty.
      */
-    Optional<Insights> findTopByUserOrderByCreatedAtDesc(User user);
+    Optional<Insights> findTopByUserIdOrderByCreatedAtDesc(UUID userId);
 
     /**
      * Finds a specific insight by its ID and ensures it belongs to the given user.
      * This will be used for the /insights/:id page.
      * @param id The ID of the insight.
-     * @param user The user who should own the insight.
+     * @param userId The ID of the user who should own the insight.
      * @return An Optional containing the insight if found and owned by the user, otherwise empty.
      */
-    Optional<Insights> findByIdAndUser(UUID id, User user);
+    Optional<Insights> findByIdAndUserId(UUID id, UUID userId);
+
+    /**
+     * Keyset page for bulk re-analysis: insights after the position (afterCreatedAt, afterId) in
+     * (createdAt, id) order, optionally of one user, created before createdTo.
+     * @param userId Only insights of this user, or null for all users.
+     * @param createdTo Exclusive upper bound on createdAt.
+     * @param afterCreatedAt createdAt of the last insight already processed (or the lower bound of the filter).
+     * @param afterId ID of the last insight already processed (or the nil UUID).
+     * @param pageable Only the page size is used; always pass page 0.
+     * @return The next insights, oldest first.
+     */
+    @Query("""
+            select i from Insights i
+            where (:userId is null or i.user.id = :userId)
+              and i.createdAt < :createdTo
+              and (i.createdAt > :afterCreatedAt or (i.createdAt = :afterCreatedAt and i.id > :afterId))
+            order by i.createdAt asc, i.id asc""")
+    List<Insights> findReanalysisPage(@Param("userId") UUID userId,
+                                      @Param("createdTo") OffsetDateTime createdTo,
+                                      @Param("afterCreatedAt") OffsetDateTime afterCreatedAt,
+                                      @Param("afterId") UUID afterId,
+                                      Pageable pageable);
 }
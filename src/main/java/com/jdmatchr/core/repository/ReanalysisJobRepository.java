@@ -0,0 +1,20 @@
+package com.jdmatchr.core.repository;
+
+import com.jdmatchr.core.entity.AnalysisJobStatus;
+import com.jdmatchr.core.entity.ReanalysisJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ReanalysisJobRepository extends JpaRepository<ReanalysisJob, UUID> {
+
+    /**
+     * Finds jobs in the given states, oldest first. Used on startup to pick up jobs interrupted by a restart.
+     * @param statuses The states to look for (PENDING, RUNNING).
+     * @return A list of jobs.
+     */
+    List<ReanalysisJob> findByStatusInOrderByCreatedAtAsc(List<AnalysisJobStatus> statuses);
+}
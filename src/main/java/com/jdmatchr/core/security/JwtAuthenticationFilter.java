@@ -1,8 +1,7 @@
 package com.jdmatchr.core.security; // Or your chosen package
 
-import com.jdmatchr.core.service.UserDetailsServiceImpl;
 import com.jdmatchr.core.util.JwtUtil;
-import io.jsonwebtoken.Claims; // Import Claims
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,14 +11,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException; // Import this
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Date;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -27,12 +26,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsServiceImpl userDetailsServiceImpl;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Autowired
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsServiceImpl userDetailsServiceImpl) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, VerifiedTokenCache verifiedTokenCache) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsServiceImpl = userDetailsServiceImpl;
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Override
@@ -47,44 +46,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             if (StringUtils.hasText(jwt)) {
                 logger.info("Extracted JWT from request header.");
-                // Initial validation of the token's structure and signature/expiration
-                if (jwtUtil.validateToken(jwt)) { // This calls validateToken(jwt, null)
-                    logger.info("JWT successfully validated (structure, signature, expiration).");
-
-                    // Extract email from the token to load UserDetails
-                    // Your JWT payload contains an "email" claim.
-                    String emailFromToken = jwtUtil.extractClaim(jwt, claims -> claims.get("email", String.class));
-                    // String subjectUuidFromToken = jwtUtil.extractUsername(jwt); // This is the UUID (sub claim)
-
-                    logger.info("Extracted email from token: '{}'", emailFromToken);
-                    // logger.debug("Extracted subject (UUID) from token: '{}'", subjectUuidFromToken);
-
-
-                    if (StringUtils.hasText(emailFromToken) && SecurityContextHolder.getContext().getAuthentication() == null) {
-                        logger.info("Attempting to load UserDetails for email: {}", emailFromToken);
-                        try {
-                            UserDetails userDetails = userDetailsServiceImpl.loadUserByUsername(emailFromToken);
-                            logger.info("UserDetails loaded successfully for email: {}", emailFromToken);
+                // A token seen before was verified then and is still unexpired: skip the signature check
+                Optional<JwtPrincipal> principal = verifiedTokenCache.get(jwt);
+                Optional<Claims> claims = Optional.empty();
+                if (principal.isEmpty()) {
+                    // One parse verifies structure, signature and expiration and yields the claims
+                    claims = jwtUtil.parseVerifiedClaims(jwt);
+                }
+                if (principal.isPresent() || claims.isPresent()) {
+                    logger.debug("JWT successfully validated (structure, signature, expiration).");
+
+                    // The verified claims are the identity: no user lookup per request. Controllers receive
+                    // the JwtPrincipal (id, email, roles) and use the id directly.
+                    if (claims.isPresent()) {
+                        principal = JwtPrincipal.fromClaims(claims.get());
+                        Date expiration = claims.get().getExpiration();
+                        principal.ifPresent(verified -> verifiedTokenCache.put(jwt, verified, expiration != null ? expiration.toInstant() : null));
+                    }
 
-                            // Second validation: ensure token is valid for the loaded UserDetails
-                            // (e.g., subject in token could be cross-checked if needed, but email match is primary here)
-                            if (jwtUtil.validateToken(jwt, userDetails)) { // This call passes userDetails
-                                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                                        userDetails, null, userDetails.getAuthorities());
-                                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    if (principal.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
+                        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                                principal.get(), null, principal.get().authorities());
+                        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-                                logger.info("Successfully authenticated user '{}' via JWT and set SecurityContext.", emailFromToken);
-                            } else {
-                                logger.info("JWT token was initially valid, but failed userDetails-specific validation for email '{}'. Token might be for a different user or context.", emailFromToken);
-                            }
-                        } catch (UsernameNotFoundException e) {
-                            logger.warn("User not found for email '{}' extracted from JWT: {}", emailFromToken, e.getMessage());
-                        } catch (Exception e) {
-                            logger.error("Error loading UserDetails or validating token for email '{}': {}", emailFromToken, e.getMessage(), e);
-                        }
-                    } else if (!StringUtils.hasText(emailFromToken)){
-                        logger.info("Could not extract 'email' claim from JWT, or it was empty.");
+                        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                        logger.info("Successfully authenticated user '{}' via JWT and set SecurityContext.", principal.get().email());
+                    } else if (principal.isEmpty()) {
+                        logger.info("JWT has no UUID 'sub' claim or no 'email' claim; not authenticating.");
                     } else {
                         logger.debug("SecurityContextHolder already contains an authentication for this request.");
                     }
@@ -96,7 +84,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         } catch (Exception e) {
             // This catch block is for unexpected errors within the filter itself.
-            // Specific JWT parsing errors are handled within jwtUtil.validateToken()
+            // Specific JWT parsing errors are handled within jwtUtil.parseVerifiedClaims()
             logger.error("Unexpected error in JwtAuthenticationFilter: {}", e.getMessage(), e);
         }
 
@@ -0,0 +1,61 @@
+package com.jdmatchr.core.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The authenticated user as stated by the verified JWT: sub (the user's UUID), email and roles. Built without
+ * touching the database; controllers receive it as a handler argument (JwtPrincipalArgumentResolver). Where a
+ * managed User is needed, use UserRepository.getReferenceById(userId()) rather than loading the row.
+ *
+ * Deliberately not a java.security.Principal: Spring MVC resolves handler parameters of that type from the
+ * servlet request, whose user principal is the Authentication, before JwtPrincipalArgumentResolver is asked.
+ */
+public record JwtPrincipal(UUID userId, String email, List<String> roles) implements AuthenticatedPrincipal {
+
+    static final String EMAIL_CLAIM = "email";
+    static final String ROLES_CLAIM = "roles";
+    // Tokens issued before roles were added carry none; every user has at least this one
+    static final List<String> DEFAULT_ROLES = List.of("USER");
+
+    /**
+     * @return The principal, or empty if the subject is not a UUID or the email claim is missing.
+     */
+    public static Optional<JwtPrincipal> fromClaims(Claims claims) {
+        String email = claims.get(EMAIL_CLAIM, String.class);
+        if (claims.getSubject() == null || email == null || email.isBlank()) {
+            return Optional.empty();
+        }
+        UUID userId;
+        try {
+            userId = UUID.fromString(claims.getSubject());
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        List<String> roles = DEFAULT_ROLES;
+        if (claims.get(ROLES_CLAIM) instanceof Collection<?> claimed && !claimed.isEmpty()) {
+            roles = claimed.stream().map(String::valueOf).toList();
+        }
+        return Optional.of(new JwtPrincipal(userId, email, roles));
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return roles.stream()
+                .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
+    // Authentication.getName() and the logs keep showing the email, as with the former UserDetails principal
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,148 @@
+package com.jdmatchr.core.security;
+
+import com.jdmatchr.core.util.HashUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Principals of bearer tokens that already passed signature verification, so the frontend's repeated polling
+ * with the same token costs a hash lookup instead of an HMAC check. Each entry expires at its token's exp
+ * claim, which is exactly when JwtUtil would start rejecting the token; tokens without exp are not cached.
+ *
+ * Keys are SHA-256 digests, so raw tokens are never held in memory. The principal is derived from the token
+ * alone, so a hit is exactly what verifying the token again would produce.
+ *
+ * Every authenticated request reads this cache, so it is a lock-free ConcurrentHashMap rather than the
+ * synchronized BoundedTtlCache: lookups never block each other (nor pin virtual threads). The size bound is
+ * enforced on put: a full cache drops its expired entries, then arbitrary ones until a tenth of it is free, so
+ * the sweep runs once per batch of new tokens rather than on every put. An evicted token is simply verified again.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+    private static final String METRIC_NAME = "jdmatchr.auth.token.cache";
+    // Share of max-entries freed each time the cache is full
+    private static final int EVICTION_BATCH_PERCENT = 10;
+
+    private record Entry(JwtPrincipal principal, Instant expiresAt) {}
+
+    private final Map<String, Entry> principals = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final int maxEntries;
+    private final int evictionBatch;
+    private final Clock clock;
+    // One sweep at a time; other callers at the cap just add their entry
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${jdmatchr.auth.token-cache.enabled:true}") boolean enabled,
+                              @Value("${jdmatchr.auth.token-cache.max-entries:10000}") int maxEntries) {
+        this(meterRegistry, enabled, maxEntries, Clock.systemUTC());
+    }
+
+    VerifiedTokenCache(MeterRegistry meterRegistry, boolean enabled, int maxEntries, Clock clock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("jdmatchr.auth.token-cache.max-entries must be positive");
+        }
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.evictionBatch = Math.max(1, maxEntries * EVICTION_BATCH_PERCENT / 100);
+        this.clock = clock;
+        this.hits = Counter.builder(METRIC_NAME).tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder(METRIC_NAME).tag("result", "miss").register(meterRegistry);
+        Gauge.builder("jdmatchr.auth.token.cache.size", principals, Map::size).register(meterRegistry);
+        logger.info("VerifiedTokenCache initialized. Enabled: {}, max entries: {}", enabled, maxEntries);
+    }
+
+    /**
+     * @return The principal of an already verified, unexpired token, or empty.
+     */
+    public Optional<JwtPrincipal> get(String token) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String key = key(token);
+        Entry entry = principals.get(key);
+        if (entry != null && !clock.instant().isBefore(entry.expiresAt())) {
+            principals.remove(key, entry);
+            entry = null;
+        }
+        (entry != null ? hits : misses).increment();
+        return entry != null ? Optional.of(entry.principal()) : Optional.empty();
+    }
+
+    /**
+     * Remembers a verified token until its expiry.
+     * @param expiresAt The token's exp claim; null means the token is not cached.
+     */
+    public void put(String token, JwtPrincipal principal, Instant expiresAt) {
+        if (!enabled || expiresAt == null) {
+            return;
+        }
+        if (principals.size() >= maxEntries && sweeping.compareAndSet(false, true)) {
+            try {
+                makeRoom();
+            } finally {
+                sweeping.set(false);
+            }
+        }
+        principals.put(key(token), new Entry(principal, expiresAt));
+    }
+
+    /**
+     * Drops every cached token of a user, so their next request verifies the signature again. Meant for a
+     * logout or denylist hook; profile changes need no eviction, since the principal comes from the token alone.
+     * This scans the whole cache.
+     *
+     * This is an eviction, not a revocation: the tokens stay valid until their exp claim and are accepted (and
+     * cached) again on their next use. Rejecting a token before its expiry needs a denylist checked on every
+     * request, which this cache does not provide.
+     * @return The number of tokens removed.
+     */
+    public int evictUser(UUID userId) {
+        int removed = 0;
+        for (Iterator<Entry> it = principals.values().iterator(); it.hasNext(); ) {
+            if (it.next().principal().userId().equals(userId)) {
+                it.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            logger.info("Evicted {} cached token(s) of user {}.", removed, userId);
+        }
+        return removed;
+    }
+
+    private void makeRoom() {
+        Instant now = clock.instant();
+        principals.values().removeIf(entry -> !now.isBefore(entry.expiresAt()));
+        Iterator<String> keys = principals.keySet().iterator();
+        while (principals.size() > maxEntries - evictionBatch && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String key(String token) {
+        return HashUtils.sha256Hex(token);
+    }
+}
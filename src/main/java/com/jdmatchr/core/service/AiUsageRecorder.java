@@ -0,0 +1,101 @@
+// src/main/java/com/jdmatchr/core/service/AiUsageRecorder.java
+package com.jdmatchr.core.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-call token accounting for AI calls, split into prompt tokens served from the provider's
+ * prompt cache, uncached prompt tokens and completion tokens.
+ *
+ * Counters: jdmatchr.ai.tokens{operation, type=prompt_cached|prompt_uncached|completion}. They are registered
+ * once per operation and kept, so recording a call is a map lookup rather than three registry lookups.
+ */
+@Component
+public class AiUsageRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiUsageRecorder.class);
+    private static final String METRIC_NAME = "jdmatchr.ai.tokens";
+
+    private record TokenCounters(Counter promptCached, Counter promptUncached, Counter completion) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TokenCounters> countersByOperation = new ConcurrentHashMap<>();
+
+    public AiUsageRecorder(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Logs and counts the token usage of one call.
+     * @param operation Short, low-cardinality name of the call site (e.g. "resume-analysis").
+     * @param usage The usage from the ChatResponse metadata; may be null.
+     */
+    public void record(String operation, Usage usage) {
+        if (usage == null) {
+            logger.warn("No usage metadata for [{}]. Token usage not available.", operation);
+            return;
+        }
+        Integer promptTokens = usage.getPromptTokens();
+        Integer completionTokens = usage.getCompletionTokens();
+        Integer cachedTokens = cachedPromptTokens(usage);
+
+        int prompt = promptTokens != null ? promptTokens : 0;
+        int cached = cachedTokens != null ? Math.min(cachedTokens, prompt) : 0;
+        TokenCounters counters = countersByOperation.computeIfAbsent(operation, this::registerCounters);
+        counters.promptCached().increment(cached);
+        counters.promptUncached().increment(prompt - cached);
+        counters.completion().increment(completionTokens != null ? completionTokens : 0);
+
+        logger.info("AI Token Usage for [{}]: Prompt Tokens: {} (cached: {}, uncached: {}), Completion Tokens: {}, Total Tokens: {}",
+                operation,
+                promptTokens != null ? promptTokens : "N/A",
+                cachedTokens != null ? cached : "N/A",
+                promptTokens != null ? prompt - cached : "N/A",
+                completionTokens != null ? completionTokens : "N/A",
+                usage.getTotalTokens() != null ? usage.getTotalTokens() : "N/A");
+    }
+
+    /**
+     * Cached prompt tokens as reported by OpenAI-compatible endpoints: prompt_tokens_details.cached_tokens
+     * (OpenAI, Gemini) or prompt_cache_hit_tokens (DeepSeek style). Null when the provider reports neither.
+     */
+    public static Integer cachedPromptTokens(Usage usage) {
+        if (usage.getNativeUsage() instanceof OpenAiApi.Usage nativeUsage) {
+            if (nativeUsage.promptTokensDetails() != null && nativeUsage.promptTokensDetails().cachedTokens() != null) {
+                return nativeUsage.promptTokensDetails().cachedTokens();
+            }
+            return nativeUsage.promptCacheHitTokens();
+        }
+        return null;
+    }
+
+    /**
+     * In a stream only the final chunk carries real usage; the others report an empty usage with zero tokens.
+     */
+    public static boolean isReported(Usage usage) {
+        return usage != null && usage.getTotalTokens() != null && usage.getTotalTokens() > 0;
+    }
+
+    private TokenCounters registerCounters(String operation) {
+        return new TokenCounters(counter(operation, "prompt_cached"), counter(operation, "prompt_uncached"),
+                counter(operation, "completion"));
+    }
+
+    private Counter counter(String operation, String type) {
+        return Counter.builder(METRIC_NAME)
+                .tag("operation", operation)
+                .tag("type", type)
+                .baseUnit("tokens")
+                .register(meterRegistry);
+    }
+}
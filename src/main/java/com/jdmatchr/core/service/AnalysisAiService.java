@@ -5,15 +5,27 @@
 package com.jdmatchr.core.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.jdmatchr.core.dto.AnalysisResultDto; // Expecting the full DTO from AI
+import com.jdmatchr.core.exception.LlmCapacityExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.metadata.ChatResponseMetadata;
 import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class AnalysisAiService {
@@ -21,42 +33,57 @@ public class AnalysisAiService {
     private static final Logger logger = LoggerFactory.getLogger(AnalysisAiService.class);
     // aiIoLogger removed, all logging will use the main 'logger'.
 
-    private final ChatClient chatClient;
-    private final ObjectMapper objectMapper;
+    private static final String USAGE_OPERATION = "resume-analysis";
 
-    public AnalysisAiService(ChatClient.Builder chatClientBuilder, ObjectMapper objectMapper) {
-        this.chatClient = chatClientBuilder.build();
-        this.objectMapper = objectMapper;
+    /**
+     * A parsed analysis and the model that produced it.
+     */
+    public record ModelAnalysis(AnalysisResultDto result, String modelName) {
     }
 
-    private String cleanAiJsonResponse(String jsonResponse) {
-        if (jsonResponse == null) {
-            return null;
-        }
-        String cleaned = jsonResponse.trim();
-        if (cleaned.startsWith("```json")) {
-            cleaned = cleaned.substring(7); // Remove ```json
-            if (cleaned.endsWith("```")) {
-                cleaned = cleaned.substring(0, cleaned.length() - 3); // Remove ```
-            }
-        } else if (cleaned.startsWith("```")) {
-            cleaned = cleaned.substring(3); // Remove ```
-            if (cleaned.endsWith("```")) {
-                cleaned = cleaned.substring(0, cleaned.length() - 3); // Remove ```
-            }
-        }
-        return cleaned.trim(); // Trim again in case of any leading/trailing whitespace after stripping
+    /**
+     * A streamed analysis and the model it was sent to.
+     */
+    public record ModelAnalysisStream(Flux<String> chunks, String modelName) {
+    }
+
+    private record ModelResponse(ChatResponse chatResponse, String modelName) {
+    }
+
+    private final ChatClient chatClient;
+    private final AiUsageRecorder aiUsageRecorder;
+    private final ResilientLlmClient resilientLlmClient;
+    private final AnalysisModelRouter modelRouter;
+    private final AnalysisResultParser resultParser;
+    private final PromptBuilderService promptBuilderService;
+    private final MeterRegistry meterRegistry;
+    private final boolean requestMissingSections;
+
+    public AnalysisAiService(ChatClient.Builder chatClientBuilder, AiUsageRecorder aiUsageRecorder,
+                             ResilientLlmClient resilientLlmClient,
+                             AnalysisModelRouter modelRouter, AnalysisResultParser resultParser,
+                             PromptBuilderService promptBuilderService, MeterRegistry meterRegistry,
+                             @Value("${jdmatchr.llm.output.request-missing-sections:true}") boolean requestMissingSections) {
+        this.chatClient = chatClientBuilder.build();
+        this.aiUsageRecorder = aiUsageRecorder;
+        this.resilientLlmClient = resilientLlmClient;
+        this.modelRouter = modelRouter;
+        this.resultParser = resultParser;
+        this.promptBuilderService = promptBuilderService;
+        this.meterRegistry = meterRegistry;
+        this.requestMissingSections = requestMissingSections;
     }
 
     /**
      * Logs details of the AI interaction, including prompt, raw response, and token usage
-     * using logger.info().
+     * (split into cached and uncached prompt tokens) using logger.info().
      * @param context A string describing the context of the AI call (e.g., "Resume Analysis").
+     * @param operation The operation the token usage is recorded under.
      * @param chatResponse The ChatResponse object from the AI call (used for metadata).
-     * @param promptSent The exact prompt string sent to the AI.
-     * @param rawOutputStringFromCallContent The exact raw response string obtained from call.content().
+     * @param promptSent The exact variable (user) part of the prompt sent to the AI.
+     * @param rawOutputStringFromCallContent The exact raw response text of the ChatResponse.
      */
-    private void logAiInteractionDetails(String context, ChatResponse chatResponse, String promptSent, String rawOutputStringFromCallContent) {
+    private void logAiInteractionDetails(String context, String operation, ChatResponse chatResponse, String promptSent, String rawOutputStringFromCallContent) {
         // Log the exact prompt sent to AI using logger.info()
         // Be mindful of PII and log verbosity in production.
         if (promptSent != null) {
@@ -82,84 +109,231 @@ public class AnalysisAiService {
 
         ChatResponseMetadata metadata = chatResponse.getMetadata();
         if (metadata != null) {
-            Usage usage = metadata.getUsage();
-            if (usage != null) {
-                // Using Integer as per Spring AI 1.0.0-M6 return types for token counts
-                Integer promptTokens = usage.getPromptTokens();
-                Integer completionTokens = usage.getCompletionTokens();
-                Integer totalTokens = usage.getTotalTokens();
-
-                if (completionTokens == null) {
-                    logger.warn("usage.getCompletionTokens() returned null for [{}]. Deprecated getGenerationTokens() might be different if available in this specific M6 build.", context);
-                    // For Spring AI 1.0.0-M6, getCompletionTokens() is the standard.
-                    // If it's null, the information might not be provided by the underlying client/model for this call.
-                }
-
-                logger.info("AI Token Usage for [{}]: Prompt Tokens: {}, Completion Tokens: {}, Total Tokens: {}",
-                        context,
-                        promptTokens != null ? promptTokens : "N/A",
-                        completionTokens != null ? completionTokens : "N/A",
-                        totalTokens != null ? totalTokens : "N/A");
-            } else {
-                logger.warn("AI Usage metadata present for [{}] but Usage object is null. Token info might not be provided by this model/client.", context);
-            }
+            aiUsageRecorder.record(operation, metadata.getUsage());
         } else {
             logger.warn("AI ChatResponseMetadata is null for [{}]. Token usage not available.", context);
         }
     }
 
-    public AnalysisResultDto getAnalysisFromAi(String prompt) throws JsonProcessingException {
-        // The prompt is already logged with its content and length by AnalyzerServiceImpl
-        // before this method is called.
-        // For clarity within this service's own operations, we can log its reception.
-        logger.info("AnalysisAiService received prompt. Character length: {}", (prompt != null ? prompt.length() : "null"));
-        // The full prompt content will be logged by logAiInteractionDetails below.
+    /**
+     * Sends the prompt to the best model for it (see AnalysisModelRouter) and falls back to the next candidate
+     * when a model fails transiently or its circuit is open. Every request takes its own admission slot
+     * (see ResilientLlmClient), so none is held during backoff or while switching models.
+     * @return The parsed analysis and the name of the model that produced it.
+     */
+    public ModelAnalysis getAnalysisFromAi(AnalysisPrompt prompt) throws JsonProcessingException {
+        return getAnalysisFromAi(prompt, modelRouter.candidates(prompt.estimatedTokens()), USAGE_OPERATION);
+    }
+
+    /**
+     * Like getAnalysisFromAi(prompt), for the given models (in order) instead of the router's candidates.
+     * @param operation Low-cardinality name for the admission, retry and token usage meters (e.g. "bulk-reanalysis").
+     */
+    public ModelAnalysis getAnalysisFromAi(AnalysisPrompt prompt, List<String> models, String operation) throws JsonProcessingException {
+        // The static instructions go in the system message and the JD/resume in the user message, so the
+        // provider sees an identical prefix on every call and can serve it from its prompt cache.
+        logger.info("AnalysisAiService received prompt. System part length: {}, user part length: {}, estimated tokens: {}",
+                prompt.systemText().length(), prompt.userText().length(), prompt.estimatedTokens());
+        // The user prompt content will be logged by logAiInteractionDetails below.
 
-        String aiResponseJson = null;
-        String cleanedJson = null;
-        ChatResponse chatResponse = null;
+        String aiResponseJson;
+        ModelResponse modelResponse;
 
         try {
-            ChatClient.CallResponseSpec call = this.chatClient.prompt()
-                    .user(prompt)
-                    .call();
-
-            chatResponse = call.chatResponse();
-            aiResponseJson = call.content();
+            modelResponse = callWithFallback(prompt, models, operation);
+            aiResponseJson = responseText(modelResponse.chatResponse());
 
             // Log interaction details (prompt, raw response, token counts) using logger.info()
-            logAiInteractionDetails("Resume Analysis", chatResponse, prompt, aiResponseJson);
+            logAiInteractionDetails("Resume Analysis (" + modelResponse.modelName() + ")", operation, modelResponse.chatResponse(),
+                    prompt.userText(), aiResponseJson);
 
-            if (aiResponseJson == null || aiResponseJson.isBlank()) {
-                logger.error("AI service returned an empty or null JSON response for resume analysis.");
-                throw new RuntimeException("AI service returned an empty or null JSON response for resume analysis.");
+            AnalysisResultParser.ParsedSections parsed;
+            try {
+                parsed = resultParser.parse(aiResponseJson != null ? aiResponseJson : "");
+            } catch (JsonProcessingException e) {
+                logger.error("Failed to parse resume analysis AI response: {}. Raw response: [{}]", e.getOriginalMessage(), aiResponseJson);
+                recordOutput(operation, "unparseable");
+                throw e;
             }
+            AnalysisResultDto result = completeSections(prompt, parsed, modelResponse.modelName(), operation);
+            return new ModelAnalysis(result, modelResponse.modelName());
 
-            cleanedJson = cleanAiJsonResponse(aiResponseJson);
-            logger.info("Cleaned JSON response from resume analysis AI. Length (chars): {}", cleanedJson != null ? cleanedJson.length() : "null");
-            // If you need to see the cleaned JSON itself at INFO level:
-            // logger.info("Cleaned JSON for parsing for resume analysis:\n{}", cleanedJson);
-
+        } catch (JsonProcessingException e) {
+            throw e; // Logged above with the raw response
+        } catch (LlmCapacityExceededException e) {
+            throw e; // Not a failure of the AI service; surfaced as 503 + Retry-After
+        } catch (Exception e) {
+            logger.error("Error calling resume analysis AI service: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to get analysis from resume analysis AI service: " + e.getMessage(), e);
+        }
+    }
 
-            if (cleanedJson == null || cleanedJson.isBlank()) {
-                logger.error("After cleaning, resume analysis AI response JSON is empty or null. Original response was: {}", aiResponseJson);
-                throw new RuntimeException("After cleaning, resume analysis AI response JSON is empty or null.");
+    private ModelResponse callWithFallback(AnalysisPrompt prompt, List<String> models, String operation) {
+        for (int i = 0; ; i++) {
+            String model = models.get(i);
+            try {
+                // Each terminal call on the spec executes the request, so read the text from the one ChatResponse
+                // instead of also calling call.content() (which would send the prompt a second time).
+                // Model latency is that of the successful attempt alone, without the wait for an admission slot.
+                ChatResponse chatResponse = resilientLlmClient.call(operation, model, () -> this.chatClient.prompt()
+                        .options(OpenAiChatOptions.builder().model(model).build())
+                        .system(prompt.systemText())
+                        .user(prompt.userText())
+                        .call()
+                        .chatResponse(), latency -> modelRouter.recordSuccess(model, latency));
+                if (i > 0) {
+                    logger.warn("Resume analysis served by fallback model {} after {} failed.", model, models.subList(0, i));
+                }
+                return new ModelResponse(chatResponse, model);
+            } catch (RuntimeException e) {
+                if (!isModelFailure(e, model)) {
+                    throw e; // e.g. a 400 or a full node: another model would not do better
+                }
+                modelRouter.recordFailure(model);
+                if (i == models.size() - 1) {
+                    throw e;
+                }
+                logger.warn("Model {} failed for resume analysis ({}); falling back to {}.", model, e.getMessage(), models.get(i + 1));
             }
+        }
+    }
 
-            AnalysisResultDto analysisResult = objectMapper.readValue(cleanedJson, AnalysisResultDto.class);
-            logger.info("Successfully parsed resume analysis AI response into AnalysisResultDto.");
-
-            if (analysisResult.matchScore() == null || analysisResult.atsScore() == null) {
-                logger.warn("Resume analysis AI response parsed but missing critical fields: matchScore or atsScore. Cleaned JSON: {}", cleanedJson);
-            }
-            return analysisResult;
+    /**
+     * Starts a tolerant parse of a streamed response; feed it the chunks as they arrive, then pass it to
+     * completeStreamedAnalysis.
+     */
+    public AnalysisResultParser.Assembly newResponseAssembly() {
+        return resultParser.newAssembly();
+    }
 
+    /**
+     * Ends a streamed analysis: repairs a truncated last section, requests sections that are still missing
+     * from the same model, and fills in the locally scored sections.
+     * @param assembly The parse of the stream, fed with every chunk.
+     * @param modelName The model the stream came from.
+     */
+    public AnalysisResultDto completeStreamedAnalysis(AnalysisPrompt prompt, AnalysisResultParser.Assembly assembly, String modelName)
+            throws JsonProcessingException {
+        AnalysisResultParser.ParsedSections parsed;
+        try {
+            parsed = assembly.finish();
         } catch (JsonProcessingException e) {
-            logger.error("Failed to parse JSON response from resume analysis AI: {}. Raw JSON: [{}]. Cleaned JSON: [{}]", e.getMessage(), aiResponseJson, cleanedJson);
+            logger.error("Failed to parse streamed resume analysis from {}: {}", modelName, e.getOriginalMessage());
+            recordOutput(USAGE_OPERATION, "unparseable");
             throw e;
-        } catch (Exception e) {
-            logger.error("Error calling resume analysis AI service: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to get analysis from resume analysis AI service: " + e.getMessage(), e);
         }
+        return completeSections(prompt, parsed, modelName, USAGE_OPERATION);
+    }
+
+    /**
+     * Asks the model once more for just the sections the response lacked (cheaper and faster than repeating
+     * the whole analysis), then binds the result and fills in the local sections. If the follow-up fails,
+     * the result keeps the sections it has; missing ones stay null.
+     */
+    private AnalysisResultDto completeSections(AnalysisPrompt prompt, AnalysisResultParser.ParsedSections parsed, String model,
+                                               String operation) throws JsonProcessingException {
+        List<String> missing = parsed.missing(promptBuilderService.getResponseSections());
+        Map<String, JsonNode> sections = new LinkedHashMap<>(parsed.sections());
+        if (missing.isEmpty()) {
+            recordOutput(operation, parsed.repairedSection() == null ? "complete" : "repaired");
+        } else if (!requestMissingSections) {
+            logger.warn("Resume analysis from {} is missing sections {}; requesting them is disabled.", model, missing);
+            recordOutput(operation, "incomplete");
+        } else {
+            logger.warn("Resume analysis from {} is missing sections {}; requesting only those.", model, missing);
+            try {
+                sections.putAll(requestSections(prompt, missing, model, operation));
+            } catch (LlmCapacityExceededException | JsonProcessingException e) {
+                logger.warn("Could not complete sections {} from {}: {}", missing, model, e.getMessage());
+            } catch (RuntimeException e) {
+                logger.warn("Could not complete sections {} from {}: {}", missing, model, e.getMessage(), e);
+            }
+            List<String> stillMissing = missing.stream().filter(name -> !sections.containsKey(name)).toList();
+            recordOutput(operation, stillMissing.isEmpty() ? "sections_requested" : "incomplete");
+            if (!stillMissing.isEmpty()) {
+                logger.warn("Resume analysis from {} is still missing sections {}.", model, stillMissing);
+            }
+        }
+        return prompt.localScores().applyTo(resultParser.toResult(sections));
+    }
+
+    private Map<String, JsonNode> requestSections(AnalysisPrompt prompt, List<String> sections, String model, String operation)
+            throws JsonProcessingException {
+        AnalysisPrompt sectionPrompt = promptBuilderService.buildSectionPrompt(prompt, sections);
+        ChatResponse chatResponse = resilientLlmClient.call(operation, model, () -> this.chatClient.prompt()
+                .options(OpenAiChatOptions.builder().model(model).build())
+                .system(sectionPrompt.systemText())
+                .user(sectionPrompt.userText())
+                .call()
+                .chatResponse());
+        String text = responseText(chatResponse);
+        logAiInteractionDetails("Missing sections " + sections + " (" + model + ")", operation, chatResponse, null, text);
+        Map<String, JsonNode> received = new LinkedHashMap<>(resultParser.parse(text != null ? text : "").sections());
+        received.keySet().retainAll(sections);
+        return received;
+    }
+
+    private void recordOutput(String operation, String outcome) {
+        meterRegistry.counter("jdmatchr.llm.output", "operation", operation, "outcome", outcome).increment();
+    }
+
+    /**
+     * A failure another model might not have: a transient provider error, or this model's circuit refusing the
+     * call. A full node (no admission slot) is not one, since every model shares that capacity.
+     */
+    private boolean isModelFailure(Throwable error, String model) {
+        if (error instanceof LlmCapacityExceededException) {
+            return !resilientLlmClient.isCircuitClosed(model);
+        }
+        return LlmErrors.isTransient(error);
+    }
+
+    /**
+     * Streaming variant of getAnalysisFromAi: emits the model output as it is generated. The chunks are
+     * raw text (possibly inside a ```json fence); feed them to a newResponseAssembly() and call
+     * completeStreamedAnalysis once the Flux completes. Token usage is recorded from the final chunk's metadata. Each attempt
+     * holds an admission slot from the moment it is admitted until it terminates.
+     * The model is picked up front by AnalysisModelRouter; there is no fallback once the stream has started.
+     */
+    public ModelAnalysisStream streamAnalysisFromAi(AnalysisPrompt prompt) {
+        String model = modelRouter.candidates(prompt.estimatedTokens()).get(0);
+        logger.info("AnalysisAiService streaming prompt to model {}. User part length: {}, estimated tokens: {}",
+                model, prompt.userText().length(), prompt.estimatedTokens());
+        AtomicReference<Usage> finalUsage = new AtomicReference<>();
+        AtomicLong admittedAt = new AtomicLong();
+
+        Flux<String> chunks = resilientLlmClient.stream(USAGE_OPERATION, model, () -> {
+                    admittedAt.set(System.nanoTime()); // Model latency excludes the wait for an admission slot
+                    return this.chatClient.prompt()
+                            .options(OpenAiChatOptions.builder().model(model).build())
+                            .system(prompt.systemText())
+                            .user(prompt.userText())
+                            .stream()
+                            .chatResponse();
+                })
+                .doOnComplete(() -> modelRouter.recordSuccess(model, Duration.ofNanos(System.nanoTime() - admittedAt.get())))
+                .doOnError(error -> {
+                    if (isModelFailure(error, model)) {
+                        modelRouter.recordFailure(model);
+                    }
+                })
+                .doOnNext(response -> {
+                    // With stream-usage enabled the usage arrives on the last chunk
+                    Usage usage = response.getMetadata() != null ? response.getMetadata().getUsage() : null;
+                    if (AiUsageRecorder.isReported(usage)) {
+                        finalUsage.set(usage);
+                    }
+                })
+                .doOnComplete(() -> aiUsageRecorder.record(USAGE_OPERATION, finalUsage.get()))
+                .mapNotNull(AnalysisAiService::responseText)
+                .filter(text -> !text.isEmpty());
+        return new ModelAnalysisStream(chunks, model);
+    }
+
+    private static String responseText(ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getResult() == null || chatResponse.getResult().getOutput() == null) {
+            return null;
+        }
+        return chatResponse.getResult().getOutput().getText();
     }
-}
\ No newline at end of file
+}
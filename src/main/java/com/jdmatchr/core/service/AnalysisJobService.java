@@ -0,0 +1,33 @@
+package com.jdmatchr.core.service;
+
+import com.jdmatchr.core.dto.AnalysisJobDto;
+import com.jdmatchr.core.entity.User;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface AnalysisJobService {
+
+    /**
+     * Accepts an analysis request for background processing. The upload is spooled to a
+     * temporary file, a PENDING job is persisted, and the parse -> prompt -> AI -> save
+     * pipeline is handed to the bounded analysis worker pool.
+     *
+     * @param resumeFile The uploaded resume file (may be null or empty).
+     * @param jobTitle The job title for the analysis.
+     * @param jobDescription The job description text.
+     * @param authenticatedUser The authenticated User entity.
+     * @return The newly created job in PENDING state.
+     * @throws com.jdmatchr.core.exception.AnalysisQueueFullException If the worker pool cannot accept more jobs.
+     */
+    AnalysisJobDto submitJob(MultipartFile resumeFile, String jobTitle, String jobDescription, User authenticatedUser);
+
+    /**
+     * Retrieves the current state of a job, ensuring it belongs to the given user.
+     * @param jobId The UUID of the job to fetch.
+     * @param userId The ID of the user who should own the job.
+     * @return An Optional containing the job if found and owned by the user, otherwise empty.
+     */
+    Optional<AnalysisJobDto> getJobForUser(UUID jobId, UUID userId);
+}
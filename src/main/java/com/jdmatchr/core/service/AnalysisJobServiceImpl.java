@@ -0,0 +1,257 @@
+// src/main/java/com/jdmatchr/core/service/AnalysisJobServiceImpl.java
+package com.jdmatchr.core.service;
+
+import com.jdmatchr.core.dto.AnalysisJobDto;
+import com.jdmatchr.core.dto.InsightDetailDto;
+import com.jdmatchr.core.entity.AnalysisJob;
+import com.jdmatchr.core.entity.AnalysisJobStatus;
+import com.jdmatchr.core.entity.User;
+import com.jdmatchr.core.exception.AnalysisQueueFullException;
+import com.jdmatchr.core.repository.AnalysisJobRepository;
+import com.jdmatchr.core.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs async analyses on the bounded analysisJobExecutor. A job's inputs live only in the worker's closure and
+ * the spooled resume file, so a job whose process stopped cannot be continued: on startup such jobs are marked
+ * FAILED (the client sees that on its next poll and can submit again) and leftover spool files are deleted.
+ */
+@Service
+public class AnalysisJobServiceImpl implements AnalysisJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisJobServiceImpl.class);
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+    private static final String SPOOL_PREFIX = "jdmatchr-resume-";
+    private static final String SPOOL_SUFFIX = ".pdf";
+
+    private final AnalysisJobRepository analysisJobRepository;
+    private final UserRepository userRepository;
+    private final AnalyzerService analyzerService;
+    private final PdfParserService pdfParserService;
+    private final TaskExecutor analysisJobExecutor;
+    private final Path spoolDirectory;
+    private final boolean recoverOnStartup;
+    // Jobs and spool files older than this belong to a previous process
+    private final OffsetDateTime startedAt = OffsetDateTime.now();
+
+    @Autowired
+    public AnalysisJobServiceImpl(AnalysisJobRepository analysisJobRepository,
+                                  UserRepository userRepository,
+                                  AnalyzerService analyzerService,
+                                  PdfParserService pdfParserService,
+                                  @Qualifier("analysisJobExecutor") TaskExecutor analysisJobExecutor,
+                                  @Value("${jdmatchr.analysis.async.recover-on-startup:true}") boolean recoverOnStartup) {
+        this(analysisJobRepository, userRepository, analyzerService, pdfParserService, analysisJobExecutor,
+                Path.of(System.getProperty("java.io.tmpdir")), recoverOnStartup);
+    }
+
+    AnalysisJobServiceImpl(AnalysisJobRepository analysisJobRepository, UserRepository userRepository,
+                           AnalyzerService analyzerService, PdfParserService pdfParserService,
+                           TaskExecutor analysisJobExecutor, Path spoolDirectory, boolean recoverOnStartup) {
+        this.analysisJobRepository = analysisJobRepository;
+        this.userRepository = userRepository;
+        this.analyzerService = analyzerService;
+        this.pdfParserService = pdfParserService;
+        this.analysisJobExecutor = analysisJobExecutor;
+        this.spoolDirectory = spoolDirectory;
+        this.recoverOnStartup = recoverOnStartup;
+    }
+
+    @Override
+    public AnalysisJobDto submitJob(MultipartFile resumeFile, String jobTitle, String jobDescription, User authenticatedUser) {
+        String originalResumeFilename = "N/A";
+        Path spooledResume = null;
+
+        // The multipart temp file is deleted when the request completes, so the upload
+        // has to be moved somewhere the worker can still read it.
+        if (resumeFile != null && !resumeFile.isEmpty()) {
+            originalResumeFilename = resumeFile.getOriginalFilename();
+            try {
+                spooledResume = Files.createTempFile(spoolDirectory, SPOOL_PREFIX, SPOOL_SUFFIX);
+                resumeFile.transferTo(spooledResume.toFile()); // File overload lets Tomcat move its temp file instead of copying
+                logger.info("Spooled resume '{}' to {} for async analysis.", originalResumeFilename, spooledResume);
+            } catch (IOException e) {
+                deleteQuietly(spooledResume);
+                logger.error("Failed to spool resume file '{}' for async analysis: {}", originalResumeFilename, e.getMessage(), e);
+                throw new RuntimeException("Error processing resume file: " + e.getMessage(), e);
+            }
+        }
+
+        AnalysisJob job = new AnalysisJob();
+        job.setUser(authenticatedUser);
+        job.setStatus(AnalysisJobStatus.PENDING);
+        job.setJobTitle(jobTitle);
+        job.setResumeFilename(originalResumeFilename);
+        AnalysisJob savedJob = analysisJobRepository.save(job);
+        logger.info("Created PENDING analysis job {} for user {}", savedJob.getId(), authenticatedUser.getId());
+
+        final UUID jobId = savedJob.getId();
+        final UUID userId = authenticatedUser.getId();
+        final Path resumePath = spooledResume;
+        final String resumeFilename = originalResumeFilename;
+        try {
+            analysisJobExecutor.execute(() -> runJob(jobId, userId, resumePath, resumeFilename, jobTitle, jobDescription));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Analysis worker pool is saturated. Rejecting job {} for user {}.", jobId, authenticatedUser.getId());
+            deleteQuietly(resumePath);
+            markFailed(jobId, "Rejected: the analysis queue is full.");
+            throw new AnalysisQueueFullException("The analysis queue is full. Please try again shortly.", e);
+        }
+
+        return toDto(savedJob);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<AnalysisJobDto> getJobForUser(UUID jobId, UUID userId) {
+        logger.debug("Fetching analysis job {} for user ID: {}", jobId, userId);
+        return analysisJobRepository.findByIdAndUserId(jobId, userId).map(this::toDto);
+    }
+
+    /**
+     * Cleans up after a restart: deletes this node's spool files left by the previous process and marks the jobs
+     * that were PENDING or RUNNING before this process started as FAILED. Marking is meant for a single node:
+     * with several nodes, enable recover-on-startup on one of them only, or jobs still running elsewhere are
+     * reported as failed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInterruptedJobs() {
+        deleteStaleSpoolFiles();
+        if (!recoverOnStartup) {
+            return;
+        }
+        List<AnalysisJob> interrupted = analysisJobRepository.findByStatusInAndCreatedAtBefore(
+                List.of(AnalysisJobStatus.PENDING, AnalysisJobStatus.RUNNING), startedAt);
+        for (AnalysisJob job : interrupted) {
+            logger.warn("Analysis job {} was {} when the server stopped; marking it FAILED.", job.getId(), job.getStatus());
+            markFailed(job.getId(), "Interrupted by a server restart. Please submit the analysis again.");
+        }
+    }
+
+    private void deleteStaleSpoolFiles() {
+        FileTime cutoff = FileTime.from(startedAt.toInstant());
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDirectory, SPOOL_PREFIX + "*" + SPOOL_SUFFIX)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).compareTo(cutoff) < 0) {
+                    deleteQuietly(file);
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not clean up spooled resume files in {}: {}", spoolDirectory, e.getMessage());
+        }
+        if (deleted > 0) {
+            logger.info("Deleted {} spooled resume file(s) left by a previous run.", deleted);
+        }
+    }
+
+    /**
+     * Worker body: parse -> prompt -> AI -> save, recording the outcome on the job row.
+     * Runs on the analysisJobExecutor, outside of any request or transaction.
+     */
+    private void runJob(UUID jobId, UUID userId, Path resumePath, String resumeFilename, String jobTitle, String jobDescription) {
+        logger.info("Analysis job {} started.", jobId);
+        try {
+            updateStatus(jobId, AnalysisJobStatus.RUNNING);
+
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new IllegalStateException("User " + userId + " no longer exists."));
+
+            String resumeText = "";
+            if (resumePath != null) {
+                File resume = resumePath.toFile();
+                resumeText = pdfParserService.parsePdf(resume, resumeFilename);
+                if (resumeText.isBlank()) {
+                    logger.warn("Extracted resume text is blank for file: {} (job {})", resumeFilename, jobId);
+                }
+            }
+
+            InsightDetailDto insight = analyzerService.analyzeResumeText(resumeText, resumeFilename, jobTitle, jobDescription, user);
+            markCompleted(jobId, insight.id());
+            logger.info("Analysis job {} completed. Insight ID: {}", jobId, insight.id());
+        } catch (Exception e) {
+            logger.error("Analysis job {} failed: {}", jobId, e.getMessage(), e);
+            markFailed(jobId, e.getMessage());
+        } finally {
+            deleteQuietly(resumePath);
+        }
+    }
+
+    private void updateStatus(UUID jobId, AnalysisJobStatus status) {
+        analysisJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            analysisJobRepository.save(job);
+        });
+    }
+
+    private void markCompleted(UUID jobId, UUID insightId) {
+        analysisJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(AnalysisJobStatus.COMPLETED);
+            job.setInsightId(insightId);
+            job.setCompletedAt(OffsetDateTime.now());
+            analysisJobRepository.save(job);
+        });
+    }
+
+    private void markFailed(UUID jobId, String errorMessage) {
+        try {
+            analysisJobRepository.findById(jobId).ifPresent(job -> {
+                job.setStatus(AnalysisJobStatus.FAILED);
+                String message = errorMessage != null ? errorMessage : "Unknown error";
+                job.setErrorMessage(message.length() > MAX_ERROR_MESSAGE_LENGTH ? message.substring(0, MAX_ERROR_MESSAGE_LENGTH) : message);
+                job.setCompletedAt(OffsetDateTime.now());
+                analysisJobRepository.save(job);
+            });
+        } catch (Exception e) {
+            logger.error("Could not record failure for analysis job {}: {}", jobId, e.getMessage(), e);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete spooled resume file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private AnalysisJobDto toDto(AnalysisJob job) {
+        return new AnalysisJobDto(
+                job.getId(),
+                job.getStatus().name(),
+                job.getJobTitle(),
+                job.getResumeFilename(),
+                job.getInsightId(),
+                job.getErrorMessage(),
+                job.getCreatedAt(),
+                job.getUpdatedAt(),
+                job.getCompletedAt()
+        );
+    }
+}
@@ -0,0 +1,236 @@
+// src/main/java/com/jdmatchr/core/service/AnalysisModelRouter.java
+package com.jdmatchr.core.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Picks the model for an analysis call and the order of fallbacks.
+ *
+ * Models are configured in preference order in jdmatchr.llm.routing.models, each optionally with the
+ * largest prompt (estimated tokens) it should get: "gemini-2.5-pro, gemini-2.0-flash:12000". The first
+ * entry is the primary model. For a call, models that cannot take the prompt are skipped, and models that
+ * are currently degraded (error rate over the recent window or latency EWMA above the budget) move behind
+ * the healthy ones, so the first attempt goes to the best healthy model and fallbacks follow.
+ * A degraded model gets a probe call again once probe-interval has passed, so it can recover.
+ */
+@Component
+public class AnalysisModelRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisModelRouter.class);
+    private static final int OUTCOME_WINDOW = 20;
+    private static final int MIN_OUTCOMES = 5;
+    private static final double EWMA_WEIGHT = 0.2;
+
+    /**
+     * @param maxInputTokens Largest estimated prompt this model should get (Integer.MAX_VALUE = no limit).
+     */
+    public record ModelRoute(String name, int maxInputTokens) {
+    }
+
+    private final List<ModelRoute> routes;
+    private final List<ModelHealth> health;
+    private final double maxErrorRate;
+    private final long latencyBudgetNanos;
+    private final long probeIntervalNanos;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public AnalysisModelRouter(MeterRegistry meterRegistry,
+                               @Value("${jdmatchr.llm.routing.models:${spring.ai.openai.chat.options.model:unknown}}") List<String> models,
+                               @Value("${jdmatchr.llm.routing.max-error-rate:0.3}") double maxErrorRate,
+                               @Value("${jdmatchr.llm.routing.latency-budget:PT30S}") Duration latencyBudget,
+                               @Value("${jdmatchr.llm.routing.probe-interval:PT30S}") Duration probeInterval) {
+        this(meterRegistry, models, maxErrorRate, latencyBudget, probeInterval, System::nanoTime);
+    }
+
+    AnalysisModelRouter(MeterRegistry meterRegistry, List<String> models, double maxErrorRate, Duration latencyBudget,
+                        Duration probeInterval, LongSupplier nanoClock) {
+        this.routes = parseRoutes(models);
+        this.maxErrorRate = maxErrorRate;
+        this.latencyBudgetNanos = latencyBudget.toNanos();
+        this.probeIntervalNanos = probeInterval.toNanos();
+        this.nanoClock = nanoClock;
+        List<ModelHealth> modelHealth = new ArrayList<>(routes.size());
+        for (ModelRoute route : routes) {
+            ModelHealth h = new ModelHealth();
+            modelHealth.add(h);
+            meterRegistry.gauge("jdmatchr.llm.routing.degraded", Tags.of("model", route.name()), h, x -> isDegraded(x) ? 1 : 0);
+        }
+        this.health = Collections.unmodifiableList(modelHealth);
+        logger.info("Analysis model routes (in preference order): {}", routes);
+    }
+
+    /**
+     * @return The primary (first configured) model.
+     */
+    public String getPrimaryModel() {
+        return routes.get(0).name();
+    }
+
+    /**
+     * @param estimatedPromptTokens Estimated size of the whole prompt.
+     * @return The models to try, in order. Never empty: if no model is configured for a prompt this large,
+     *         the model with the largest limit is used.
+     */
+    public List<String> candidates(int estimatedPromptTokens) {
+        long now = nanoClock.getAsLong();
+        List<String> healthy = new ArrayList<>(routes.size());
+        List<String> degraded = new ArrayList<>();
+        for (int i = 0; i < routes.size(); i++) {
+            ModelRoute route = routes.get(i);
+            if (estimatedPromptTokens > route.maxInputTokens()) {
+                continue;
+            }
+            ModelHealth h = health.get(i);
+            if (isDegraded(h) && !h.claimProbe(now, probeIntervalNanos)) {
+                degraded.add(route.name());
+            } else {
+                healthy.add(route.name());
+            }
+        }
+        healthy.addAll(degraded);
+        if (healthy.isEmpty()) {
+            ModelRoute largest = Collections.max(routes, (a, b) -> Integer.compare(a.maxInputTokens(), b.maxInputTokens()));
+            logger.warn("No model is configured for a {} token prompt; using {}.", estimatedPromptTokens, largest.name());
+            healthy.add(largest.name());
+        }
+        return healthy;
+    }
+
+    public void recordSuccess(String model, Duration latency) {
+        ModelHealth h = healthOf(model);
+        if (h != null) {
+            h.record(false, latency.toNanos());
+        }
+    }
+
+    /**
+     * Records a failure that says something about the model's health (transient errors, open circuit).
+     */
+    public void recordFailure(String model) {
+        ModelHealth h = healthOf(model);
+        if (h != null) {
+            h.record(true, -1);
+        }
+    }
+
+    private boolean isDegraded(ModelHealth h) {
+        return h.errorRate() >= maxErrorRate || h.latencyEwmaNanos() > latencyBudgetNanos;
+    }
+
+    private ModelHealth healthOf(String model) {
+        for (int i = 0; i < routes.size(); i++) {
+            if (routes.get(i).name().equals(model)) {
+                return health.get(i);
+            }
+        }
+        return null;
+    }
+
+    private static List<ModelRoute> parseRoutes(List<String> models) {
+        List<ModelRoute> parsed = new ArrayList<>();
+        for (String entry : models) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int colon = trimmed.lastIndexOf(':');
+            if (colon > 0 && trimmed.substring(colon + 1).chars().allMatch(Character::isDigit) && colon < trimmed.length() - 1) {
+                parsed.add(new ModelRoute(trimmed.substring(0, colon).trim(), Integer.parseInt(trimmed.substring(colon + 1))));
+            } else {
+                parsed.add(new ModelRoute(trimmed, Integer.MAX_VALUE));
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("jdmatchr.llm.routing.models must name at least one model");
+        }
+        return List.copyOf(parsed);
+    }
+
+    /**
+     * Recent outcomes and latency of one model.
+     */
+    private static final class ModelHealth {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final boolean[] failures = new boolean[OUTCOME_WINDOW];
+        private int recorded;
+        private int next;
+        private int failureCount;
+        private double latencyEwmaNanos;
+        private long lastProbeNanos = Long.MIN_VALUE;
+
+        void record(boolean failure, long latencyNanos) {
+            lock.lock();
+            try {
+                if (recorded == OUTCOME_WINDOW && failures[next]) {
+                    failureCount--;
+                }
+                failures[next] = failure;
+                if (failure) {
+                    failureCount++;
+                }
+                next = (next + 1) % OUTCOME_WINDOW;
+                recorded = Math.min(recorded + 1, OUTCOME_WINDOW);
+                if (latencyNanos >= 0) {
+                    latencyEwmaNanos = latencyEwmaNanos == 0 ? latencyNanos
+                            : EWMA_WEIGHT * latencyNanos + (1 - EWMA_WEIGHT) * latencyEwmaNanos;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        double errorRate() {
+            lock.lock();
+            try {
+                return recorded < MIN_OUTCOMES ? 0 : (double) failureCount / recorded;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        double latencyEwmaNanos() {
+            lock.lock();
+            try {
+                return latencyEwmaNanos;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return True for one caller per probe interval, who then tries the degraded model first. The first
+         *         interval starts when the model is first seen degraded.
+         */
+        boolean claimProbe(long now, long probeIntervalNanos) {
+            lock.lock();
+            try {
+                if (lastProbeNanos == Long.MIN_VALUE) {
+                    lastProbeNanos = now;
+                    return false;
+                }
+                if (now - lastProbeNanos < probeIntervalNanos) {
+                    return false;
+                }
+                lastProbeNanos = now;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
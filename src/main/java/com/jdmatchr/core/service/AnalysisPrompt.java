@@ -0,0 +1,16 @@
+// src/main/java/com/jdmatchr/core/service/AnalysisPrompt.java
+package com.jdmatchr.core.service;
+
+/**
+ * A prompt ready to send, together with the inputs exactly as they appear in it.
+ *
+ * @param systemText The static instruction block; identical on every call so the provider can cache it.
+ * @param userText The variable part: job title, job description and resume text.
+ * @param jobDescription The cleaned job description after budget allocation.
+ * @param resumeText The resume text after budget allocation.
+ * @param estimatedTokens Local estimate of the prompt tokens, reported before the call is made.
+ * @param localScores The keyword analysis and ATS score, computed locally from the full inputs; the model is not asked for them.
+ */
+public record AnalysisPrompt(String systemText, String userText, String jobDescription, String resumeText, int estimatedTokens,
+                             LocalScores localScores) {
+}
@@ -0,0 +1,158 @@
+// src/main/java/com/jdmatchr/core/service/AnalysisResultCache.java
+package com.jdmatchr.core.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jdmatchr.core.dto.AnalysisResultDto;
+import com.jdmatchr.core.entity.AnalysisResultCacheEntry;
+import com.jdmatchr.core.repository.AnalysisResultCacheRepository;
+import com.jdmatchr.core.util.BoundedTtlCache;
+import com.jdmatchr.core.util.HashUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Content-addressed cache for AI analysis results.
+ *
+ * Tier 1 is a bounded in-memory LRU with a TTL. Tier 2 (optional, off by default) is the
+ * analysis_result_cache table, which survives restarts and is shared between nodes.
+ * Keys are a SHA-256 over the job title, the JD and resume text as they appear in the prompt,
+ * the model name and the prompt template version.
+ *
+ * The model is the router's primary model (AnalysisModelRouter), the one a first attempt normally goes to;
+ * results of fallback models are not cached.
+ */
+@Service
+public class AnalysisResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisResultCache.class);
+    private static final String METRIC_NAME = "jdmatchr.analysis.cache.requests";
+
+    private final AnalysisResultCacheRepository cacheRepository;
+    private final ObjectMapper objectMapper;
+    private final BoundedTtlCache<String, AnalysisResultDto> memoryTier;
+    private final boolean enabled;
+    private final boolean persistentEnabled;
+    private final Duration persistentTtl;
+    private final String modelName;
+
+    private final Counter memoryHits;
+    private final Counter memoryMisses;
+    private final Counter databaseHits;
+    private final Counter databaseMisses;
+
+    public AnalysisResultCache(AnalysisResultCacheRepository cacheRepository,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${jdmatchr.analysis.cache.enabled:true}") boolean enabled,
+                               @Value("${jdmatchr.analysis.cache.memory.max-entries:1000}") int maxEntries,
+                               @Value("${jdmatchr.analysis.cache.memory.ttl:PT6H}") Duration memoryTtl,
+                               @Value("${jdmatchr.analysis.cache.persistent.enabled:false}") boolean persistentEnabled,
+                               @Value("${jdmatchr.analysis.cache.persistent.ttl:P7D}") Duration persistentTtl,
+                               AnalysisModelRouter modelRouter) {
+        this.cacheRepository = cacheRepository;
+        this.objectMapper = objectMapper;
+        this.memoryTier = new BoundedTtlCache<>(maxEntries, memoryTtl);
+        this.enabled = enabled;
+        this.persistentEnabled = persistentEnabled;
+        this.persistentTtl = persistentTtl;
+        this.modelName = modelRouter.getPrimaryModel();
+
+        this.memoryHits = Counter.builder(METRIC_NAME).tag("tier", "memory").tag("result", "hit").register(meterRegistry);
+        this.memoryMisses = Counter.builder(METRIC_NAME).tag("tier", "memory").tag("result", "miss").register(meterRegistry);
+        this.databaseHits = Counter.builder(METRIC_NAME).tag("tier", "database").tag("result", "hit").register(meterRegistry);
+        this.databaseMisses = Counter.builder(METRIC_NAME).tag("tier", "database").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("jdmatchr.analysis.cache.size", memoryTier, BoundedTtlCache::size).register(meterRegistry);
+
+        logger.info("AnalysisResultCache initialized. Enabled: {}, model: {}, memory max entries: {}, memory TTL: {}, persistent tier: {}",
+                enabled, modelName, maxEntries, memoryTtl, persistentEnabled);
+    }
+
+    /**
+     * Builds the content key for an analysis request.
+     * @param jobTitle The job title (it is part of the prompt, so it is part of the key).
+     * @param promptJobDescription The JD as it appears in the prompt (cleaned and fitted to the token budget).
+     * @param promptResumeText The resume text as it appears in the prompt.
+     * @param promptVersion The prompt template version.
+     * @return A 64 char hex key.
+     */
+    public String buildKey(String jobTitle, String promptJobDescription, String promptResumeText, String promptVersion) {
+        return HashUtils.sha256Hex(jobTitle, promptJobDescription, promptResumeText, modelName, promptVersion);
+    }
+
+    /**
+     * @return The model whose results this cache holds; results of other (fallback) models are not cached.
+     */
+    public String getModelName() {
+        return modelName;
+    }
+
+    public Optional<AnalysisResultDto> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        AnalysisResultDto cached = memoryTier.get(key);
+        if (cached != null) {
+            memoryHits.increment();
+            logger.info("Analysis cache hit (memory) for key {}", key);
+            return Optional.of(cached);
+        }
+        memoryMisses.increment();
+
+        if (!persistentEnabled) {
+            return Optional.empty();
+        }
+
+        try {
+            Optional<AnalysisResultCacheEntry> entry = cacheRepository.findByCacheKeyAndExpiresAtAfter(key, OffsetDateTime.now());
+            if (entry.isPresent()) {
+                AnalysisResultDto result = objectMapper.convertValue(entry.get().getAnalysisResult(), AnalysisResultDto.class);
+                databaseHits.increment();
+                memoryTier.put(key, result); // Promote to the memory tier
+                logger.info("Analysis cache hit (database) for key {}", key);
+                return Optional.of(result);
+            }
+            databaseMisses.increment();
+        } catch (Exception e) {
+            // The cache must never fail an analysis; fall through to the AI call.
+            databaseMisses.increment();
+            logger.warn("Could not read persisted analysis cache entry {}: {}", key, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    public void put(String key, String promptVersion, AnalysisResultDto result) {
+        if (!enabled || result == null) {
+            return;
+        }
+        memoryTier.put(key, result);
+
+        if (!persistentEnabled) {
+            return;
+        }
+        try {
+            OffsetDateTime now = OffsetDateTime.now();
+            AnalysisResultCacheEntry entry = new AnalysisResultCacheEntry();
+            entry.setCacheKey(key);
+            entry.setModelName(modelName);
+            entry.setPromptVersion(promptVersion);
+            entry.setAnalysisResult(objectMapper.convertValue(result, new TypeReference<Map<String, Object>>() {}));
+            entry.setCreatedAt(now);
+            entry.setExpiresAt(now.plus(persistentTtl));
+            cacheRepository.save(entry); // Upsert by primary key
+        } catch (Exception e) {
+            logger.warn("Could not persist analysis cache entry {}: {}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+// src/main/java/com/jdmatchr/core/service/AnalysisResultParser.java
+package com.jdmatchr.core.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jdmatchr.core.dto.AnalysisResultDto;
+import com.jdmatchr.core.util.JsonFieldStreamParser;
+import com.jdmatchr.core.util.JsonRepair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Tolerant parser for the model's analysis JSON. Sections are read one by one as the response arrives
+ * (JsonFieldStreamParser), so code fences and commentary around the object need no stripping and a
+ * broken section only loses itself, not the whole response. Each section is checked against the expected
+ * shape before it is accepted; a section cut off by the end of the output is repaired where that is
+ * unambiguous (JsonRepair). Whatever is still missing can then be requested on its own.
+ */
+@Component
+public class AnalysisResultParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisResultParser.class);
+    private static final int MAX_REPAIR_CANDIDATES = 8;
+
+    // Expected JSON type of each top-level section of AnalysisResultDto
+    private static final Map<String, JsonNodeType> SCHEMA = new LinkedHashMap<>();
+
+    static {
+        SCHEMA.put("matchScore", JsonNodeType.NUMBER);
+        SCHEMA.put("atsScore", JsonNodeType.NUMBER);
+        SCHEMA.put("fluffAnalysis", JsonNodeType.OBJECT);
+        SCHEMA.put("roleFitAndAlignmentMetrics", JsonNodeType.OBJECT);
+        SCHEMA.put("keywordAnalysis", JsonNodeType.OBJECT);
+        SCHEMA.put("resumeSuggestions", JsonNodeType.ARRAY);
+        SCHEMA.put("interviewPreparationTopics", JsonNodeType.ARRAY);
+    }
+
+    // Nested fields (JSON pointers) a repaired section must still contain. A complete section is taken as the
+    // model wrote it, but a repair that cut one of these off is no answer: the section is requested again.
+    private static final Map<String, List<String>> REQUIRED_AFTER_REPAIR = Map.of(
+            "fluffAnalysis", List.of("/summary", "/detected"),
+            "roleFitAndAlignmentMetrics", List.of(
+                    "/prediction/verdict", "/prediction/reason",
+                    "/radarData/technicalSkills", "/radarData/softSkills", "/radarData/experienceLevel", "/radarData/cultureFit",
+                    "/alignmentBreakdown/skills", "/alignmentBreakdown/experience", "/alignmentBreakdown/education",
+                    "/alignmentBreakdown/keywords"));
+
+    /**
+     * A validated top-level section.
+     */
+    public record Section(String name, JsonNode value) {
+    }
+
+    /**
+     * The sections recovered from one response.
+     * @param sections Valid sections by name, in the order they arrived.
+     * @param repairedSection The section that had to be repaired after truncation, or null.
+     */
+    public record ParsedSections(Map<String, JsonNode> sections, String repairedSection) {
+
+        public List<String> missing(List<String> required) {
+            return required.stream().filter(name -> !sections.containsKey(name)).toList();
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+
+    public AnalysisResultParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return A parser for one response; feed it the chunks, then call finish().
+     */
+    public Assembly newAssembly() {
+        return new Assembly();
+    }
+
+    /**
+     * Parses a complete response in one go.
+     */
+    public ParsedSections parse(String response) throws JsonProcessingException {
+        Assembly assembly = newAssembly();
+        assembly.feed(response);
+        return assembly.finish();
+    }
+
+    /**
+     * Binds the sections to the result DTO. Absent sections stay null.
+     */
+    public AnalysisResultDto toResult(Map<String, JsonNode> sections) throws JsonProcessingException {
+        ObjectNode root = objectMapper.createObjectNode();
+        sections.forEach(root::set);
+        return objectMapper.treeToValue(root, AnalysisResultDto.class);
+    }
+
+    /**
+     * Incremental parse of one response. Not thread-safe; chunks must be fed in order.
+     */
+    public final class Assembly {
+
+        private final JsonFieldStreamParser fieldParser = new JsonFieldStreamParser();
+        private final Map<String, JsonNode> sections = new LinkedHashMap<>();
+        private int received;
+
+        private Assembly() {
+        }
+
+        /**
+         * @return The valid sections completed by this chunk, in order.
+         */
+        public List<Section> feed(CharSequence chunk) {
+            received += chunk.length();
+            List<Section> accepted = new ArrayList<>(1);
+            for (JsonFieldStreamParser.Field field : fieldParser.feed(chunk)) {
+                readSection(field.name(), field.json()).ifPresent(value -> {
+                    sections.put(field.name(), value);
+                    accepted.add(new Section(field.name(), value));
+                });
+            }
+            return accepted;
+        }
+
+        /**
+         * Ends the response: repairs a section that was cut off, if possible.
+         * @throws JsonProcessingException If not a single valid section was found.
+         */
+        public ParsedSections finish() throws JsonProcessingException {
+            String repaired = null;
+            Optional<JsonFieldStreamParser.Field> pending = fieldParser.pendingField();
+            if (pending.isPresent() && !sections.containsKey(pending.get().name())) {
+                JsonFieldStreamParser.Field field = pending.get();
+                for (String candidate : JsonRepair.closeTruncated(field.json(), MAX_REPAIR_CANDIDATES)) {
+                    Optional<JsonNode> value = readSection(field.name(), candidate).filter(v -> isCompleteRepair(field.name(), v));
+                    if (value.isPresent()) {
+                        sections.put(field.name(), value.get());
+                        repaired = field.name();
+                        logger.warn("Analysis response was truncated in section '{}'; repaired it.", field.name());
+                        break;
+                    }
+                }
+                if (repaired == null) {
+                    logger.warn("Analysis response was truncated in section '{}'; it could not be repaired.", field.name());
+                }
+            }
+            if (sections.isEmpty()) {
+                throw new JsonParseException(null, "No valid analysis section in the AI response (" + received + " chars received)");
+            }
+            return new ParsedSections(Collections.unmodifiableMap(new LinkedHashMap<>(sections)), repaired);
+        }
+
+        private boolean isCompleteRepair(String name, JsonNode value) {
+            for (String pointer : REQUIRED_AFTER_REPAIR.getOrDefault(name, List.of())) {
+                if (value.at(pointer).isMissingNode()) {
+                    logger.info("Repair of section '{}' lacks {}; not using it.", name, pointer);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Optional<JsonNode> readSection(String name, String json) {
+            JsonNodeType expectedType = SCHEMA.get(name);
+            if (expectedType == null) {
+                logger.info("Ignoring unexpected section '{}' in analysis response.", name);
+                return Optional.empty();
+            }
+            try {
+                JsonNode value = objectMapper.readTree(json);
+                if (value.getNodeType() != expectedType) {
+                    logger.warn("Section '{}' is {} instead of {}; dropping it.", name, value.getNodeType(), expectedType);
+                    return Optional.empty();
+                }
+                if (expectedType == JsonNodeType.NUMBER && (value.asDouble() < 0 || value.asDouble() > 100)) {
+                    logger.warn("Section '{}' is out of range ({}); dropping it.", name, value);
+                    return Optional.empty();
+                }
+                // Binding the section alone checks its nested fields against the DTO
+                toResult(Map.of(name, value));
+                return Optional.of(value);
+            } catch (JsonProcessingException e) {
+                logger.warn("Section '{}' is not valid: {}", name, e.getOriginalMessage());
+                return Optional.empty();
+            }
+        }
+    }
+}
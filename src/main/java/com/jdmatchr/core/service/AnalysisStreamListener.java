@@ -0,0 +1,27 @@
+// src/main/java/com/jdmatchr/core/service/AnalysisStreamListener.java
+package com.jdmatchr.core.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.jdmatchr.core.dto.InsightDetailDto;
+
+/**
+ * Receives the progress of a streamed analysis. Callbacks arrive on a worker thread, one at a time,
+ * and implementations must not throw (a client that went away should not abort the analysis).
+ */
+public interface AnalysisStreamListener {
+
+    /**
+     * A top-level section of the analysis result (matchScore, atsScore, keywordAnalysis, ...) is complete.
+     */
+    void onSection(String name, JsonNode value);
+
+    /**
+     * The analysis finished and the insight has been saved.
+     */
+    void onComplete(InsightDetailDto insight);
+
+    /**
+     * The analysis failed; nothing was saved.
+     */
+    void onError(Throwable error);
+}
@@ -3,7 +3,9 @@ package com.jdmatchr.core.service;
 
 import com.jdmatchr.core.dto.AnalysisRequestAckDto;
 import com.jdmatchr.core.dto.InsightDetailDto; // Ensure this is imported
-import com.jdmatchr.core.dto.InsightSummaryDto;
+import com.jdmatchr.core.dto.InsightHistoryFilter;
+import com.jdmatchr.core.dto.InsightHistoryPageDto;
+import com.jdmatchr.core.dto.JobDescriptionInput;
 import com.jdmatchr.core.entity.User;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -33,26 +35,87 @@ public interface AnalyzerService {
     );
 
     /**
-     * Retrieves a summary list of all insights for a given user, ordered by most recent.
-     * @param user The user whose insights history is to be fetched.
-     * @return A list of InsightSummaryDto objects.
+     * Runs the prompt -> AI -> save part of the analysis pipeline for resume text that has
+     * already been extracted (e.g. by an asynchronous analysis job worker).
+     *
+     * @param resumeText The extracted resume text (may be empty if no resume was provided).
+     * @param resumeFilename The original filename of the resume, or "N/A".
+     * @param jobTitle The job title for the analysis.
+     * @param jobDescription The job description text.
+     * @param authenticatedUser The User entity who requested the analysis.
+     * @return An InsightDetailDto containing details of the created insight.
+     */
+    InsightDetailDto analyzeResumeText(
+            String resumeText,
+            String resumeFilename,
+            String jobTitle,
+            String jobDescription,
+            User authenticatedUser
+    );
+
+    /**
+     * Streaming variant of analyzeDocuments. The resume is parsed on the calling thread; the AI response
+     * is then streamed on a worker thread and every top-level section of the result is passed to the
+     * listener as soon as it is complete. The insight is saved when the stream completes (also when the
+     * client has gone away in the meantime), then listener.onComplete is called.
+     *
+     * @param resumeFile The uploaded resume file.
+     * @param jobTitle The job title for the analysis.
+     * @param jobDescription The job description text.
+     * @param authenticatedUser The authenticated User entity.
+     * @param listener Receives the sections, the saved insight or the error.
+     */
+    void streamAnalysis(
+            MultipartFile resumeFile,
+            String jobTitle,
+            String jobDescription,
+            User authenticatedUser,
+            AnalysisStreamListener listener
+    );
+
+    /**
+     * Analyzes one resume against many job descriptions. The resume is parsed once, on the calling thread;
+     * the analyses then run on worker threads with bounded parallelism (each still goes through the result
+     * cache and the AI admission control). Each result is passed to the listener as soon as it is done, and
+     * the insights of all successful analyses are saved in one transaction at the end.
+     *
+     * @param resumeFile The uploaded resume file.
+     * @param jobDescriptions The jobs to analyze the resume against.
+     * @param authenticatedUser The authenticated User entity.
+     * @param listener Receives the per-job results, the saved insights or the error.
+     */
+    void analyzeBatch(
+            MultipartFile resumeFile,
+            List<JobDescriptionInput> jobDescriptions,
+            User authenticatedUser,
+            BatchAnalysisListener listener
+    );
+
+    /**
+     * Retrieves one page of a user's insight summaries, ordered by most recent.
+     * @param userId The ID of the user whose insights history is to be fetched.
+     * @param filter Optional restrictions on the insights listed.
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param pageSize The maximum number of summaries on the page.
+     * @return The page, with the cursor of the next page if there is one.
+     * @throws IllegalArgumentException If cursor is malformed.
      */
-    List<InsightSummaryDto> getInsightsHistoryForUser(User user);
+    InsightHistoryPageDto getInsightsHistoryForUser(UUID userId, InsightHistoryFilter filter, String cursor, int pageSize);
 
     /**
      * Retrieves the most recent insight (as a detailed DTO) for a given user.
-     * @param user The user whose latest insight is to be fetched.
+     * @param userId The ID of the user whose latest insight is to be fetched.
      * @return An Optional containing InsightDetailDto if an insight exists, otherwise empty.
      */
-    Optional<InsightDetailDto> getLatestInsightForUser(User user);
+    Optional<InsightDetailDto> getLatestInsightForUser(UUID userId);
 
     /**
      * Retrieves a specific insight by its ID, ensuring it belongs to the given user.
      * @param insightId The UUID of the insight to fetch.
-     * @param user The user who should own the insight.
-     * @return An Optional containing InsightDetailDto if found and owned by user, otherwise empty.
+     * @param userId The ID of the user who should own the insight.
+     * @return An Optional containing InsightDetailDto if found and owned by the user, otherwise empty.
      */
-    Optional<InsightDetailDto> getInsightByIdAndUser(UUID insightId, User user);
+    Optional<InsightDetailDto> getInsightByIdAndUser(UUID insightId, UUID userId);
 
     /**
      * FOR INITIAL TESTING/DEBUGGING: Receives analysis request, logs inputs, and returns a mock acknowledgment.
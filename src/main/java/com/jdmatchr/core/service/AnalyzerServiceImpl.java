@@ -3,23 +3,42 @@ package com.jdmatchr.core.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.jdmatchr.core.dto.*;
-import com.jdmatchr.core.entity.Insights; // Ensure this import is present
+import com.jdmatchr.core.entity.InsightInput;
+import com.jdmatchr.core.entity.Insights;
 import com.jdmatchr.core.entity.User; // Ensure this import is present
+import com.jdmatchr.core.exception.LlmCapacityExceededException;
+import com.jdmatchr.core.repository.InsightInputRepository;
 import com.jdmatchr.core.repository.InsightsRepository;
 import com.jdmatchr.core.repository.UserRepository;
+import com.jdmatchr.core.util.HashUtils;
+import com.jdmatchr.core.util.InsightCursor;
+import com.jdmatchr.core.util.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
 import java.time.OffsetDateTime; // Ensure this is imported for InsightSummaryDto
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -34,6 +53,16 @@ public class AnalyzerServiceImpl implements AnalyzerService {
     private final PdfParserService pdfParserService;
     private final PromptBuilderService promptBuilderService;
     private final AnalysisAiService analysisAiService;
+    private final AnalysisResultCache analysisResultCache;
+    private final TransactionTemplate writeTransaction;
+    private final boolean coalescingEnabled;
+    private final boolean persistEachCoalescedRequest;
+    private final SingleFlight<String, AnalysisAiService.ModelAnalysis> aiCallsInFlight = new SingleFlight<>();
+    private final SingleFlight<String, InsightDetailDto> analysesInFlight = new SingleFlight<>();
+    private final Counter coalescedRequests;
+    private final int batchParallelism;
+    private final InsightInputRepository insightInputRepository;
+    private final boolean storeInputs;
 
     @Autowired
     public AnalyzerServiceImpl(UserRepository userRepository,
@@ -41,17 +70,36 @@ public class AnalyzerServiceImpl implements AnalyzerService {
                                ObjectMapper objectMapper,
                                PdfParserService pdfParserService,
                                PromptBuilderService promptBuilderService,
-                               AnalysisAiService analysisAiService) {
+                               AnalysisAiService analysisAiService,
+                               AnalysisResultCache analysisResultCache,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${jdmatchr.analysis.coalescing.enabled:true}") boolean coalescingEnabled,
+                               @Value("${jdmatchr.analysis.coalescing.persist-each:true}") boolean persistEachCoalescedRequest,
+                               @Value("${jdmatchr.analysis.batch.parallelism:4}") int batchParallelism,
+                               InsightInputRepository insightInputRepository,
+                               @Value("${jdmatchr.insights.store-inputs:true}") boolean storeInputs) {
         this.userRepository = userRepository;
         this.insightsRepository = insightsRepository;
         this.objectMapper = objectMapper;
         this.pdfParserService = pdfParserService;
         this.promptBuilderService = promptBuilderService;
         this.analysisAiService = analysisAiService;
+        this.analysisResultCache = analysisResultCache;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.coalescingEnabled = coalescingEnabled;
+        this.persistEachCoalescedRequest = persistEachCoalescedRequest;
+        this.coalescedRequests = Counter.builder("jdmatchr.analysis.coalesced").register(meterRegistry);
+        this.batchParallelism = batchParallelism;
+        this.insightInputRepository = insightInputRepository;
+        this.storeInputs = storeInputs;
     }
 
+    /**
+     * Intentionally not @Transactional: PDF parsing and the AI call can take tens of seconds
+     * and must not hold a pooled database connection. Only the final insert runs in a transaction.
+     */
     @Override
-    @Transactional
     public InsightDetailDto analyzeDocuments(
             MultipartFile resumeFile,
             String jobTitle,
@@ -61,44 +109,313 @@ public class AnalyzerServiceImpl implements AnalyzerService {
         // ... (previous logic for resume parsing, prompt building, AI call remains the same) ...
         logger.info("analyzeDocuments service called for user ID: {}, Job Title: {}", authenticatedUser.getId(), jobTitle);
 
-        String resumeText;
-        String originalResumeFilename = "N/A";
+        String resumeText = extractResumeText(resumeFile, jobTitle);
+        String originalResumeFilename = resumeFilename(resumeFile);
 
-        if (resumeFile != null && !resumeFile.isEmpty()) {
-            originalResumeFilename = resumeFile.getOriginalFilename();
-            try {
-                logger.info("Parsing resume file: {}", originalResumeFilename);
-                resumeText = pdfParserService.parsePdf(resumeFile);
-                if (resumeText.isBlank()) {
-                    logger.warn("Extracted resume text is blank for file: {}", originalResumeFilename);
-                }
-            } catch (IOException e) {
-                logger.error("Failed to parse resume PDF '{}': {}", originalResumeFilename, e.getMessage(), e);
-                throw new RuntimeException("Error processing resume file: " + e.getMessage(), e);
-            }
-        } else {
-            logger.warn("No resume file provided for job title: {}. Proceeding without resume text.", jobTitle);
-            resumeText = "";
-        }
+        return analyzeResumeText(resumeText, originalResumeFilename, jobTitle, jobDescription, authenticatedUser);
+    }
 
+    @Override
+    public InsightDetailDto analyzeResumeText(
+            String resumeText,
+            String originalResumeFilename,
+            String jobTitle,
+            String jobDescription,
+            User authenticatedUser
+    ) {
+        // --- Compute phase: no transaction, no connection checked out ---
         logger.info("Building prompt for AI analysis. Job Title: {}, JD Length (chars): {}, Resume Text Length (chars): {}",
                 jobTitle, jobDescription.length(), resumeText.length());
-        String prompt = promptBuilderService.buildPrompt(jobTitle, jobDescription, resumeText);
+        AnalysisPrompt prompt = promptBuilderService.buildPrompt(jobTitle, jobDescription, resumeText);
+
+        logger.info("Exact prompt constructed by PromptBuilderService (to be sent to AnalysisAiService from AnalyzerServiceImpl, ~{} tokens):\n{}",
+                prompt.estimatedTokens(), prompt.userText());
+
+        String promptVersion = promptBuilderService.getPromptVersion();
+        String cacheKey = analysisResultCache.buildKey(jobTitle, prompt.jobDescription(), prompt.resumeText(), promptVersion);
+
+        AnalysisResultDto cachedResult = cachedResult(cacheKey, prompt).orElse(null);
+        if (cachedResult != null) {
+            logger.info("Reusing cached analysis for job title '{}' (key {}). Skipping AI call.", jobTitle, cacheKey);
+            return persistInsight(cachedResult, analysisResultCache.getModelName(), originalResumeFilename, jobTitle, jobDescription, resumeText, authenticatedUser);
+        }
+
+        if (coalescingEnabled && !persistEachCoalescedRequest) {
+            // Joined requests get the leader's saved insight
+            return analysesInFlight.execute(flightKey(authenticatedUser, cacheKey), () -> {
+                AnalysisAiService.ModelAnalysis modelAnalysis = callAi(prompt, jobTitle, cacheKey, promptVersion);
+                return persistInsight(modelAnalysis.result(), modelAnalysis.modelName(), originalResumeFilename, jobTitle, jobDescription, resumeText, authenticatedUser);
+            }, joinLogger(jobTitle, cacheKey));
+        }
+        AnalysisAiService.ModelAnalysis modelAnalysis = callAiCoalesced(prompt, jobTitle, cacheKey, promptVersion, authenticatedUser);
+        return persistInsight(modelAnalysis.result(), modelAnalysis.modelName(), originalResumeFilename, jobTitle, jobDescription, resumeText, authenticatedUser);
+    }
+
+    /**
+     * The cache key covers the JD and resume as prompted, which may be trimmed to the token budget, while the
+     * local scores come from the full texts. A hit therefore gets this request's own local scores.
+     */
+    private Optional<AnalysisResultDto> cachedResult(String cacheKey, AnalysisPrompt prompt) {
+        return analysisResultCache.get(cacheKey).map(prompt.localScores()::applyTo);
+    }
+
+    /**
+     * Identical concurrent requests of one user (double submits, repeated clicks) share one AI call.
+     * The cache key already covers the JD and resume as prompted, the model and the prompt version; as with
+     * cache hits, each request keeps its own local scores.
+     */
+    private AnalysisAiService.ModelAnalysis callAiCoalesced(AnalysisPrompt prompt, String jobTitle, String cacheKey,
+                                                            String promptVersion, User authenticatedUser) {
+        if (!coalescingEnabled) {
+            return callAi(prompt, jobTitle, cacheKey, promptVersion);
+        }
+        AnalysisAiService.ModelAnalysis shared = aiCallsInFlight.execute(flightKey(authenticatedUser, cacheKey),
+                () -> callAi(prompt, jobTitle, cacheKey, promptVersion), joinLogger(jobTitle, cacheKey));
+        return new AnalysisAiService.ModelAnalysis(prompt.localScores().applyTo(shared.result()), shared.modelName());
+    }
 
-        logger.info("Exact prompt constructed by PromptBuilderService (to be sent to AnalysisAiService from AnalyzerServiceImpl):\n{}", prompt);
+    private static String flightKey(User authenticatedUser, String cacheKey) {
+        return HashUtils.sha256Hex(String.valueOf(authenticatedUser.getId()), cacheKey);
+    }
+
+    private Runnable joinLogger(String jobTitle, String cacheKey) {
+        return () -> {
+            coalescedRequests.increment();
+            logger.info("Joining in-flight analysis for job title '{}' (key {}).", jobTitle, cacheKey);
+        };
+    }
 
-        AnalysisResultDto analysisResultDtoFromAi;
+    private AnalysisAiService.ModelAnalysis callAi(AnalysisPrompt prompt, String jobTitle, String cacheKey, String promptVersion) {
+        AnalysisAiService.ModelAnalysis modelAnalysis;
         try {
             logger.info("Sending prompt to AnalysisAiService for full analysis...");
-            analysisResultDtoFromAi = analysisAiService.getAnalysisFromAi(prompt);
+            modelAnalysis = analysisAiService.getAnalysisFromAi(prompt);
+        } catch (LlmCapacityExceededException e) {
+            throw e; // Passed through unwrapped so the controller can answer 503 + Retry-After
         } catch (Exception e) {
             logger.error("Failed to get analysis from AI for job title '{}': {}", jobTitle, e.getMessage(), e);
             throw new RuntimeException("AI analysis failed: " + e.getMessage(), e);
         }
+        cacheIfFromCachedModel(cacheKey, promptVersion, modelAnalysis.result(), modelAnalysis.modelName());
+
+        logger.info("AI analysis complete. Match Score from AI: {}, local ATS Score: {}",
+                modelAnalysis.result().matchScore(), modelAnalysis.result().atsScore());
+        return modelAnalysis;
+    }
+
+    @Override
+    public void analyzeBatch(
+            MultipartFile resumeFile,
+            List<JobDescriptionInput> jobDescriptions,
+            User authenticatedUser,
+            BatchAnalysisListener listener
+    ) {
+        logger.info("analyzeBatch service called for user ID: {}, {} job descriptions", authenticatedUser.getId(), jobDescriptions.size());
+        // Parsed once for every JD, while the multipart upload is still guaranteed to exist
+        String resumeText = extractResumeText(resumeFile, "batch");
+        String originalResumeFilename = resumeFilename(resumeFile);
+
+        Flux.range(0, jobDescriptions.size())
+                .flatMap(index -> Mono.fromCallable(() -> {
+                                    JobDescriptionInput input = jobDescriptions.get(index);
+                                    return analyzeWithoutSaving(resumeText, input.jobTitle(), input.jobDescription(), authenticatedUser);
+                                })
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .map(modelAnalysis -> new BatchItemOutcome(index, modelAnalysis, null))
+                                .onErrorResume(error -> Mono.just(new BatchItemOutcome(index, null, error))),
+                        batchParallelism)
+                // flatMap serializes its output, so the listener sees one callback at a time
+                .doOnNext(outcome -> {
+                    JobDescriptionInput input = jobDescriptions.get(outcome.index());
+                    if (outcome.error() != null) {
+                        logger.warn("Batch analysis of '{}' (#{}) failed: {}", input.jobTitle(), outcome.index(), outcome.error().getMessage());
+                        listener.onItemError(outcome.index(), input.jobTitle(), outcome.error());
+                    } else {
+                        listener.onResult(outcome.index(), input.jobTitle(), outcome.analysis().modelName(), outcome.analysis().result());
+                    }
+                })
+                .filter(outcome -> outcome.error() == null)
+                .sort(Comparator.comparingInt(BatchItemOutcome::index))
+                .collectList()
+                .map(outcomes -> {
+                    List<Insights> insights = new ArrayList<>(outcomes.size());
+                    List<String> savedJobDescriptions = new ArrayList<>(outcomes.size());
+                    for (BatchItemOutcome outcome : outcomes) {
+                        JobDescriptionInput input = jobDescriptions.get(outcome.index());
+                        insights.add(newInsight(outcome.analysis().result(), outcome.analysis().modelName(), originalResumeFilename,
+                                input.jobTitle(), input.jobDescription(), authenticatedUser));
+                        savedJobDescriptions.add(input.jobDescription());
+                    }
+                    // One short transaction for the whole batch; with hibernate.jdbc.batch_size the inserts are sent in JDBC batches
+                    List<Insights> saved = insights.isEmpty() ? insights : writeTransaction.execute(status -> {
+                        List<Insights> savedInsights = insightsRepository.saveAll(insights);
+                        saveInputs(savedInsights, savedJobDescriptions, resumeText);
+                        return savedInsights;
+                    });
+                    logger.info("Saved {} insights from batch analysis for user: {}", saved.size(), authenticatedUser.getId());
+                    return saved.stream().map(this::convertToDetailDto).collect(Collectors.toList());
+                })
+                .subscribe(listener::onComplete, error -> {
+                    logger.error("Batch analysis failed for user {}: {}", authenticatedUser.getId(), error.getMessage(), error);
+                    listener.onError(error);
+                });
+    }
+
+    private record BatchItemOutcome(int index, AnalysisAiService.ModelAnalysis analysis, Throwable error) {
+    }
+
+    /**
+     * Compute phase of analyzeResumeText only: cache lookup, then the (coalesced) AI call. Nothing is saved.
+     */
+    private AnalysisAiService.ModelAnalysis analyzeWithoutSaving(String resumeText, String jobTitle, String jobDescription,
+                                                                 User authenticatedUser) {
+        AnalysisPrompt prompt = promptBuilderService.buildPrompt(jobTitle, jobDescription, resumeText);
+        String promptVersion = promptBuilderService.getPromptVersion();
+        String cacheKey = analysisResultCache.buildKey(jobTitle, prompt.jobDescription(), prompt.resumeText(), promptVersion);
+
+        Optional<AnalysisResultDto> cachedResult = cachedResult(cacheKey, prompt);
+        if (cachedResult.isPresent()) {
+            logger.info("Reusing cached analysis for job title '{}' (key {}). Skipping AI call.", jobTitle, cacheKey);
+            return new AnalysisAiService.ModelAnalysis(cachedResult.get(), analysisResultCache.getModelName());
+        }
+        return callAiCoalesced(prompt, jobTitle, cacheKey, promptVersion, authenticatedUser);
+    }
+
+    @Override
+    public void streamAnalysis(
+            MultipartFile resumeFile,
+            String jobTitle,
+            String jobDescription,
+            User authenticatedUser,
+            AnalysisStreamListener listener
+    ) {
+        logger.info("streamAnalysis service called for user ID: {}, Job Title: {}", authenticatedUser.getId(), jobTitle);
+        // Parse while the multipart upload is still guaranteed to exist
+        String resumeText = extractResumeText(resumeFile, jobTitle);
+        String originalResumeFilename = resumeFilename(resumeFile);
+
+        AnalysisPrompt prompt = promptBuilderService.buildPrompt(jobTitle, jobDescription, resumeText);
+        String promptVersion = promptBuilderService.getPromptVersion();
+        String cacheKey = analysisResultCache.buildKey(jobTitle, prompt.jobDescription(), prompt.resumeText(), promptVersion);
+
+        Optional<AnalysisResultDto> cachedResult = cachedResult(cacheKey, prompt);
+        if (cachedResult.isPresent()) {
+            logger.info("Reusing cached analysis for streamed request, job title '{}' (key {}). Skipping AI call.", jobTitle, cacheKey);
+            Mono.fromCallable(() -> {
+                        objectMapper.<ObjectNode>valueToTree(cachedResult.get()).fields()
+                                .forEachRemaining(section -> listener.onSection(section.getKey(), section.getValue()));
+                        return persistInsight(cachedResult.get(), analysisResultCache.getModelName(), originalResumeFilename, jobTitle, jobDescription, resumeText, authenticatedUser);
+                    })
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .subscribe(listener::onComplete, listener::onError);
+            return;
+        }
+
+        AnalysisResultParser.Assembly assembly = analysisAiService.newResponseAssembly();
+        Set<String> emittedSections = new HashSet<>(LocalScores.SECTIONS);
+        AnalysisAiService.ModelAnalysisStream analysisStream = analysisAiService.streamAnalysisFromAi(prompt);
+        // The locally computed sections are ready before the model has produced anything
+        Mono.fromRunnable(() -> emitLocalSections(prompt.localScores(), listener))
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenMany(analysisStream.chunks())
+                // Off the HTTP client's event loop: listener callbacks and the final insert may block
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(chunk -> {
+                    for (AnalysisResultParser.Section section : assembly.feed(chunk)) {
+                        if (emittedSections.add(section.name())) {
+                            listener.onSection(section.name(), section.value());
+                        }
+                    }
+                })
+                .then(Mono.fromCallable(() -> {
+                    AnalysisResultDto result = analysisAiService.completeStreamedAnalysis(prompt, assembly, analysisStream.modelName());
+                    // Sections that were repaired or requested separately after the stream ended
+                    objectMapper.<ObjectNode>valueToTree(result).fields().forEachRemaining(section -> {
+                        if (!section.getValue().isNull() && emittedSections.add(section.getKey())) {
+                            listener.onSection(section.getKey(), section.getValue());
+                        }
+                    });
+                    cacheIfFromCachedModel(cacheKey, promptVersion, result, analysisStream.modelName());
+                    return persistInsight(result, analysisStream.modelName(), originalResumeFilename, jobTitle, jobDescription, resumeText, authenticatedUser);
+                }))
+                .subscribe(listener::onComplete, error -> {
+                    logger.error("Streamed analysis failed for job title '{}': {}", jobTitle, error.getMessage(), error);
+                    listener.onError(error);
+                });
+    }
+
+    /**
+     * The cache key names one model, so a result from a fallback model is not stored under it.
+     */
+    private void cacheIfFromCachedModel(String cacheKey, String promptVersion, AnalysisResultDto result, String modelName) {
+        if (analysisResultCache.getModelName().equals(modelName)) {
+            analysisResultCache.put(cacheKey, promptVersion, result);
+        } else {
+            logger.info("Not caching analysis from fallback model {} (cache holds {}).", modelName, analysisResultCache.getModelName());
+        }
+    }
+
+    private void emitLocalSections(LocalScores localScores, AnalysisStreamListener listener) {
+        listener.onSection("atsScore", objectMapper.valueToTree(localScores.atsScore()));
+        listener.onSection("keywordAnalysis", objectMapper.valueToTree(localScores.keywordAnalysis()));
+    }
+
+    private String extractResumeText(MultipartFile resumeFile, String jobTitle) {
+        if (resumeFile == null || resumeFile.isEmpty()) {
+            logger.warn("No resume file provided for job title: {}. Proceeding without resume text.", jobTitle);
+            return "";
+        }
+        String originalResumeFilename = resumeFile.getOriginalFilename();
+        try {
+            logger.info("Parsing resume file: {}", originalResumeFilename);
+            String resumeText = pdfParserService.parsePdf(resumeFile);
+            if (resumeText.isBlank()) {
+                logger.warn("Extracted resume text is blank for file: {}", originalResumeFilename);
+            }
+            return resumeText;
+        } catch (IOException e) {
+            logger.error("Failed to parse resume PDF '{}': {}", originalResumeFilename, e.getMessage(), e);
+            throw new RuntimeException("Error processing resume file: " + e.getMessage(), e);
+        }
+    }
+
+    private static String resumeFilename(MultipartFile resumeFile) {
+        return resumeFile != null && !resumeFile.isEmpty() ? resumeFile.getOriginalFilename() : "N/A";
+    }
+
+    /**
+     * Write phase: a short transaction that only inserts the Insights row.
+     */
+    private InsightDetailDto persistInsight(AnalysisResultDto analysisResultDtoFromAi, String modelName, String originalResumeFilename,
+                                            String jobTitle, String jobDescription, String resumeText, User authenticatedUser) {
+        Insights newInsight = newInsight(analysisResultDtoFromAi, modelName, originalResumeFilename, jobTitle, jobDescription, authenticatedUser);
 
-        logger.info("AI analysis complete. Match Score from AI: {}, ATS Score from AI: {}",
-                analysisResultDtoFromAi.matchScore(), analysisResultDtoFromAi.atsScore());
+        Insights savedInsight = writeTransaction.execute(status -> {
+            Insights saved = insightsRepository.save(newInsight);
+            saveInputs(List.of(saved), List.of(jobDescription), resumeText);
+            return saved;
+        });
+        logger.info("Saved new insight with ID: {} for user: {}", savedInsight.getId(), authenticatedUser.getId());
 
+        return convertToDetailDto(savedInsight);
+    }
+
+    /**
+     * Keeps the full JD and resume text next to each insight (same transaction) so it can be re-analyzed later.
+     */
+    private void saveInputs(List<Insights> savedInsights, List<String> jobDescriptions, String resumeText) {
+        if (!storeInputs) {
+            return;
+        }
+        List<InsightInput> inputs = new ArrayList<>(savedInsights.size());
+        for (int i = 0; i < savedInsights.size(); i++) {
+            inputs.add(new InsightInput(savedInsights.get(i).getId(), jobDescriptions.get(i), resumeText));
+        }
+        insightInputRepository.saveAll(inputs);
+    }
+
+    private Insights newInsight(AnalysisResultDto analysisResultDtoFromAi, String modelName, String originalResumeFilename,
+                                String jobTitle, String jobDescription, User authenticatedUser) {
         Map<String, Object> analysisResultMapToStore = objectMapper.convertValue(analysisResultDtoFromAi, new TypeReference<Map<String, Object>>() {});
 
         Insights newInsight = new Insights();
@@ -110,11 +427,8 @@ public class AnalyzerServiceImpl implements AnalyzerService {
         newInsight.setMatchScore(analysisResultDtoFromAi.matchScore() != null ? analysisResultDtoFromAi.matchScore().doubleValue() : null);
         newInsight.setAtsScore(analysisResultDtoFromAi.atsScore());
         newInsight.setAnalysisResult(analysisResultMapToStore);
-
-        Insights savedInsight = insightsRepository.save(newInsight);
-        logger.info("Saved new insight with ID: {} for user: {}", savedInsight.getId(), authenticatedUser.getEmail());
-
-        return convertToDetailDto(savedInsight);
+        newInsight.setModelName(modelName);
+        return newInsight;
     }
 
     private InsightDetailDto convertToDetailDto(Insights insight) {
@@ -137,69 +451,40 @@ public class AnalyzerServiceImpl implements AnalyzerService {
                 insight.getJobTitle(),
                 insight.getResumeFilename(),
                 insight.getCreatedAt(), // RE-ADDED for InsightDetailDto constructor
+                insight.getModelName(),
                 analysisResultForDetailDto
         );
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<InsightSummaryDto> getInsightsHistoryForUser(User user) {
-        // This method remains unchanged from the previous version,
-        // as InsightSummaryDto was not part of this specific change request
-        // and already includes createdAt, matchScore, and atsScore.
-        logger.debug("Fetching insights history for user ID: {}", user.getId());
-        List<Insights> insightsList = insightsRepository.findByUserOrderByCreatedAtDesc(user);
-        return insightsList.stream()
-                .map(insight -> {
-                    Integer matchScore = null;
-                    Integer atsScore = null;
-                    if (insight.getAnalysisResult() != null) {
-                        try {
-                            Map<String, Object> analysisMap = insight.getAnalysisResult();
-                            Object matchScoreObj = analysisMap.get("matchScore");
-                            Object atsScoreObj = analysisMap.get("atsScore");
-                            if (matchScoreObj instanceof Number) {
-                                matchScore = ((Number) matchScoreObj).intValue();
-                            }
-                            if (atsScoreObj instanceof Number) {
-                                atsScore = ((Number) atsScoreObj).intValue();
-                            }
-                        } catch (Exception e) {
-                            logger.warn("Could not extract scores from analysisResult map for summary of insight ID {}", insight.getId());
-                        }
-                    }
-                    if (matchScore == null && insight.getMatchScore() != null) {
-                        matchScore = insight.getMatchScore().intValue();
-                    }
-                    if (atsScore == null && insight.getAtsScore() != null) {
-                        atsScore = insight.getAtsScore();
-                    }
-
-                    return new InsightSummaryDto(
-                            insight.getId(),
-                            insight.getJobTitle(),
-                            insight.getCreatedAt(),
-                            matchScore,
-                            atsScore,
-                            insight.getResumeFilename()
-                    );
-                })
-                .collect(Collectors.toList());
+    public InsightHistoryPageDto getInsightsHistoryForUser(UUID userId, InsightHistoryFilter filter, String cursor, int pageSize) {
+        logger.debug("Fetching insights history page for user ID: {} (cursor: {}, size: {})", userId, cursor, pageSize);
+        InsightCursor after = cursor != null && !cursor.isBlank() ? InsightCursor.decode(cursor) : null;
+        // One extra row tells whether there is a next page without a count query.
+        // Scores come from the match_score/ats_score columns, which are written together with analysis_result
+        List<InsightSummaryDto> rows = insightsRepository.findSummaryPage(userId, filter, after, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new InsightHistoryPageDto(rows, null, false);
+        }
+        List<InsightSummaryDto> page = rows.subList(0, pageSize);
+        InsightSummaryDto last = page.get(pageSize - 1);
+        return new InsightHistoryPageDto(List.copyOf(page), new InsightCursor(last.analysisDate(), last.id()).encode(), true);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Optional<InsightDetailDto> getLatestInsightForUser(User user) {
-        logger.debug("Fetching latest insight for user ID: {}", user.getId());
-        return insightsRepository.findTopByUserOrderByCreatedAtDesc(user)
+    public Optional<InsightDetailDto> getLatestInsightForUser(UUID userId) {
+        logger.debug("Fetching latest insight for user ID: {}", userId);
+        return insightsRepository.findTopByUserIdOrderByCreatedAtDesc(userId)
                 .map(this::convertToDetailDto);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Optional<InsightDetailDto> getInsightByIdAndUser(UUID insightId, User user) {
-        logger.debug("Fetching insight by ID: {} for user ID: {}", insightId, user.getId());
-        return insightsRepository.findByIdAndUser(insightId, user)
+    public Optional<InsightDetailDto> getInsightByIdAndUser(UUID insightId, UUID userId) {
+        logger.debug("Fetching insight by ID: {} for user ID: {}", insightId, userId);
+        return insightsRepository.findByIdAndUserId(insightId, userId)
                 .map(this::convertToDetailDto);
     }
 
@@ -0,0 +1,34 @@
+// src/main/java/com/jdmatchr/core/service/BatchAnalysisListener.java
+package com.jdmatchr.core.service;
+
+import com.jdmatchr.core.dto.AnalysisResultDto;
+import com.jdmatchr.core.dto.InsightDetailDto;
+
+import java.util.List;
+
+/**
+ * Receives the progress of a batch analysis (one resume, many job descriptions). Callbacks arrive on worker
+ * threads, one at a time, and implementations must not throw.
+ */
+public interface BatchAnalysisListener {
+
+    /**
+     * The analysis of the job description at index is done (in completion order, not request order).
+     */
+    void onResult(int index, String jobTitle, String modelName, AnalysisResultDto result);
+
+    /**
+     * The analysis of the job description at index failed; the other job descriptions carry on.
+     */
+    void onItemError(int index, String jobTitle, Throwable error);
+
+    /**
+     * Every job description has been processed and the successful ones were saved together, in request order.
+     */
+    void onComplete(List<InsightDetailDto> insights);
+
+    /**
+     * The batch failed as a whole (e.g. the insert); nothing was saved.
+     */
+    void onError(Throwable error);
+}
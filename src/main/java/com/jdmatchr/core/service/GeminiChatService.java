@@ -1,17 +1,28 @@
 package com.jdmatchr.core.service;
 
+import com.jdmatchr.core.exception.LlmCapacityExceededException;
 import org.springframework.ai.chat.client.ChatClient; // Main import for the fluent ChatClient
-// No need to import ChatResponse, Prompt, Generation, or Message directly if only using call().content()
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class GeminiChatService {
 
     private static final Logger logger = LoggerFactory.getLogger(GeminiChatService.class);
 
+    private static final String USAGE_OPERATION = "gemini-chat";
+    // Chunks requested from the upstream stream at a time; the SSE writer pulls from this buffer
+    private static final int STREAM_PREFETCH = 32;
+
     private final ChatClient chatClient; // The configured ChatClient instance
+    private final AiUsageRecorder aiUsageRecorder;
+    private final ResilientLlmClient resilientLlmClient;
 
     /**
      * Constructor to inject the Spring-configured ChatClient.Builder.
@@ -19,7 +30,8 @@ public class GeminiChatService {
      * Spring AI auto-configures the builder with the appropriate ChatModel
      * (VertexAiGeminiChatClient in this case) based on your dependencies and properties.
      */
-    public GeminiChatService(ChatClient.Builder chatClientBuilder) {
+    public GeminiChatService(ChatClient.Builder chatClientBuilder, AiUsageRecorder aiUsageRecorder,
+                             ResilientLlmClient resilientLlmClient) {
         // You can customize the ChatClient here if needed, e.g., add default options
         // For Vertex AI Gemini, options can be set via properties or programmatically:
         // import org.springframework.ai.vertexai.gemini.VertexAiGeminiChatOptions;
@@ -30,21 +42,24 @@ public class GeminiChatService {
         // .build())
         // .build();
         this.chatClient = chatClientBuilder.build(); // Builds the client with defaults from properties
+        this.aiUsageRecorder = aiUsageRecorder;
+        this.resilientLlmClient = resilientLlmClient;
     }
 
     /**
      * Gets a chat response from Gemini using the fluent ChatClient API.
      * @param userPrompt The prompt from the user.
      * @return The AI's response message as a String.
+     * @throws LlmCapacityExceededException If the call could not be admitted; callers answer 503.
      */
     public String getChatResponse(String userPrompt) {
         logger.info("Sending prompt to Gemini: '{}'", userPrompt);
         try {
             // Use the injected and pre-built chatClient instance
-            String aiMessage = this.chatClient.prompt() // Starts defining the request
+            String aiMessage = resilientLlmClient.call(USAGE_OPERATION, () -> this.chatClient.prompt() // Starts defining the request
                     .user(userPrompt) // Adds the user's message/prompt
                     .call() // Executes the call to the AI model
-                    .content(); // Directly extracts the String content from the response
+                    .content()); // Directly extracts the String content from the response
 
             // If you needed the full ChatResponse object for more details (e.g., metadata, multiple results):
             // import org.springframework.ai.chat.model.ChatResponse;
@@ -55,10 +70,41 @@ public class GeminiChatService {
 
             logger.info("Received response from Gemini: '{}'", aiMessage);
             return aiMessage;
+        } catch (LlmCapacityExceededException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error calling Gemini API: {}", e.getMessage(), e);
             // Consider throwing a custom application-specific exception
             return "Error: Could not get response from AI service.";
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Streams a chat response from Gemini as it is generated.
+     * Demand is bounded: at most STREAM_PREFETCH chunks are requested ahead of the subscriber. Cancelling
+     * the subscription (e.g. because the client disconnected) aborts the upstream HTTP request, so the
+     * provider stops generating tokens nobody will read. Token usage arrives on the last response.
+     * The stream holds an admission slot while it runs and fails with LlmCapacityExceededException if it
+     * could not get one.
+     * @param userPrompt The prompt from the user.
+     * @return The streamed chat responses.
+     */
+    public Flux<ChatResponse> streamChatResponse(String userPrompt) {
+        logger.info("Streaming prompt to Gemini: '{}'", userPrompt);
+        AtomicReference<Usage> finalUsage = new AtomicReference<>();
+        return resilientLlmClient.stream(USAGE_OPERATION, () -> this.chatClient.prompt()
+                        .user(userPrompt)
+                        .stream()
+                        .chatResponse())
+                .limitRate(STREAM_PREFETCH)
+                .doOnNext(response -> {
+                    Usage usage = response.getMetadata() != null ? response.getMetadata().getUsage() : null;
+                    if (AiUsageRecorder.isReported(usage)) {
+                        finalUsage.set(usage);
+                    }
+                })
+                .doOnComplete(() -> aiUsageRecorder.record(USAGE_OPERATION, finalUsage.get()))
+                .doOnCancel(() -> logger.info("Gemini stream cancelled by the client; upstream request aborted."))
+                .doOnError(e -> logger.error("Error streaming from Gemini API: {}", e.getMessage(), e));
+    }
+}
@@ -0,0 +1,161 @@
+// src/main/java/com/jdmatchr/core/service/KeywordScorer.java
+package com.jdmatchr.core.service;
+
+import com.jdmatchr.core.util.AhoCorasickMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Computes the keyword analysis and the ATS score locally, so the model only has to produce the
+ * qualitative sections.
+ *
+ * Skills come from a dictionary (canonical name plus aliases per line) and are found in the JD and the
+ * resume with one Aho-Corasick pass each. A JD skill's weight is how often the JD mentions it, capped at
+ * MAX_TERM_WEIGHT so one repeated buzzword does not dominate.
+ * <ul>
+ *   <li>keywordDensityScore: 70% weighted coverage of the JD skills, 30% how densely the resume mentions the
+ *       matched ones (TARGET_MENTIONS_PER_100_WORDS or more counts as full).</li>
+ *   <li>atsScore: 60% weighted coverage, 25% standard sections an ATS looks for (experience, education,
+ *       skills, contact details), 15% resume length. With no dictionary skill in the JD, only the
+ *       structural parts count.</li>
+ * </ul>
+ */
+@Component
+public class KeywordScorer {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeywordScorer.class);
+
+    private static final int MAX_TERM_WEIGHT = 3;
+    private static final double TARGET_MENTIONS_PER_100_WORDS = 3.0;
+    private static final int MIN_WORDS = 250;
+    private static final int MAX_WORDS = 1200;
+
+    private static final List<Pattern> RESUME_SECTIONS = List.of(
+            Pattern.compile("\\b(experience|employment|work history)\\b", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("\\b(education|degree|university|college)\\b", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("\\b(skills|technologies|tech stack)\\b", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("[\\w.+-]+@[\\w-]+\\.[\\w.]+|\\+?\\d[\\d ()-]{7,}\\d"));
+    private static final Pattern WORD = Pattern.compile("\\S+");
+
+    private final List<String> canonicalNames = new ArrayList<>();
+    private final int[] patternToSkill;
+    private final AhoCorasickMatcher matcher;
+    private final int maxKeywords;
+
+    @Autowired
+    public KeywordScorer(ResourceLoader resourceLoader,
+                         @Value("${jdmatchr.scoring.skills-dictionary:classpath:skills-dictionary.txt}") String dictionaryLocation,
+                         @Value("${jdmatchr.scoring.max-keywords:10}") int maxKeywords) {
+        this(readLines(resourceLoader.getResource(dictionaryLocation)), maxKeywords);
+        logger.info("Loaded {} skills from {}.", canonicalNames.size(), dictionaryLocation);
+    }
+
+    KeywordScorer(List<String> dictionaryLines, int maxKeywords) {
+        List<String> patterns = new ArrayList<>();
+        List<Integer> skills = new ArrayList<>();
+        for (String line : dictionaryLines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] names = trimmed.split("\\|");
+            int skill = canonicalNames.size();
+            canonicalNames.add(names[0].trim());
+            for (String name : names) {
+                patterns.add(name.trim());
+                skills.add(skill);
+            }
+        }
+        this.patternToSkill = skills.stream().mapToInt(Integer::intValue).toArray();
+        this.matcher = new AhoCorasickMatcher(patterns);
+        this.maxKeywords = maxKeywords;
+    }
+
+    public LocalScores score(String jobDescription, String resumeText) {
+        int[] jdMentions = skillCounts(jobDescription);
+        int[] resumeMentions = skillCounts(resumeText);
+
+        List<Integer> jdSkills = new ArrayList<>();
+        for (int skill = 0; skill < jdMentions.length; skill++) {
+            if (jdMentions[skill] > 0) {
+                jdSkills.add(skill);
+            }
+        }
+        // Most emphasized first; dictionary order breaks ties so the result is stable
+        jdSkills.sort(Comparator.<Integer>comparingInt(skill -> -jdMentions[skill]).thenComparingInt(skill -> skill));
+
+        List<String> matched = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        int totalWeight = 0;
+        int matchedWeight = 0;
+        int matchedMentions = 0;
+        for (int skill : jdSkills) {
+            int weight = Math.min(jdMentions[skill], MAX_TERM_WEIGHT);
+            totalWeight += weight;
+            if (resumeMentions[skill] > 0) {
+                matchedWeight += weight;
+                matchedMentions += resumeMentions[skill];
+                matched.add(canonicalNames.get(skill));
+            } else {
+                missing.add(canonicalNames.get(skill));
+            }
+        }
+
+        int words = countWords(resumeText);
+        double coverage = totalWeight == 0 ? 0 : (double) matchedWeight / totalWeight;
+        double density = words == 0 ? 0 : Math.min(1.0, matchedMentions * 100.0 / words / TARGET_MENTIONS_PER_100_WORDS);
+        double sections = RESUME_SECTIONS.stream().filter(p -> resumeText != null && p.matcher(resumeText).find()).count()
+                / (double) RESUME_SECTIONS.size();
+        double length = words < MIN_WORDS ? (double) words / MIN_WORDS : words > MAX_WORDS ? Math.max(0.5, (double) MAX_WORDS / words) : 1.0;
+
+        int keywordDensityScore = totalWeight == 0 ? 0 : (int) Math.round(100 * (0.7 * coverage + 0.3 * density));
+        int atsScore = (int) Math.round(100 * (totalWeight == 0
+                ? (0.25 * sections + 0.15 * length) / 0.4
+                : 0.6 * coverage + 0.25 * sections + 0.15 * length));
+
+        logger.info("Local scores: {} JD skills ({} matched), keyword density score {}, ATS score {}.",
+                jdSkills.size(), matched.size(), keywordDensityScore, atsScore);
+        return new LocalScores(
+                List.copyOf(matched.subList(0, Math.min(maxKeywords, matched.size()))),
+                List.copyOf(missing.subList(0, Math.min(maxKeywords, missing.size()))),
+                keywordDensityScore,
+                atsScore);
+    }
+
+    /**
+     * Mentions per skill; aliases of one skill add up.
+     */
+    private int[] skillCounts(String text) {
+        int[] counts = new int[canonicalNames.size()];
+        int[] patternCounts = matcher.countAll(text);
+        for (int pattern = 0; pattern < patternCounts.length; pattern++) {
+            counts[patternToSkill[pattern]] += patternCounts[pattern];
+        }
+        return counts;
+    }
+
+    private static int countWords(String text) {
+        return text == null ? 0 : (int) WORD.matcher(text).results().count();
+    }
+
+    private static List<String> readLines(Resource resource) {
+        try {
+            return resource.getContentAsString(StandardCharsets.UTF_8).lines().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read skills dictionary " + resource.getDescription(), e);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+// src/main/java/com/jdmatchr/core/service/LlmAdmissionLimiter.java
+package com.jdmatchr.core.service;
+
+import com.jdmatchr.core.exception.LlmCapacityExceededException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Per-node admission control for outbound LLM requests. ResilientLlmClient takes a slot for every request it
+ * sends (each retry, fallback and hedge), so a slot is only held while a request is actually in flight.
+ *
+ * At most the current limit of calls are in flight; further callers wait in a FIFO queue of bounded size for
+ * at most max-wait. A caller that finds the queue full, or whose wait runs out, gets an
+ * LlmCapacityExceededException right away (503 + Retry-After) instead of adding to a provider 429 storm.
+ *
+ * In adaptive mode the limit follows AIMD: every successful call below the latency target adds 1/limit
+ * (about +1 per window of calls), and a 429 or a call slower than the target multiplies it by 0.7, at most
+ * once per second, never below min-concurrency nor above max-concurrency.
+ *
+ * Meters: jdmatchr.llm.admission.in_flight, .queue.depth and .limit (gauges), and
+ * jdmatchr.llm.admission.wait{operation, outcome=admitted|queue_full|timeout} (timer).
+ */
+@Component
+public class LlmAdmissionLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmAdmissionLimiter.class);
+    private static final String METRIC_PREFIX = "jdmatchr.llm.admission";
+    private static final double DECREASE_FACTOR = 0.7;
+    private static final long DECREASE_COOLDOWN_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxConcurrency;
+    private final int maxQueue;
+    private final Duration maxWait;
+    private final Duration retryAfter;
+    private final boolean adaptive;
+    private final int minConcurrency;
+    private final long latencyTargetNanos;
+    private final LongSupplier nanoClock;
+
+    // Not synchronized: callers may be virtual threads, which must not pin their carrier while queued
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    // Written under the lock, volatile for the gauges
+    private volatile int inFlight;
+    private volatile int waiting;
+    private volatile double limit;
+    private long lastDecreaseNanos;
+
+    @Autowired
+    public LlmAdmissionLimiter(MeterRegistry meterRegistry,
+                               @Value("${jdmatchr.llm.admission.max-concurrency:8}") int maxConcurrency,
+                               @Value("${jdmatchr.llm.admission.max-queue:32}") int maxQueue,
+                               @Value("${jdmatchr.llm.admission.max-wait:PT20S}") Duration maxWait,
+                               @Value("${jdmatchr.llm.admission.retry-after:PT10S}") Duration retryAfter,
+                               @Value("${jdmatchr.llm.admission.adaptive.enabled:false}") boolean adaptive,
+                               @Value("${jdmatchr.llm.admission.adaptive.min-concurrency:2}") int minConcurrency,
+                               @Value("${jdmatchr.llm.admission.adaptive.latency-target:PT20S}") Duration latencyTarget) {
+        this(meterRegistry, maxConcurrency, maxQueue, maxWait, retryAfter, adaptive, minConcurrency, latencyTarget, System::nanoTime);
+    }
+
+    LlmAdmissionLimiter(MeterRegistry meterRegistry, int maxConcurrency, int maxQueue, Duration maxWait, Duration retryAfter,
+                        boolean adaptive, int minConcurrency, Duration latencyTarget, LongSupplier nanoClock) {
+        if (maxConcurrency < 1 || maxQueue < 0 || minConcurrency < 1 || minConcurrency > maxConcurrency) {
+            throw new IllegalArgumentException("jdmatchr.llm.admission: need 1 <= min-concurrency <= max-concurrency and max-queue >= 0");
+        }
+        this.meterRegistry = meterRegistry;
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueue = maxQueue;
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+        this.adaptive = adaptive;
+        this.minConcurrency = minConcurrency;
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.nanoClock = nanoClock;
+        this.limit = maxConcurrency;
+        this.lastDecreaseNanos = nanoClock.getAsLong() - DECREASE_COOLDOWN_NANOS;
+
+        Gauge.builder(METRIC_PREFIX + ".in_flight", this, LlmAdmissionLimiter::getInFlight).register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue.depth", this, LlmAdmissionLimiter::getQueueDepth).register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".limit", this, LlmAdmissionLimiter::getLimit).register(meterRegistry);
+    }
+
+    /**
+     * Holds a slot for the lifetime of a streamed LLM call. The slot is taken when the Flux is subscribed
+     * (waiting on the subscribing thread if needed) and given back on completion, error or cancellation.
+     * For the adaptive limit, the latency of a stream is the time to its first element.
+     * @param operation Short, low-cardinality name of the call site (e.g. "gemini-chat").
+     * @param stream Creates the upstream Flux; only invoked once a slot is held.
+     * @return The admitted stream; it fails with LlmCapacityExceededException if no slot became free in time.
+     */
+    public <T> Flux<T> stream(String operation, Supplier<Flux<T>> stream) {
+        return Flux.usingWhen(
+                Mono.fromCallable(() -> acquire(operation)),
+                permit -> stream.get().doOnNext(element -> permit.firstResponse()),
+                permit -> Mono.fromRunnable(permit::succeeded),
+                (permit, error) -> Mono.fromRunnable(() -> permit.failed(error)),
+                permit -> Mono.fromRunnable(permit::abandoned));
+    }
+
+    /**
+     * Takes a slot, waiting in the queue if all of them are in use. The returned permit must be given back
+     * exactly once through succeeded, failed or abandoned (further calls are ignored).
+     * @throws LlmCapacityExceededException If the queue is full or max-wait passed without a free slot.
+     */
+    public Permit acquire(String operation) {
+        long start = nanoClock.getAsLong();
+        lock.lock();
+        try {
+            // Newcomers do not overtake callers that are already queued
+            if (waiting == 0 && inFlight < currentLimit()) {
+                inFlight++;
+                return admitted(operation, start);
+            }
+            if (waiting >= maxQueue) {
+                throw rejected(operation, start, "queue_full",
+                        "Too many AI requests are in progress. Please try again shortly.");
+            }
+            waiting++;
+            try {
+                long remaining = maxWait.toNanos();
+                while (inFlight >= currentLimit()) {
+                    if (remaining <= 0) {
+                        throw rejected(operation, start, "timeout",
+                                "Timed out waiting for AI capacity. Please try again shortly.");
+                    }
+                    remaining = slotFreed.awaitNanos(remaining);
+                }
+                inFlight++;
+                return admitted(operation, start);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for AI capacity", e);
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a slot only if one is free right now and nobody is queued for it; never waits.
+     * @return The permit, or empty if the call would have had to wait.
+     */
+    public Optional<Permit> tryAcquire(String operation) {
+        long start = nanoClock.getAsLong();
+        lock.lock();
+        try {
+            if (waiting > 0 || inFlight >= currentLimit()) {
+                return Optional.empty();
+            }
+            inFlight++;
+            return Optional.of(admitted(operation, start));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getQueueDepth() {
+        return waiting;
+    }
+
+    public int getLimit() {
+        return currentLimit();
+    }
+
+    /**
+     * @return How long callers are told to wait before retrying when capacity is exhausted.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    private int currentLimit() {
+        return adaptive ? (int) limit : maxConcurrency;
+    }
+
+    private Permit admitted(String operation, long start) {
+        long now = nanoClock.getAsLong();
+        waitTimer(operation, "admitted").record(now - start, TimeUnit.NANOSECONDS);
+        return new Permit(now);
+    }
+
+    private LlmCapacityExceededException rejected(String operation, long start, String outcome, String message) {
+        waitTimer(operation, outcome).record(nanoClock.getAsLong() - start, TimeUnit.NANOSECONDS);
+        logger.warn("Rejected LLM call [{}] ({}): {} in flight, {} queued, limit {}.", operation, outcome, inFlight, waiting, currentLimit());
+        return new LlmCapacityExceededException(message, retryAfter);
+    }
+
+    private Timer waitTimer(String operation, String outcome) {
+        return Timer.builder(METRIC_PREFIX + ".wait")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void release(Long latencyNanos, boolean throttled) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (adaptive) {
+                adjustLimit(latencyNanos, throttled);
+            }
+            // Wake everyone when the limit went up, otherwise one freed slot serves one waiter
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adjustLimit(Long latencyNanos, boolean throttled) {
+        if (throttled || (latencyNanos != null && latencyNanos > latencyTargetNanos)) {
+            long now = nanoClock.getAsLong();
+            if (now - lastDecreaseNanos >= DECREASE_COOLDOWN_NANOS) {
+                double previous = limit;
+                limit = Math.max(minConcurrency, limit * DECREASE_FACTOR);
+                lastDecreaseNanos = now;
+                logger.info("LLM concurrency limit lowered from {} to {} ({}).", (int) previous, (int) limit,
+                        throttled ? "provider throttling" : "latency above target");
+            }
+        } else if (latencyNanos != null) {
+            limit = Math.min(maxConcurrency, limit + 1.0 / limit);
+        }
+    }
+
+    /**
+     * One admitted call. Only the first of succeeded, failed and abandoned takes effect.
+     */
+    public final class Permit {
+
+        private final long admittedAtNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile long firstResponseNanos;
+
+        private Permit(long admittedAtNanos) {
+            this.admittedAtNanos = admittedAtNanos;
+        }
+
+        /** Marks the arrival of the first streamed element; stream latency is measured up to here. */
+        void firstResponse() {
+            if (firstResponseNanos == 0) {
+                firstResponseNanos = nanoClock.getAsLong();
+            }
+        }
+
+        public void succeeded() {
+            if (released.compareAndSet(false, true)) {
+                long end = firstResponseNanos != 0 ? firstResponseNanos : nanoClock.getAsLong();
+                release(end - admittedAtNanos, false);
+            }
+        }
+
+        public void failed(Throwable error) {
+            if (released.compareAndSet(false, true)) {
+                // Only throttling feeds the adaptive limit; other failures say nothing about capacity
+                release(null, LlmErrors.isThrottled(error));
+            }
+        }
+
+        /** Gives the slot back without any signal for the adaptive limit (e.g. the client went away). */
+        public void abandoned() {
+            if (released.compareAndSet(false, true)) {
+                release(null, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+// src/main/java/com/jdmatchr/core/service/LlmCircuitBreaker.java
+package com.jdmatchr.core.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker for the LLM provider.
+ *
+ * CLOSED: calls pass; the outcomes of the last windowSize calls are kept. Once at least minimumCalls are
+ * recorded and the share of transient failures reaches failureRateThreshold, the breaker OPENs.
+ * OPEN: calls are refused without touching the network until openDuration has passed.
+ * HALF_OPEN: a single trial call is let through; success closes the breaker, failure opens it again.
+ */
+class LlmCircuitBreaker {
+
+    // Ordinal order is the value of the jdmatchr.llm.circuit.state gauge
+    enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmCircuitBreaker.class);
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Ring buffer of the last windowSize outcomes (true = failure)
+    private final boolean[] outcomes;
+    private int recorded;
+    private int next;
+    private int failures;
+    private volatile State state = State.CLOSED;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+
+    LlmCircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration openDuration, LongSupplier nanoClock) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("Circuit breaker needs 1 <= minimum-calls <= window-size and 0 < failure-rate-threshold <= 1");
+        }
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+        this.outcomes = new boolean[windowSize];
+    }
+
+    /**
+     * @return True if a call may go out now. In HALF_OPEN only the first caller gets true.
+     */
+    boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN && nanoClock.getAsLong() - openedAtNanos >= openDurationNanos) {
+                state = State.HALF_OPEN;
+                trialInFlight = false;
+                logger.info("LLM circuit breaker half-open: letting a trial call through.");
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+            }
+            return state == State.CLOSED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onSuccess() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                logger.info("LLM circuit breaker closed: trial call succeeded.");
+                reset(State.CLOSED);
+            } else {
+                record(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onFailure() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                open("trial call failed");
+                return;
+            }
+            record(true);
+            if (state == State.CLOSED && recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+                open(failures + " of the last " + recorded + " calls failed");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A call that went out but says nothing about provider health (e.g. a 400). Frees the half-open trial.
+     */
+    void onIgnored() {
+        lock.lock();
+        try {
+            trialInFlight = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    State getState() {
+        return state;
+    }
+
+    /**
+     * @return How long the breaker stays open from now (zero unless OPEN).
+     */
+    Duration remainingOpenTime() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(0, openDurationNanos - (nanoClock.getAsLong() - openedAtNanos)));
+    }
+
+    private void record(boolean failure) {
+        if (recorded == windowSize && outcomes[next]) {
+            failures--;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % windowSize;
+        recorded = Math.min(recorded + 1, windowSize);
+    }
+
+    private void open(String reason) {
+        reset(State.OPEN);
+        openedAtNanos = nanoClock.getAsLong();
+        logger.warn("LLM circuit breaker opened for {} ms: {}.", openDurationNanos / 1_000_000, reason);
+    }
+
+    private void reset(State newState) {
+        state = newState;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        trialInFlight = false;
+    }
+}
@@ -0,0 +1,67 @@
+// src/main/java/com/jdmatchr/core/service/LlmErrors.java
+package com.jdmatchr.core.service;
+
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Classifies failures of LLM calls, however deeply Spring AI, RestClient or WebClient wrapped them.
+ */
+final class LlmErrors {
+
+    private LlmErrors() {
+    }
+
+    /**
+     * @return The HTTP status of the provider response behind the failure, or -1 if there was none.
+     */
+    static int statusCode(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof WebClientResponseException e) {
+                return e.getStatusCode().value();
+            }
+            if (t instanceof RestClientResponseException e) {
+                return e.getStatusCode().value();
+            }
+            // Spring AI's response error handler reports "<status> - <body>"
+            String message = t.getMessage();
+            if (message != null && message.length() >= 5 && message.startsWith(" - ", 3)
+                    && Character.isDigit(message.charAt(0)) && Character.isDigit(message.charAt(1)) && Character.isDigit(message.charAt(2))) {
+                return Integer.parseInt(message.substring(0, 3));
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return True if the provider rate limited the call (HTTP 429).
+     */
+    static boolean isThrottled(Throwable error) {
+        return statusCode(error) == 429;
+    }
+
+    /**
+     * Transient failures are worth another attempt and count against the circuit breaker: timeouts,
+     * connection problems, 408, 429 and 5xx. Other 4xx responses (bad request, auth) are the caller's
+     * problem and fail immediately.
+     */
+    static boolean isTransient(Throwable error) {
+        int status = statusCode(error);
+        if (status > 0) {
+            return status == 408 || status == 429 || status >= 500;
+        }
+        for (Throwable t = error; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof TimeoutException || t instanceof IOException || t instanceof ResourceAccessException
+                    || t instanceof WebClientRequestException || t instanceof TransientAiException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,43 @@
+// src/main/java/com/jdmatchr/core/service/LocalScores.java
+package com.jdmatchr.core.service;
+
+import com.jdmatchr.core.dto.AnalysisResultDto;
+import com.jdmatchr.core.dto.KeywordAnalysisDto;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The deterministic part of an analysis, computed by KeywordScorer before the prompt is sent.
+ *
+ * @param matchedKeywords JD skills found in the resume, most emphasized first.
+ * @param missingKeywords JD skills not found in the resume, most emphasized first.
+ * @param keywordDensityScore 0-100, see KeywordScorer.
+ * @param atsScore 0-100, see KeywordScorer.
+ */
+public record LocalScores(List<String> matchedKeywords, List<String> missingKeywords, int keywordDensityScore, int atsScore) {
+
+    /**
+     * Top-level result sections that come from these scores instead of the model.
+     */
+    public static final Set<String> SECTIONS = Set.of("atsScore", "keywordAnalysis");
+
+    public KeywordAnalysisDto keywordAnalysis() {
+        return new KeywordAnalysisDto(missingKeywords, keywordDensityScore, matchedKeywords);
+    }
+
+    /**
+     * @return The model's result with the locally computed sections filled in (replacing any the model sent).
+     */
+    public AnalysisResultDto applyTo(AnalysisResultDto aiResult) {
+        return new AnalysisResultDto(
+                aiResult.matchScore(),
+                atsScore,
+                aiResult.fluffAnalysis(),
+                aiResult.roleFitAndAlignmentMetrics(),
+                keywordAnalysis(),
+                aiResult.resumeSuggestions(),
+                aiResult.interviewPreparationTopics()
+        );
+    }
+}
@@ -2,6 +2,8 @@
 package com.jdmatchr.core.service;
 
 import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
 import java.io.IOException;
 
 public interface PdfParserService {
@@ -10,6 +12,18 @@ public interface PdfParserService {
      * @param pdfFile The PDF file uploaded by the user.
      * @return The extracted text content as a String.
      * @throws IOException If an error occurs during file reading or PDF parsing.
+     * @throws com.jdmatchr.core.exception.CapacityExceededException If no parser is free to take the file right now.
      */
     String parsePdf(MultipartFile pdfFile) throws IOException;
-}
\ No newline at end of file
+
+    /**
+     * Extracts text content from a PDF that has already been written to disk
+     * (e.g. an upload spooled for an asynchronous analysis job).
+     * @param pdfFile The PDF file on disk.
+     * @param originalFilename The filename the user uploaded, used for logging.
+     * @return The extracted text content as a String.
+     * @throws IOException If an error occurs during file reading or PDF parsing.
+     * @throws com.jdmatchr.core.exception.CapacityExceededException If no parser is free to take the file right now.
+     */
+    String parsePdf(File pdfFile, String originalFilename) throws IOException;
+}
@@ -1,23 +1,72 @@
 // src/main/java/com/jdmatchr/core/service/PdfParserServiceImpl.java
 package com.jdmatchr.core.service;
 
+import com.jdmatchr.core.exception.CapacityExceededException;
+import com.jdmatchr.core.util.BoundedTtlCache;
+import com.jdmatchr.core.util.HashUtils;
+import com.jdmatchr.core.util.TextNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.commons.lang3.StringUtils; // Added
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadMemoryMappedFile;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class PdfParserServiceImpl implements PdfParserService {
 
     private static final Logger logger = LoggerFactory.getLogger(PdfParserServiceImpl.class);
-    private static final int MAX_RESUME_LENGTH = 3500;
+    private static final String METRIC_NAME = "jdmatchr.pdf.cache.requests";
+    private static final int HASH_CHUNK_SIZE = 16 * 1024;
+    // Parses take a second or two, so a full parsing queue drains quickly
+    private static final Duration PARSER_BUSY_RETRY_AFTER = Duration.ofSeconds(5);
+
+    // SHA-256 of the raw PDF bytes -> cleaned and truncated resume text
+    private final BoundedTtlCache<String, String> parsedTextCache;
+    private final boolean cacheEnabled;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    // Extraction budgets: stripping stops at whichever is reached first
+    private final int maxPages;
+    private final int maxChars;
+    // Runs PDFBox: inline on platform threads, a CPU-sized platform pool when requests run on virtual threads
+    private final Executor parsingExecutor;
+
+    public PdfParserServiceImpl(MeterRegistry meterRegistry,
+                                @Qualifier("pdfParsingExecutor") Executor parsingExecutor,
+                                @Value("${jdmatchr.pdf.cache.enabled:true}") boolean cacheEnabled,
+                                @Value("${jdmatchr.pdf.cache.max-entries:500}") int maxEntries,
+                                @Value("${jdmatchr.pdf.cache.ttl:PT24H}") Duration ttl,
+                                @Value("${jdmatchr.pdf.max-pages:10}") int maxPages,
+                                @Value("${jdmatchr.pdf.max-chars:20000}") int maxChars) {
+        this.parsingExecutor = parsingExecutor;
+        this.maxPages = maxPages;
+        this.maxChars = maxChars;
+        this.parsedTextCache = new BoundedTtlCache<>(maxEntries, ttl);
+        this.cacheEnabled = cacheEnabled;
+        this.cacheHits = Counter.builder(METRIC_NAME).tag("result", "hit").register(meterRegistry);
+        this.cacheMisses = Counter.builder(METRIC_NAME).tag("result", "miss").register(meterRegistry);
+    }
 
     @Override
     public String parsePdf(MultipartFile pdfFile) throws IOException {
@@ -27,37 +76,167 @@ public class PdfParserServiceImpl implements PdfParserService {
         }
 
         logger.info("Starting PDF parsing for file: {}", pdfFile.getOriginalFilename());
-        try (InputStream inputStream = pdfFile.getInputStream();
-             PDDocument document = Loader.loadPDF(pdfFile.getBytes())) { // Using getBytes() as in original
-
-            if (!document.isEncrypted()) {
-                PDFTextStripper stripper = new PDFTextStripper();
-                String text = stripper.getText(document);
-                logger.info("Successfully parsed PDF file: {}. Original text length: {}", pdfFile.getOriginalFilename(), text.length());
-
-                // Apply cleaning rules
-                String cleanedText = text.replaceAll("[^\\x00-\\x7F]", "") // Remove non-ASCII
-                        .replaceAll("\\s{2,}", " ") // Replace multiple spaces with one
-                        .replaceAll("(?i)(references|declaration).*", "") // Remove references/declaration sections
-                        .trim(); // Trim leading/trailing whitespace
-
-                logger.info("Cleaned resume text length: {}", cleanedText.length());
-
-                // Truncate
-                String truncatedText = StringUtils.abbreviate(cleanedText, MAX_RESUME_LENGTH);
-                logger.info("Truncated resume text length: {}", truncatedText.length());
-
-                return truncatedText;
-            } else {
-                logger.warn("PDF file {} is encrypted. Cannot extract text.", pdfFile.getOriginalFilename());
-                throw new IOException("Cannot parse encrypted PDF: " + pdfFile.getOriginalFilename());
-            }
-        } catch (IOException e) {
-            logger.error("IOException during PDF parsing for file {}: {}", pdfFile.getOriginalFilename(), e.getMessage());
+        // Never call pdfFile.getBytes(): it copies the whole upload onto the heap. Instead the upload is
+        // moved to a file we own (for disk-backed multipart parts Tomcat just renames its temp file)
+        // and read from there through a memory-mapped RandomAccessRead.
+        Path spooledPdf = Files.createTempFile("jdmatchr-upload-", ".pdf");
+        try {
+            pdfFile.transferTo(spooledPdf.toFile());
+            return parseOnParsingExecutor(spooledPdf, pdfFile.getOriginalFilename());
+        } catch (IOException | CapacityExceededException e) {
+            logger.error("PDF parsing failed for file {}: {}", pdfFile.getOriginalFilename(), e.getMessage());
             throw e;
         } catch (Exception e) {
             logger.error("Unexpected error during PDF parsing for file {}: {}", pdfFile.getOriginalFilename(), e.getMessage(), e);
             throw new IOException("Failed to parse PDF file: " + pdfFile.getOriginalFilename(), e);
+        } finally {
+            try {
+                Files.deleteIfExists(spooledPdf);
+            } catch (IOException e) {
+                logger.warn("Could not delete spooled upload {}: {}", spooledPdf, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public String parsePdf(File pdfFile, String originalFilename) throws IOException {
+        if (pdfFile == null || !pdfFile.isFile() || pdfFile.length() == 0) {
+            logger.warn("PDF file on disk is missing or empty for {}. Cannot parse.", originalFilename);
+            return "";
+        }
+
+        logger.info("Starting PDF parsing for spooled file: {}", originalFilename);
+        try {
+            return parseOnParsingExecutor(pdfFile.toPath(), originalFilename);
+        } catch (IOException | CapacityExceededException e) {
+            logger.error("PDF parsing failed for file {}: {}", originalFilename, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Unexpected error during PDF parsing for file {}: {}", originalFilename, e.getMessage(), e);
+            throw new IOException("Failed to parse PDF file: " + originalFilename, e);
+        }
+    }
+
+    /**
+     * PDFBox is CPU-bound and synchronizes internally (font and resource caches), which would pin the
+     * carrier of a virtual thread for the whole parse. The calling thread therefore only waits here, and
+     * the parsing executor decides where the work runs.
+     * @throws CapacityExceededException If the executor's threads and queue are all taken (503 + Retry-After).
+     */
+    private String parseOnParsingExecutor(Path pdfPath, String filename) throws IOException {
+        FutureTask<String> task = new FutureTask<>(() -> parseSpooledPdf(pdfPath, filename));
+        try {
+            parsingExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            throw new CapacityExceededException("Too many resumes are being processed. Please try again shortly.",
+                    PARSER_BUSY_RETRY_AFTER, e);
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.cancel(true);
+            throw new IOException("Interrupted while parsing PDF file: " + filename, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Failed to parse PDF file: " + filename, e.getCause());
+        }
+    }
+
+    /**
+     * Single source for both the content hash and PDFBox: the file is memory-mapped once, hashed
+     * through a small reusable chunk buffer, rewound, and handed to the parser on a cache miss.
+     * No byte[] of the document size is ever allocated.
+     */
+    private String parseSpooledPdf(Path pdfPath, String filename) throws IOException {
+        try (RandomAccessRead source = new RandomAccessReadMemoryMappedFile(pdfPath)) {
+            String contentHash = sha256Hex(source);
+            String cachedText = lookupParsedText(contentHash, filename);
+            if (cachedText != null) {
+                return cachedText;
+            }
+            source.seek(0);
+            try (PDDocument document = Loader.loadPDF(source)) {
+                return storeParsedText(contentHash, extractCleanedText(document, filename));
+            }
+        }
+    }
+
+    private static String sha256Hex(RandomAccessRead source) throws IOException {
+        MessageDigest digest = HashUtils.newSha256();
+        byte[] chunk = new byte[HASH_CHUNK_SIZE];
+        int read;
+        while ((read = source.read(chunk, 0, chunk.length)) > 0) {
+            digest.update(chunk, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private String lookupParsedText(String contentHash, String filename) {
+        if (!cacheEnabled) {
+            return null;
+        }
+        String cachedText = parsedTextCache.get(contentHash);
+        if (cachedText != null) {
+            cacheHits.increment();
+            logger.info("Parsed resume cache hit for file: {} (sha256 {}). Skipping PDF parsing.", filename, contentHash);
+            return cachedText;
+        }
+        cacheMisses.increment();
+        return null;
+    }
+
+    private String storeParsedText(String contentHash, String text) {
+        if (cacheEnabled) {
+            parsedTextCache.put(contentHash, text);
         }
+        return text;
+    }
+
+    /**
+     * Strips the document page by page and stops as soon as more than maxChars of cleaned text
+     * have been collected (or maxPages have been read), so a 40-page CV or a scanned portfolio
+     * costs no more than the first few pages we actually keep.
+     */
+    private String extractCleanedText(PDDocument document, String filename) throws IOException {
+        if (document.isEncrypted()) {
+            logger.warn("PDF file {} is encrypted. Cannot extract text.", filename);
+            throw new IOException("Cannot parse encrypted PDF: " + filename);
+        }
+
+        int pageCount = document.getNumberOfPages();
+        int lastPage = Math.min(pageCount, maxPages);
+        PDFTextStripper stripper = new PDFTextStripper();
+        StringBuilder cleanedText = new StringBuilder();
+        int pagesRead = 0;
+
+        for (int page = 1; page <= lastPage; page++) {
+            stripper.setStartPage(page);
+            stripper.setEndPage(page);
+            String cleanedPage = TextNormalizer.normalize(stripper.getText(document), true);
+            pagesRead++;
+
+            if (!cleanedPage.isEmpty()) {
+                if (cleanedText.length() > 0) {
+                    cleanedText.append(' ');
+                }
+                cleanedText.append(cleanedPage);
+            }
+            // Collect one char past the budget so abbreviate() still marks the text as truncated
+            if (cleanedText.length() > maxChars) {
+                break;
+            }
+        }
+
+        logger.info("Parsed PDF file: {}. Pages read: {} of {}. Cleaned resume text length: {}",
+                filename, pagesRead, pageCount, cleanedText.length());
+
+        // Truncate
+        String truncatedText = StringUtils.abbreviate(cleanedText.toString(), maxChars);
+        logger.info("Truncated resume text length: {}", truncatedText.length());
+
+        return truncatedText;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,232 @@
+// src/main/java/com/jdmatchr/core/service/PromptBudgetAllocator.java
+package com.jdmatchr.core.service;
+
+import com.jdmatchr.core.util.TokenEstimator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Splits the prompt-token budget for the variable inputs between the job description and the resume.
+ *
+ * When both fit, nothing is cut. Otherwise each side gets its configured share (a side that needs less
+ * than its share hands the rest to the other), and within a side whole lines/sentences are kept in order
+ * of section importance: "Requirements" and "Experience" win over "Benefits" and "Hobbies". Kept pieces
+ * stay in their original order, so nothing is cut mid-sentence.
+ */
+@Component
+public class PromptBudgetAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromptBudgetAllocator.class);
+
+    private static final int DEFAULT_IMPORTANCE = 2;
+    private static final int MAX_HEADING_LENGTH = 40;
+
+    // First match wins, so more specific headings come first
+    private static final Map<String, Integer> JD_SECTIONS = new LinkedHashMap<>();
+    private static final Map<String, Integer> RESUME_SECTIONS = new LinkedHashMap<>();
+
+    static {
+        JD_SECTIONS.put("about us", 0);
+        JD_SECTIONS.put("about the company", 0);
+        JD_SECTIONS.put("who we are", 0);
+        JD_SECTIONS.put("benefit", 0);
+        JD_SECTIONS.put("perks", 0);
+        JD_SECTIONS.put("equal opportunity", 0);
+        JD_SECTIONS.put("diversity", 0);
+        JD_SECTIONS.put("how to apply", 0);
+        JD_SECTIONS.put("salary", 1);
+        JD_SECTIONS.put("compensation", 1);
+        JD_SECTIONS.put("nice to have", 2);
+        JD_SECTIONS.put("preferred", 2);
+        JD_SECTIONS.put("bonus", 2);
+        JD_SECTIONS.put("requirement", 3);
+        JD_SECTIONS.put("qualification", 3);
+        JD_SECTIONS.put("responsibilit", 3);
+        JD_SECTIONS.put("must", 3);
+        JD_SECTIONS.put("skill", 3);
+        JD_SECTIONS.put("experience", 3);
+        JD_SECTIONS.put("what you", 3);
+        JD_SECTIONS.put("you will", 3);
+        JD_SECTIONS.put("tech stack", 3);
+
+        RESUME_SECTIONS.put("hobbies", 0);
+        RESUME_SECTIONS.put("interests", 0);
+        RESUME_SECTIONS.put("personal details", 0);
+        RESUME_SECTIONS.put("languages", 1);
+        RESUME_SECTIONS.put("volunteer", 1);
+        RESUME_SECTIONS.put("awards", 1);
+        RESUME_SECTIONS.put("objective", 2);
+        RESUME_SECTIONS.put("education", 2);
+        RESUME_SECTIONS.put("certification", 2);
+        RESUME_SECTIONS.put("achievement", 2);
+        RESUME_SECTIONS.put("summary", 3);
+        RESUME_SECTIONS.put("profile", 3);
+        RESUME_SECTIONS.put("experience", 3);
+        RESUME_SECTIONS.put("employment", 3);
+        RESUME_SECTIONS.put("work history", 3);
+        RESUME_SECTIONS.put("skill", 3);
+        RESUME_SECTIONS.put("project", 3);
+        RESUME_SECTIONS.put("technical", 3);
+    }
+
+    private final int inputTokenBudget;
+    private final double resumeShare;
+
+    public PromptBudgetAllocator(@Value("${jdmatchr.prompt.input-token-budget:4000}") int inputTokenBudget,
+                                 @Value("${jdmatchr.prompt.resume-share:0.55}") double resumeShare) {
+        if (resumeShare < 0 || resumeShare > 1) {
+            throw new IllegalArgumentException("jdmatchr.prompt.resume-share must be between 0 and 1");
+        }
+        this.inputTokenBudget = inputTokenBudget;
+        this.resumeShare = resumeShare;
+    }
+
+    /**
+     * @param jobDescriptionTokens Estimated tokens of the job description as it will appear in the prompt.
+     * @param resumeTokens Estimated tokens of the resume text as it will appear in the prompt.
+     * @param trimmed Whether anything had to be left out to fit the budget.
+     */
+    public record Allocation(String jobDescription, String resumeText, int jobDescriptionTokens, int resumeTokens, boolean trimmed) {
+    }
+
+    public Allocation allocate(String jobDescription, String resumeText) {
+        int jdNeeded = TokenEstimator.estimate(jobDescription);
+        int resumeNeeded = TokenEstimator.estimate(resumeText);
+        if (jdNeeded + resumeNeeded <= inputTokenBudget) {
+            return new Allocation(jobDescription, resumeText, jdNeeded, resumeNeeded, false);
+        }
+
+        int resumeBudget = (int) Math.round(inputTokenBudget * resumeShare);
+        int jdBudget = inputTokenBudget - resumeBudget;
+        if (jdNeeded < jdBudget) {
+            resumeBudget = inputTokenBudget - jdNeeded;
+        } else if (resumeNeeded < resumeBudget) {
+            jdBudget = inputTokenBudget - resumeNeeded;
+        }
+
+        String fittedJd = fit(jobDescription, jdBudget, JD_SECTIONS);
+        String fittedResume = fit(resumeText, resumeBudget, RESUME_SECTIONS);
+        int jdTokens = TokenEstimator.estimate(fittedJd);
+        int resumeTokens = TokenEstimator.estimate(fittedResume);
+        logger.info("Prompt inputs over budget ({} tokens). JD: {} -> {} tokens (budget {}), resume: {} -> {} tokens (budget {}).",
+                inputTokenBudget, jdNeeded, jdTokens, jdBudget, resumeNeeded, resumeTokens, resumeBudget);
+        return new Allocation(fittedJd, fittedResume, jdTokens, resumeTokens, true);
+    }
+
+    public int getInputTokenBudget() {
+        return inputTokenBudget;
+    }
+
+    /**
+     * Keeps the most important segments of the text that fit into tokenBudget, in their original order.
+     */
+    private static String fit(String text, int tokenBudget, Map<String, Integer> sections) {
+        if (TokenEstimator.estimate(text) <= tokenBudget) {
+            return text;
+        }
+        List<Segment> segments = segment(text, sections);
+        List<Segment> byImportance = new ArrayList<>(segments);
+        byImportance.sort(Comparator.comparingInt(Segment::importance).reversed().thenComparingInt(Segment::index));
+
+        boolean[] kept = new boolean[segments.size()];
+        int used = 0;
+        for (Segment segment : byImportance) {
+            if (used + segment.tokens() <= tokenBudget) {
+                kept[segment.index()] = true;
+                used += segment.tokens();
+            }
+        }
+
+        StringBuilder fitted = new StringBuilder(text.length());
+        for (Segment segment : segments) {
+            if (kept[segment.index()]) {
+                fitted.append(segment.text());
+            }
+        }
+        if (used == 0 && !byImportance.isEmpty()) {
+            // A single blob without line or sentence breaks: fall back to keeping whole leading words
+            return truncateToTokens(byImportance.get(0).text(), tokenBudget);
+        }
+        return fitted.toString().trim();
+    }
+
+    private record Segment(int index, String text, int importance, int tokens) {
+    }
+
+    /**
+     * Splits on line breaks and sentence ends. A segment that names a known section ("Requirements:",
+     * "EXPERIENCE") sets the importance of itself and everything after it, until the next heading.
+     */
+    private static List<Segment> segment(String text, Map<String, Integer> sections) {
+        List<Segment> segments = new ArrayList<>();
+        int importance = DEFAULT_IMPORTANCE;
+        int start = 0;
+        int n = text.length();
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            boolean lineEnd = c == '\n' || c == '\r';
+            boolean sentenceEnd = (c == '.' || c == '!' || c == '?' || c == ';') && i + 1 < n && text.charAt(i + 1) == ' ';
+            if (lineEnd || sentenceEnd || i == n - 1) {
+                int end = sentenceEnd ? i + 2 : i + 1; // The separator stays with its segment
+                String piece = text.substring(start, end);
+                Integer headingImportance = headingImportance(piece, sections);
+                if (headingImportance != null) {
+                    importance = headingImportance;
+                }
+                segments.add(new Segment(segments.size(), piece, importance, TokenEstimator.estimate(piece)));
+                start = end;
+                i = end - 1;
+            }
+        }
+        return segments;
+    }
+
+    private static Integer headingImportance(String piece, Map<String, Integer> sections) {
+        String lower = piece.trim().toLowerCase(Locale.ROOT);
+        int colon = lower.indexOf(':');
+        String heading;
+        if (colon >= 0 && colon <= MAX_HEADING_LENGTH) {
+            heading = lower.substring(0, colon);
+        } else if (lower.length() <= MAX_HEADING_LENGTH) {
+            heading = lower;
+        } else {
+            return null;
+        }
+        for (Map.Entry<String, Integer> section : sections.entrySet()) {
+            if (heading.contains(section.getKey())) {
+                return section.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String truncateToTokens(String text, int tokenBudget) {
+        int used = 0;
+        int end = 0;
+        int i = 0;
+        int n = text.length();
+        while (i < n) {
+            int wordEnd = i;
+            while (wordEnd < n && text.charAt(wordEnd) != ' ') {
+                wordEnd++;
+            }
+            int wordTokens = TokenEstimator.estimate(text.substring(i, wordEnd));
+            if (used + wordTokens > tokenBudget) {
+                break;
+            }
+            used += wordTokens;
+            end = wordEnd;
+            i = wordEnd + 1;
+        }
+        return text.substring(0, end).trim();
+    }
+}
@@ -1,14 +1,40 @@
 // src/main/java/com/jdmatchr/core/service/PromptBuilderService.java
 package com.jdmatchr.core.service;
 
+import java.util.List;
+
 public interface PromptBuilderService {
     /**
-     * Builds a structured prompt for OpenAI GPT-4o based on job details and resume text.
+     * Builds a structured prompt based on job details and resume text. The job description and resume
+     * are fitted into the configured prompt-token budget before they are inserted.
      *
      * @param jobTitle The title of the job.
      * @param jobDescription The full job description.
      * @param resumeText The extracted plain text from the user's resume.
-     * @return A string representing the user message for the OpenAI API.
+     * @return The prompt, split into the static system part and the variable user part, with the inputs as sent and its estimated token count.
+     */
+    AnalysisPrompt buildPrompt(String jobTitle, String jobDescription, String resumeText);
+
+    /**
+     * Builds a follow-up prompt asking only for the given sections of the analysis, for when a response
+     * came back without them. The user part is the same as in the original prompt.
+     *
+     * @param prompt The original prompt.
+     * @param sections Names of the missing sections, from getResponseSections().
+     * @return The prompt for just those sections.
+     */
+    AnalysisPrompt buildSectionPrompt(AnalysisPrompt prompt, List<String> sections);
+
+    /**
+     * @return The top-level sections the model is asked to produce, in prompt order.
+     */
+    List<String> getResponseSections();
+
+    /**
+     * Identifies the prompt template. Bump it whenever the template or its output schema changes,
+     * so that cached analyses produced by an older template are no longer served.
+     *
+     * @return The prompt template version.
      */
-    String buildPrompt(String jobTitle, String jobDescription, String resumeText);
+    String getPromptVersion();
 }
\ No newline at end of file
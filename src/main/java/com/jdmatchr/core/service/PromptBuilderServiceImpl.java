@@ -1,62 +1,69 @@
 // src/main/java/com/jdmatchr/core/service/PromptBuilderServiceImpl.java
 package com.jdmatchr.core.service;
 
-import org.apache.commons.lang3.StringUtils;
+import com.jdmatchr.core.util.TextNormalizer;
+import com.jdmatchr.core.util.TokenEstimator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Service
 public class PromptBuilderServiceImpl implements PromptBuilderService {
 
     private static final Logger logger = LoggerFactory.getLogger(PromptBuilderServiceImpl.class);
-    private static final int MAX_JD_LENGTH = 3000;
+    // Hard bound on pasted JD text before it is tokenized; the token budget does the real fitting
+    private static final int MAX_JD_LENGTH = 20_000;
+    private static final String PROMPT_VERSION = "v4";
 
-    @Override
-    public String buildPrompt(String jobTitle, String jobDescription, String resumeText) {
+    // Schema of each section the model produces, in the order it should write them
+    private static final Map<String, String> SECTION_SCHEMAS = new LinkedHashMap<>();
 
-        logger.info("Original JD length: {}", jobDescription.length());
-        String cleanedJd = jobDescription.replaceAll("[^\\x00-\\x7F]", "")
-                .replaceAll("🧠|🚀|🎯|✅|📌|📍|✨", "")
-                .replaceAll("\\s{2,}", " ")
-                .trim();
-        logger.info("Cleaned JD length: {}", cleanedJd.length());
-        String trimmedJd = StringUtils.abbreviate(cleanedJd, MAX_JD_LENGTH);
-        logger.info("Truncated JD length for prompt: {}", trimmedJd.length());
-        logger.info("Resume text length for prompt: {}", resumeText.length());
-
-        return """
+    static {
+        SECTION_SCHEMAS.put("matchScore", """
+            "matchScore": number""");
+        SECTION_SCHEMAS.put("fluffAnalysis", """
+            "fluffAnalysis": {
+              "summary": "string (1-2 brief sentences)", // Example of specific brevity instruction
+              "detected": [{ "original": string, "suggestion": string }] // MAX 5 items - most impactful
+            }""");
+        SECTION_SCHEMAS.put("roleFitAndAlignmentMetrics", """
+            "roleFitAndAlignmentMetrics": {
+              "prediction": {
+                "verdict": "string (must be one of: 'Misfit', 'Developing', 'Strong', 'Optimal')",
+                "reason": "string (concise reason for the verdict, 2-3 sentences)" // Example of specific brevity
+              },
+              "radarData": { "technicalSkills": number, "softSkills": number, "experienceLevel": number, "cultureFit": number },
+              "alignmentBreakdown": { "skills": number, "experience": number, "education": number, "keywords": number }
+            }""");
+        SECTION_SCHEMAS.put("resumeSuggestions", """
+            "resumeSuggestions": string[] // MAX 4 concise suggestions - most impactful""");
+        SECTION_SCHEMAS.put("interviewPreparationTopics", """
+            "interviewPreparationTopics": string[] // MAX 4 key topics - most impactful""");
+    }
+
+    private static final String SYSTEM_PROMPT_TEMPLATE = """
         You are a career analysis assistant.
 
         Return ONLY a valid JSON object with the exact format below.
         For all arrays, select only the most critical and impactful items, adhering to the maximum number of items specified for each field.
 
-        {
-          "matchScore": number,
-          "atsScore": number,
-          "fluffAnalysis": {
-            "summary": "string (1-2 brief sentences)", // Example of specific brevity instruction
-            "detected": [{ "original": string, "suggestion": string }] // MAX 5 items - most impactful
-          },
-          "roleFitAndAlignmentMetrics": {
-            "prediction": {
-              "verdict": "string (must be one of: 'Misfit', 'Developing', 'Strong', 'Optimal')",
-              "reason": "string (concise reason for the verdict, 2-3 sentences)" // Example of specific brevity
-            },
-            "radarData": { "technicalSkills": number, "softSkills": number, "experienceLevel": number, "cultureFit": number },
-            "alignmentBreakdown": { "skills": number, "experience": number, "education": number, "keywords": number }
-          },
-          "keywordAnalysis": {
-            "matchedKeywords": string[], // MAX 10 items - most relevant matched keywords
-            "missingKeywords": string[], // MAX 10 items - most critical missing keywords
-            "keywordDensityScore": number
-          },
-          "resumeSuggestions": string[], // MAX 4 concise suggestions - most impactful
-          "interviewPreparationTopics": string[] // MAX 4 key topics - most impactful
-        }
+        %s
 
         Only respond with the JSON — no other commentary.
+        """;
+
+    // Identical on every call and sent as the system message, so that provider-side prompt caching
+    // (automatic prefix caching on OpenAI-compatible endpoints) can reuse it. Nothing request-specific
+    // may go in here.
+    private static final String SYSTEM_PROMPT = SYSTEM_PROMPT_TEMPLATE.formatted(schema(List.copyOf(SECTION_SCHEMAS.keySet())));
 
+    private static final String USER_PROMPT_TEMPLATE = """
         Job Title: %s
 
         Job Description:
@@ -64,6 +71,82 @@ public class PromptBuilderServiceImpl implements PromptBuilderService {
 
         Resume Text:
         %s
-        """.formatted(jobTitle, trimmedJd, resumeText);
+        """;
+
+    private static final int TEMPLATE_TOKENS = TokenEstimator.estimate(SYSTEM_PROMPT)
+            + TokenEstimator.estimate(USER_PROMPT_TEMPLATE.formatted("", "", ""));
+
+    private final PromptBudgetAllocator promptBudgetAllocator;
+    private final KeywordScorer keywordScorer;
+    private final DistributionSummary estimatedPromptTokens;
+
+    public PromptBuilderServiceImpl(PromptBudgetAllocator promptBudgetAllocator, KeywordScorer keywordScorer, MeterRegistry meterRegistry) {
+        this.promptBudgetAllocator = promptBudgetAllocator;
+        this.keywordScorer = keywordScorer;
+        this.estimatedPromptTokens = DistributionSummary.builder("jdmatchr.prompt.estimated.tokens")
+                .description("Locally estimated prompt tokens per analysis call")
+                .baseUnit("tokens")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public AnalysisPrompt buildPrompt(String jobTitle, String jobDescription, String resumeText) {
+        logger.info("Original JD length: {}", jobDescription.length());
+        // Emoji are non-ASCII, so the ASCII filter already removes them
+        String cleanedJd = TextNormalizer.normalize(jobDescription, false, MAX_JD_LENGTH);
+        logger.info("Cleaned JD length: {}, resume text length: {}", cleanedJd.length(), resumeText.length());
+
+        // From the full texts, before the budget trims them; the model no longer produces these sections
+        LocalScores localScores = keywordScorer.score(cleanedJd, resumeText);
+
+        PromptBudgetAllocator.Allocation allocation = promptBudgetAllocator.allocate(cleanedJd, resumeText);
+        String userPrompt = USER_PROMPT_TEMPLATE.formatted(jobTitle, allocation.jobDescription(), allocation.resumeText());
+
+        int estimatedTokens = TEMPLATE_TOKENS + TokenEstimator.estimate(jobTitle)
+                + allocation.jobDescriptionTokens() + allocation.resumeTokens();
+        estimatedPromptTokens.record(estimatedTokens);
+        logger.info("Estimated prompt tokens: {} (template: {}, JD: {}, resume: {}, input budget: {}, trimmed: {})",
+                estimatedTokens, TEMPLATE_TOKENS, allocation.jobDescriptionTokens(), allocation.resumeTokens(),
+                promptBudgetAllocator.getInputTokenBudget(), allocation.trimmed());
+
+        return new AnalysisPrompt(SYSTEM_PROMPT, userPrompt, allocation.jobDescription(), allocation.resumeText(), estimatedTokens, localScores);
+    }
+
+    @Override
+    public AnalysisPrompt buildSectionPrompt(AnalysisPrompt prompt, List<String> sections) {
+        String systemText = SYSTEM_PROMPT_TEMPLATE.formatted(schema(sections));
+        int estimatedTokens = prompt.estimatedTokens() - TokenEstimator.estimate(SYSTEM_PROMPT) + TokenEstimator.estimate(systemText);
+        return new AnalysisPrompt(systemText, prompt.userText(), prompt.jobDescription(), prompt.resumeText(), estimatedTokens,
+                prompt.localScores());
+    }
+
+    @Override
+    public List<String> getResponseSections() {
+        return List.copyOf(SECTION_SCHEMAS.keySet());
+    }
+
+    @Override
+    public String getPromptVersion() {
+        return PROMPT_VERSION;
+    }
+
+    /**
+     * The JSON object skeleton for the given sections. The comma goes before a trailing "//" comment.
+     */
+    private static String schema(List<String> sections) {
+        StringBuilder schema = new StringBuilder("{\n");
+        for (int i = 0; i < sections.size(); i++) {
+            String fragment = SECTION_SCHEMAS.get(sections.get(i));
+            if (fragment == null) {
+                throw new IllegalArgumentException("Unknown response section: " + sections.get(i));
+            }
+            if (i < sections.size() - 1) {
+                int lastLine = fragment.lastIndexOf('\n') + 1;
+                int comment = fragment.indexOf(" //", lastLine);
+                fragment = comment < 0 ? fragment + "," : fragment.substring(0, comment) + "," + fragment.substring(comment);
+            }
+            fragment.lines().forEach(line -> schema.append("  ").append(line).append('\n'));
+        }
+        return schema.append('}').toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+// src/main/java/com/jdmatchr/core/service/ReanalysisJobService.java
+package com.jdmatchr.core.service;
+
+import com.jdmatchr.core.dto.ReanalysisJobDto;
+import com.jdmatchr.core.dto.ReanalysisJobRequest;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ReanalysisJobService {
+
+    /**
+     * Creates a PENDING bulk re-analysis job for the insights matching the request's filter and hands it to
+     * the re-analysis worker. The job uses the prompt version current at submission time.
+     *
+     * @param request The filter and options.
+     * @return The newly created job.
+     * @throws com.jdmatchr.core.exception.AnalysisQueueFullException If the worker cannot accept more jobs.
+     */
+    ReanalysisJobDto submitJob(ReanalysisJobRequest request);
+
+    /**
+     * Retrieves the current state and progress of a job.
+     * @param jobId The UUID of the job.
+     * @return An Optional containing the job if found, otherwise empty.
+     */
+    Optional<ReanalysisJobDto> getJob(UUID jobId);
+
+    /**
+     * Continues a FAILED job from its last checkpoint.
+     * @param jobId The UUID of the job.
+     * @return An Optional containing the (again PENDING) job, or empty if there is no such job.
+     * @throws IllegalStateException If the job is not FAILED.
+     */
+    Optional<ReanalysisJobDto> resumeJob(UUID jobId);
+}
@@ -0,0 +1,391 @@
+// src/main/java/com/jdmatchr/core/service/ReanalysisJobServiceImpl.java
+package com.jdmatchr.core.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jdmatchr.core.dto.ReanalysisJobDto;
+import com.jdmatchr.core.dto.ReanalysisJobRequest;
+import com.jdmatchr.core.entity.AnalysisJobStatus;
+import com.jdmatchr.core.entity.InsightInput;
+import com.jdmatchr.core.entity.InsightRevision;
+import com.jdmatchr.core.entity.Insights;
+import com.jdmatchr.core.entity.ReanalysisJob;
+import com.jdmatchr.core.exception.AnalysisQueueFullException;
+import com.jdmatchr.core.exception.LlmCapacityExceededException;
+import com.jdmatchr.core.repository.InsightInputRepository;
+import com.jdmatchr.core.repository.InsightRevisionRepository;
+import com.jdmatchr.core.repository.InsightsRepository;
+import com.jdmatchr.core.repository.ReanalysisJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedByInterruptException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk re-analysis of stored insights, e.g. after a prompt or model change.
+ *
+ * A single worker thread walks the matching insights in keyset pages and sends one prompt at a time, paced
+ * to requests-per-minute, so a backfill only ever occupies one of the interactive LLM admission slots.
+ * Each page's revisions, optional updates of the insights and the job's checkpoint are written in one
+ * transaction: after a crash the job continues with the first page that was not committed (at most one
+ * page of AI calls is repeated). Jobs that were PENDING or RUNNING are picked up again on startup.
+ */
+@Service
+public class ReanalysisJobServiceImpl implements ReanalysisJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReanalysisJobServiceImpl.class);
+    private static final String OPERATION = "bulk-reanalysis";
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+    private static final int MAX_CAPACITY_RETRIES = 5;
+    // Keyset start and open upper bound; both fit a Postgres timestamptz
+    private static final OffsetDateTime BEGINNING = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime END = OffsetDateTime.of(9999, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final UUID NIL_UUID = new UUID(0, 0);
+
+    private final ReanalysisJobRepository reanalysisJobRepository;
+    private final InsightsRepository insightsRepository;
+    private final InsightInputRepository insightInputRepository;
+    private final InsightRevisionRepository insightRevisionRepository;
+    private final PromptBuilderService promptBuilderService;
+    private final AnalysisAiService analysisAiService;
+    private final AnalysisModelRouter modelRouter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate writeTransaction;
+    private final TaskExecutor reanalysisJobExecutor;
+    private final int pageSize;
+    private final long minIntervalNanos;
+    private final boolean resumeOnStartup;
+    private long nextCallNanos;
+
+    @Autowired
+    public ReanalysisJobServiceImpl(ReanalysisJobRepository reanalysisJobRepository,
+                                    InsightsRepository insightsRepository,
+                                    InsightInputRepository insightInputRepository,
+                                    InsightRevisionRepository insightRevisionRepository,
+                                    PromptBuilderService promptBuilderService,
+                                    AnalysisAiService analysisAiService,
+                                    AnalysisModelRouter modelRouter,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    @Qualifier("reanalysisJobExecutor") TaskExecutor reanalysisJobExecutor,
+                                    @Value("${jdmatchr.reanalysis.page-size:50}") int pageSize,
+                                    @Value("${jdmatchr.reanalysis.requests-per-minute:30}") int requestsPerMinute,
+                                    @Value("${jdmatchr.reanalysis.resume-on-startup:true}") boolean resumeOnStartup) {
+        if (pageSize < 1 || requestsPerMinute < 1) {
+            throw new IllegalArgumentException("jdmatchr.reanalysis.page-size and requests-per-minute must be positive");
+        }
+        this.reanalysisJobRepository = reanalysisJobRepository;
+        this.insightsRepository = insightsRepository;
+        this.insightInputRepository = insightInputRepository;
+        this.insightRevisionRepository = insightRevisionRepository;
+        this.promptBuilderService = promptBuilderService;
+        this.analysisAiService = analysisAiService;
+        this.modelRouter = modelRouter;
+        this.objectMapper = objectMapper;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.reanalysisJobExecutor = reanalysisJobExecutor;
+        this.pageSize = pageSize;
+        this.minIntervalNanos = TimeUnit.MINUTES.toNanos(1) / requestsPerMinute;
+        this.resumeOnStartup = resumeOnStartup;
+    }
+
+    @Override
+    public ReanalysisJobDto submitJob(ReanalysisJobRequest request) {
+        ReanalysisJob job = new ReanalysisJob();
+        job.setStatus(AnalysisJobStatus.PENDING);
+        job.setFilterUserId(request.userId());
+        job.setFilterCreatedFrom(request.createdFrom());
+        job.setFilterCreatedTo(request.createdTo());
+        job.setPromptVersion(promptBuilderService.getPromptVersion());
+        job.setModelName(request.modelName() != null && !request.modelName().isBlank() ? request.modelName().trim() : null);
+        job.setApplyToInsights(request.applyToInsights());
+        ReanalysisJob savedJob = reanalysisJobRepository.save(job);
+        logger.info("Created PENDING re-analysis job {} (prompt version {}, model {}).", savedJob.getId(),
+                savedJob.getPromptVersion(), savedJob.getModelName() != null ? savedJob.getModelName() : "routed");
+
+        schedule(savedJob.getId());
+        return toDto(savedJob);
+    }
+
+    @Override
+    public Optional<ReanalysisJobDto> getJob(UUID jobId) {
+        return reanalysisJobRepository.findById(jobId).map(this::toDto);
+    }
+
+    @Override
+    public Optional<ReanalysisJobDto> resumeJob(UUID jobId) {
+        Optional<ReanalysisJob> found = reanalysisJobRepository.findById(jobId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        ReanalysisJob job = found.get();
+        if (job.getStatus() != AnalysisJobStatus.FAILED) {
+            throw new IllegalStateException("Only FAILED re-analysis jobs can be resumed; job " + jobId + " is " + job.getStatus() + ".");
+        }
+        job.setStatus(AnalysisJobStatus.PENDING);
+        job.setErrorMessage(null);
+        job.setCompletedAt(null);
+        ReanalysisJob savedJob = reanalysisJobRepository.save(job);
+        logger.info("Resuming re-analysis job {} after {} processed insights.", jobId, savedJob.getProcessedCount());
+        schedule(jobId);
+        return Optional.of(toDto(savedJob));
+    }
+
+    /**
+     * Picks up jobs that were interrupted by a shutdown or crash. Meant for a single worker node: with several
+     * nodes, enable resume-on-startup on one of them only.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        if (!resumeOnStartup) {
+            return;
+        }
+        for (ReanalysisJob job : reanalysisJobRepository.findByStatusInOrderByCreatedAtAsc(
+                List.of(AnalysisJobStatus.PENDING, AnalysisJobStatus.RUNNING))) {
+            logger.info("Re-analysis job {} was {} at startup; continuing from its checkpoint.", job.getId(), job.getStatus());
+            try {
+                schedule(job.getId());
+            } catch (AnalysisQueueFullException e) {
+                logger.warn("Could not resume re-analysis job {}: {}", job.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void schedule(UUID jobId) {
+        try {
+            reanalysisJobExecutor.execute(() -> runJob(jobId));
+        } catch (RejectedExecutionException e) {
+            markFailed(jobId, "Rejected: the re-analysis queue is full.");
+            throw new AnalysisQueueFullException("The re-analysis queue is full. Please try again later.", e);
+        }
+    }
+
+    /**
+     * Worker body: page through the matching insights from the checkpoint on until none are left.
+     */
+    private void runJob(UUID jobId) {
+        ReanalysisJob job = reanalysisJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            logger.warn("Re-analysis job {} no longer exists.", jobId);
+            return;
+        }
+        logger.info("Re-analysis job {} started (processed so far: {}).", jobId, job.getProcessedCount());
+        try {
+            job.setStatus(AnalysisJobStatus.RUNNING);
+            job = reanalysisJobRepository.save(job);
+
+            while (!Thread.currentThread().isInterrupted()) {
+                OffsetDateTime afterCreatedAt = job.getCheckpointCreatedAt() != null ? job.getCheckpointCreatedAt()
+                        : job.getFilterCreatedFrom() != null ? job.getFilterCreatedFrom() : BEGINNING;
+                UUID afterId = job.getCheckpointInsightId() != null ? job.getCheckpointInsightId() : NIL_UUID;
+                OffsetDateTime createdTo = job.getFilterCreatedTo() != null ? job.getFilterCreatedTo() : END;
+
+                List<Insights> page = insightsRepository.findReanalysisPage(job.getFilterUserId(), createdTo, afterCreatedAt,
+                        afterId, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                job = processPage(job, page);
+                if (page.size() < pageSize) {
+                    break;
+                }
+            }
+
+            if (Thread.currentThread().isInterrupted()) {
+                // Left RUNNING on purpose: it is continued from the checkpoint on the next startup
+                logger.warn("Re-analysis job {} interrupted after {} insights.", jobId, job.getProcessedCount());
+                return;
+            }
+            job.setStatus(AnalysisJobStatus.COMPLETED);
+            job.setCompletedAt(OffsetDateTime.now());
+            reanalysisJobRepository.save(job);
+            logger.info("Re-analysis job {} completed: {} processed, {} succeeded, {} failed, {} skipped.", jobId,
+                    job.getProcessedCount(), job.getSucceededCount(), job.getFailedCount(), job.getSkippedCount());
+        } catch (Exception e) {
+            logger.error("Re-analysis job {} failed: {}", jobId, e.getMessage(), e);
+            markFailed(jobId, e.getMessage());
+        }
+    }
+
+    private ReanalysisJob processPage(ReanalysisJob job, List<Insights> page) {
+        List<UUID> ids = page.stream().map(Insights::getId).toList();
+        Map<UUID, InsightInput> inputs = insightInputRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(InsightInput::getInsightId, Function.identity()));
+
+        List<InsightRevision> revisions = new ArrayList<>();
+        List<Insights> updatedInsights = new ArrayList<>();
+        int succeeded = 0;
+        int failed = 0;
+        int skipped = 0;
+        for (Insights insight : page) {
+            InsightInput input = inputs.get(insight.getId());
+            if (input == null) {
+                skipped++;
+                continue;
+            }
+            try {
+                AnalysisAiService.ModelAnalysis analysis = analyze(job, insight, input);
+                Map<String, Object> resultMap = objectMapper.convertValue(analysis.result(), new TypeReference<Map<String, Object>>() {});
+                Double matchScore = analysis.result().matchScore() != null ? analysis.result().matchScore().doubleValue() : null;
+
+                InsightRevision revision = new InsightRevision();
+                revision.setInsightId(insight.getId());
+                revision.setReanalysisJobId(job.getId());
+                revision.setPromptVersion(job.getPromptVersion());
+                revision.setModelName(analysis.modelName());
+                revision.setMatchScore(matchScore);
+                revision.setAtsScore(analysis.result().atsScore());
+                revision.setAnalysisResult(resultMap);
+                revisions.add(revision);
+
+                if (job.isApplyToInsights()) {
+                    insight.setAnalysisResult(resultMap);
+                    insight.setMatchScore(matchScore);
+                    insight.setAtsScore(analysis.result().atsScore());
+                    insight.setModelName(analysis.modelName());
+                    updatedInsights.add(insight);
+                }
+                succeeded++;
+            } catch (InterruptedException e) {
+                // Shutting down: drop the uncommitted page, it is redone from the checkpoint
+                Thread.currentThread().interrupt();
+                return job;
+            } catch (Exception e) {
+                if (isInterruption(e)) {
+                    // Interrupted inside the AI call, which wraps the InterruptedException: drop the page as above
+                    logger.info("Re-analysis job {} interrupted during insight {}; the page is redone from the checkpoint.",
+                            job.getId(), insight.getId());
+                    Thread.currentThread().interrupt();
+                    return job;
+                }
+                logger.warn("Re-analysis job {}: insight {} failed: {}", job.getId(), insight.getId(), e.getMessage());
+                failed++;
+            }
+        }
+
+        Insights last = page.get(page.size() - 1);
+        job.setCheckpointCreatedAt(last.getCreatedAt());
+        job.setCheckpointInsightId(last.getId());
+        job.setProcessedCount(job.getProcessedCount() + page.size());
+        job.setSucceededCount(job.getSucceededCount() + succeeded);
+        job.setFailedCount(job.getFailedCount() + failed);
+        job.setSkippedCount(job.getSkippedCount() + skipped);
+        ReanalysisJob checkpointed = job;
+        ReanalysisJob saved = writeTransaction.execute(status -> {
+            insightRevisionRepository.saveAll(revisions);
+            if (!updatedInsights.isEmpty()) {
+                insightsRepository.saveAll(updatedInsights);
+            }
+            return reanalysisJobRepository.save(checkpointed);
+        });
+        logger.info("Re-analysis job {}: page done ({} succeeded, {} failed, {} skipped), {} insights processed in total.",
+                job.getId(), succeeded, failed, skipped, saved.getProcessedCount());
+        return saved;
+    }
+
+    private AnalysisAiService.ModelAnalysis analyze(ReanalysisJob job, Insights insight, InsightInput input) throws Exception {
+        AnalysisPrompt prompt = promptBuilderService.buildPrompt(insight.getJobTitle(), input.getJobDescription(), input.getResumeText());
+        List<String> models = job.getModelName() != null ? List.of(job.getModelName()) : modelRouter.candidates(prompt.estimatedTokens());
+        for (int attempt = 1; ; attempt++) {
+            pace();
+            try {
+                return analysisAiService.getAnalysisFromAi(prompt, models, OPERATION);
+            } catch (LlmCapacityExceededException e) {
+                // Interactive traffic has the AI capacity (or the circuit is open): back off instead of failing the insight
+                if (attempt >= MAX_CAPACITY_RETRIES) {
+                    throw e;
+                }
+                logger.info("Re-analysis job {}: no AI capacity, waiting {}s.", job.getId(), e.getRetryAfterSeconds());
+                Thread.sleep(e.getRetryAfter().toMillis());
+            }
+        }
+    }
+
+    /**
+     * An interrupt that reached the AI call comes back as some RuntimeException (or as an I/O error of the HTTP
+     * client), with or without the interrupt flag still set. It says nothing about the insight, so it must not
+     * be counted as a failure; the flag would also fail every remaining insight of the page.
+     */
+    private static boolean isInterruption(Throwable error) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable t = error; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof InterruptedException || t instanceof ClosedByInterruptException
+                    || (t instanceof InterruptedIOException && !(t instanceof SocketTimeoutException))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Spaces calls at least 1/requests-per-minute apart. Only the single worker thread calls this.
+     */
+    private void pace() throws InterruptedException {
+        long now = System.nanoTime();
+        if (nextCallNanos != 0 && now < nextCallNanos) {
+            TimeUnit.NANOSECONDS.sleep(nextCallNanos - now);
+            now = nextCallNanos;
+        }
+        nextCallNanos = now + minIntervalNanos;
+    }
+
+    private void markFailed(UUID jobId, String errorMessage) {
+        try {
+            reanalysisJobRepository.findById(jobId).ifPresent(job -> {
+                job.setStatus(AnalysisJobStatus.FAILED);
+                String message = errorMessage != null ? errorMessage : "Unknown error";
+                job.setErrorMessage(message.length() > MAX_ERROR_MESSAGE_LENGTH ? message.substring(0, MAX_ERROR_MESSAGE_LENGTH) : message);
+                job.setCompletedAt(OffsetDateTime.now());
+                reanalysisJobRepository.save(job);
+            });
+        } catch (Exception e) {
+            logger.error("Could not record failure for re-analysis job {}: {}", jobId, e.getMessage(), e);
+        }
+    }
+
+    private ReanalysisJobDto toDto(ReanalysisJob job) {
+        return new ReanalysisJobDto(
+                job.getId(),
+                job.getStatus().name(),
+                job.getFilterUserId(),
+                job.getFilterCreatedFrom(),
+                job.getFilterCreatedTo(),
+                job.getPromptVersion(),
+                job.getModelName(),
+                job.isApplyToInsights(),
+                job.getProcessedCount(),
+                job.getSucceededCount(),
+                job.getFailedCount(),
+                job.getSkippedCount(),
+                job.getErrorMessage(),
+                job.getCreatedAt(),
+                job.getUpdatedAt(),
+                job.getCompletedAt()
+        );
+    }
+}
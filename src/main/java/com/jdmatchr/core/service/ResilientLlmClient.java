@@ -0,0 +1,468 @@
+// src/main/java/com/jdmatchr/core/service/ResilientLlmClient.java
+package com.jdmatchr.core.service;
+
+import com.jdmatchr.core.exception.LlmCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Resilience layer around ChatClient calls (Spring AI's own retry is switched off with spring.ai.retry.max-attempts=1).
+ *
+ * Every attempt runs on the llmCallExecutor with its own timeout. Transient failures (timeouts, I/O errors,
+ * 408/429/5xx) are retried up to max-attempts with exponential backoff and full jitter; anything else (a 400,
+ * bad credentials) fails at once. Optionally a hedged second request is sent when the first has not answered
+ * within the p95 of recent successful attempts; the first answer wins and the other is cancelled.
+ * A circuit breaker counts transient failures and, while open, refuses calls immediately with an
+ * LlmCapacityExceededException (503 + Retry-After) instead of letting every user wait for timeouts.
+ *
+ * Every request that goes out (first attempt, retry or hedge) holds its own LlmAdmissionLimiter slot for
+ * exactly as long as it runs; backoff sleeps hold none. The first attempt queues for a slot like any caller,
+ * a hedge is only sent if a slot is free at once. A full node, or an attempt executor that has no thread
+ * left, fails the call with an LlmCapacityExceededException (503 + Retry-After).
+ *
+ * Streams are retried only while they have not emitted anything; the per-attempt timeout applies to the
+ * first element.
+ *
+ * Meters: jdmatchr.llm.attempts{operation, outcome=success|transient_failure|failure}, jdmatchr.llm.hedges{operation},
+ * jdmatchr.llm.circuit.state{target} (0 closed, 1 half-open, 2 open).
+ */
+@Component
+public class ResilientLlmClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilientLlmClient.class);
+    private static final String METRIC_PREFIX = "jdmatchr.llm";
+    // Latency samples kept for the hedge delay, and how many are needed before hedging starts
+    private static final int LATENCY_WINDOW = 100;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+    private static final String DEFAULT_TARGET = "default";
+
+    private final MeterRegistry meterRegistry;
+    private final LlmAdmissionLimiter admissionLimiter;
+    private final Executor attemptExecutor;
+    // One breaker per target (model), created on first use
+    private final Map<String, LlmCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Supplier<LlmCircuitBreaker> circuitBreakerFactory;
+    private final int maxAttempts;
+    private final Duration attemptTimeout;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final boolean hedgingEnabled;
+    private final Duration minHedgeDelay;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock latencyLock = new ReentrantLock();
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int latencyCount;
+    private int latencyNext;
+
+    @Autowired
+    public ResilientLlmClient(MeterRegistry meterRegistry,
+                              LlmAdmissionLimiter admissionLimiter,
+                              @Qualifier("llmCallExecutor") Executor attemptExecutor,
+                              @Value("${jdmatchr.llm.resilience.max-attempts:3}") int maxAttempts,
+                              @Value("${jdmatchr.llm.resilience.attempt-timeout:PT60S}") Duration attemptTimeout,
+                              @Value("${jdmatchr.llm.resilience.backoff.initial:PT0.5S}") Duration initialBackoff,
+                              @Value("${jdmatchr.llm.resilience.backoff.max:PT8S}") Duration maxBackoff,
+                              @Value("${jdmatchr.llm.resilience.hedging.enabled:false}") boolean hedgingEnabled,
+                              @Value("${jdmatchr.llm.resilience.hedging.min-delay:PT2S}") Duration minHedgeDelay,
+                              @Value("${jdmatchr.llm.resilience.circuit-breaker.window-size:20}") int windowSize,
+                              @Value("${jdmatchr.llm.resilience.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                              @Value("${jdmatchr.llm.resilience.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                              @Value("${jdmatchr.llm.resilience.circuit-breaker.open-duration:PT30S}") Duration openDuration) {
+        this(meterRegistry, admissionLimiter, attemptExecutor, maxAttempts, attemptTimeout, initialBackoff, maxBackoff, hedgingEnabled, minHedgeDelay,
+                () -> new LlmCircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openDuration, System::nanoTime), System::nanoTime);
+    }
+
+    ResilientLlmClient(MeterRegistry meterRegistry, LlmAdmissionLimiter admissionLimiter, Executor attemptExecutor,
+                       int maxAttempts, Duration attemptTimeout,
+                       Duration initialBackoff, Duration maxBackoff, boolean hedgingEnabled, Duration minHedgeDelay,
+                       Supplier<LlmCircuitBreaker> circuitBreakerFactory, LongSupplier nanoClock) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("jdmatchr.llm.resilience.max-attempts must be at least 1");
+        }
+        this.meterRegistry = meterRegistry;
+        this.admissionLimiter = admissionLimiter;
+        this.attemptExecutor = attemptExecutor;
+        this.maxAttempts = maxAttempts;
+        this.attemptTimeout = attemptTimeout;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.hedgingEnabled = hedgingEnabled;
+        this.minHedgeDelay = minHedgeDelay;
+        this.circuitBreakerFactory = circuitBreakerFactory;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Runs a blocking LLM call with timeouts, retries, optional hedging and the circuit breaker.
+     * @param operation Short, low-cardinality name of the call site (e.g. "resume-analysis").
+     * @param call The call; it must be safe to run more than once (and twice at the same time when hedging).
+     * @return The first successful result.
+     * @throws LlmCapacityExceededException If the circuit breaker is open or no admission slot became free in time.
+     */
+    public <T> T call(String operation, Supplier<T> call) {
+        return call(operation, DEFAULT_TARGET, call);
+    }
+
+    /**
+     * Like call(operation, call), with a separate circuit breaker for each target (e.g. a model name), so one
+     * degraded model does not block calls to the others.
+     */
+    public <T> T call(String operation, String target, Supplier<T> call) {
+        return call(operation, target, call, latency -> { });
+    }
+
+    /**
+     * Like call(operation, target, call), also reporting the latency of the attempt that succeeded, measured
+     * from its admission. Waiting for a slot, earlier failed attempts and backoff are not part of it.
+     * @param latencyListener Receives that latency once, before the result is returned.
+     */
+    public <T> T call(String operation, String target, Supplier<T> call, Consumer<Duration> latencyListener) {
+        LlmCircuitBreaker circuitBreaker = circuitBreaker(target);
+        for (int attempt = 1; ; attempt++) {
+            acquirePermission(operation, circuitBreaker);
+            try {
+                Attempt<T> succeeded = attemptWithHedge(operation, call);
+                onAttemptSucceeded(operation, circuitBreaker);
+                latencyListener.accept(Duration.ofNanos(succeeded.latencyNanos()));
+                return succeeded.result();
+            } catch (LlmCapacityExceededException e) {
+                circuitBreaker.onIgnored(); // Nothing was sent
+                throw e;
+            } catch (RuntimeException e) {
+                boolean retry = onAttemptFailed(operation, circuitBreaker, e, attempt);
+                if (!retry) {
+                    throw e;
+                }
+            }
+            sleep(backoff(attempt));
+        }
+    }
+
+    /**
+     * Streaming counterpart of call. Only failures before the first element are retried, so a client never
+     * sees a response restart halfway through.
+     * @param operation Short, low-cardinality name of the call site (e.g. "gemini-chat").
+     * @param stream Creates the upstream Flux; invoked again for every retry.
+     */
+    public <T> Flux<T> stream(String operation, Supplier<Flux<T>> stream) {
+        return stream(operation, DEFAULT_TARGET, stream);
+    }
+
+    /**
+     * Like stream(operation, stream), with the circuit breaker of the given target.
+     */
+    public <T> Flux<T> stream(String operation, String target, Supplier<Flux<T>> stream) {
+        LlmCircuitBreaker circuitBreaker = circuitBreaker(target);
+        return Flux.defer(() -> {
+            AtomicBoolean emitted = new AtomicBoolean();
+            return Flux.defer(() -> attemptStream(operation, circuitBreaker, stream, emitted))
+                    .retryWhen(Retry.backoff(maxAttempts - 1, initialBackoff)
+                            .maxBackoff(maxBackoff)
+                            .jitter(1.0)
+                            .filter(e -> !emitted.get() && !(e instanceof LlmCapacityExceededException) && LlmErrors.isTransient(e))
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+        });
+    }
+
+    private <T> Flux<T> attemptStream(String operation, LlmCircuitBreaker circuitBreaker, Supplier<Flux<T>> stream,
+                                      AtomicBoolean emitted) {
+        acquirePermission(operation, circuitBreaker);
+        AtomicBoolean firstSeen = new AtomicBoolean();
+        // The timeout starts once the request is admitted, not while it waits for a slot
+        return admissionLimiter.stream(operation, () -> stream.get().timeout(Mono.delay(attemptTimeout), element -> Mono.never()))
+                .doOnNext(element -> {
+                    if (firstSeen.compareAndSet(false, true)) {
+                        emitted.set(true);
+                        onAttemptSucceeded(operation, circuitBreaker);
+                    }
+                })
+                .doOnError(e -> {
+                    if (e instanceof LlmCapacityExceededException) {
+                        circuitBreaker.onIgnored(); // Not admitted, so nothing was sent
+                    } else if (!firstSeen.get()) {
+                        onAttemptFailed(operation, circuitBreaker, e, 0);
+                    }
+                })
+                .doOnComplete(() -> {
+                    if (!firstSeen.get()) {
+                        onAttemptSucceeded(operation, circuitBreaker);
+                    }
+                })
+                .doOnCancel(() -> {
+                    if (!firstSeen.get()) {
+                        circuitBreaker.onIgnored();
+                    }
+                });
+    }
+
+    private LlmCircuitBreaker circuitBreaker(String target) {
+        return circuitBreakers.computeIfAbsent(target, key -> {
+            LlmCircuitBreaker breaker = circuitBreakerFactory.get();
+            Gauge.builder(METRIC_PREFIX + ".circuit.state", breaker, b -> b.getState().ordinal())
+                    .tag("target", key)
+                    .register(meterRegistry);
+            return breaker;
+        });
+    }
+
+    /**
+     * @return False while the target's circuit breaker refuses calls or lets only a trial call through.
+     */
+    public boolean isCircuitClosed(String target) {
+        LlmCircuitBreaker breaker = circuitBreakers.get(target);
+        return breaker == null || breaker.getState() == LlmCircuitBreaker.State.CLOSED;
+    }
+
+    private void acquirePermission(String operation, LlmCircuitBreaker circuitBreaker) {
+        if (!circuitBreaker.tryAcquire()) {
+            Duration retryAfter = circuitBreaker.remainingOpenTime();
+            logger.warn("LLM call [{}] refused: circuit breaker is {}.", operation, circuitBreaker.getState());
+            throw new LlmCapacityExceededException("The AI service is temporarily unavailable. Please try again shortly.",
+                    retryAfter.isZero() ? Duration.ofSeconds(1) : retryAfter);
+        }
+    }
+
+    private void onAttemptSucceeded(String operation, LlmCircuitBreaker circuitBreaker) {
+        circuitBreaker.onSuccess();
+        attemptCounter(operation, "success").increment();
+    }
+
+    /**
+     * Records a failed attempt.
+     * @param attempt The attempt number, or 0 when the caller decides about retries itself.
+     * @return Whether call() should try again.
+     */
+    private boolean onAttemptFailed(String operation, LlmCircuitBreaker circuitBreaker, Throwable error, int attempt) {
+        boolean transientFailure = LlmErrors.isTransient(error);
+        if (transientFailure) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onIgnored();
+        }
+        attemptCounter(operation, transientFailure ? "transient_failure" : "failure").increment();
+        boolean retry = transientFailure && attempt > 0 && attempt < maxAttempts;
+        logger.warn("LLM call [{}] attempt {} failed ({}): {}.{}", operation, attempt > 0 ? attempt : "-",
+                transientFailure ? "transient" : "permanent", error.getMessage(), retry ? " Retrying." : "");
+        return retry;
+    }
+
+    /**
+     * One attempt: once admitted, the call runs on the attempt executor and the caller waits at most
+     * attemptTimeout. With hedging on, a second copy is started once the first has been running for the
+     * hedge delay, provided an admission slot is free for it.
+     */
+    private <T> Attempt<T> attemptWithHedge(String operation, Supplier<T> call) {
+        CompletionService<T> completion = new ExecutorCompletionService<>(attemptExecutor);
+        List<Request<T>> started = new ArrayList<>(2);
+        started.add(submit(completion, admissionLimiter.acquire(operation), call));
+        long start = nanoClock.getAsLong();
+        long deadline = start + attemptTimeout.toNanos();
+        Long hedgeAt = hedgingEnabled ? hedgeDelayNanos() : null;
+        if (hedgeAt != null) {
+            hedgeAt += start;
+        }
+        int pending = 1;
+        RuntimeException lastFailure = null;
+        try {
+            while (pending > 0) {
+                long now = nanoClock.getAsLong();
+                long waitUntil = hedgeAt != null ? Math.min(hedgeAt, deadline) : deadline;
+                Future<T> done = completion.poll(Math.max(0, waitUntil - now), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    if (hedgeAt != null && nanoClock.getAsLong() < deadline) {
+                        hedgeAt = null;
+                        Request<T> hedge = hedge(completion, operation, call);
+                        if (hedge != null) {
+                            started.add(hedge);
+                            pending++;
+                        }
+                        continue;
+                    }
+                    if (nanoClock.getAsLong() >= deadline) {
+                        throw new AttemptTimeoutException("LLM call timed out after " + attemptTimeout.toMillis() + " ms");
+                    }
+                    continue;
+                }
+                pending--;
+                try {
+                    T result = done.get();
+                    long latency = nanoClock.getAsLong() - start;
+                    recordLatency(latency);
+                    return new Attempt<>(result, latency);
+                } catch (ExecutionException e) {
+                    lastFailure = e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+                    hedgeAt = null; // A failed first attempt goes back to the retry loop rather than being hedged
+                }
+            }
+            throw lastFailure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the AI service", e);
+        } finally {
+            // Whichever attempt lost (or timed out) is abandoned
+            started.forEach(Request::cancel);
+        }
+    }
+
+    /**
+     * Sends the hedged copy of a slow attempt, unless the node has no slot or thread to spare for it.
+     * @return The hedge, or null if it was not sent.
+     */
+    private <T> Request<T> hedge(CompletionService<T> completion, String operation, Supplier<T> call) {
+        Optional<LlmAdmissionLimiter.Permit> permit = admissionLimiter.tryAcquire(operation);
+        if (permit.isEmpty()) {
+            logger.info("LLM call [{}] slower than the hedge delay, but no admission slot is free; not hedging.", operation);
+            return null;
+        }
+        try {
+            Request<T> hedge = submit(completion, permit.get(), call);
+            logger.info("LLM call [{}] slower than the hedge delay; sent a hedged request.", operation);
+            meterRegistry.counter(METRIC_PREFIX + ".hedges", "operation", operation).increment();
+            return hedge;
+        } catch (LlmCapacityExceededException e) {
+            logger.info("LLM call [{}] slower than the hedge delay, but no attempt thread is free; not hedging.", operation);
+            return null;
+        }
+    }
+
+    /**
+     * Starts one request on the attempt executor; it gives the permit back when it ends.
+     * @throws LlmCapacityExceededException If the executor has no thread for it (the permit is given back).
+     */
+    private <T> Request<T> submit(CompletionService<T> completion, LlmAdmissionLimiter.Permit permit, Supplier<T> call) {
+        AtomicBoolean running = new AtomicBoolean();
+        try {
+            Future<T> future = completion.submit(() -> {
+                running.set(true);
+                try {
+                    T result = call.get();
+                    permit.succeeded();
+                    return result;
+                } catch (RuntimeException e) {
+                    permit.failed(e);
+                    throw e;
+                } finally {
+                    permit.abandoned(); // No-op unless the call ended with an Error
+                }
+            });
+            return new Request<>(future, permit, running);
+        } catch (RejectedExecutionException e) {
+            permit.abandoned();
+            logger.warn("No attempt thread free for an LLM call: {}", e.getMessage());
+            throw new LlmCapacityExceededException("Too many AI requests are in progress. Please try again shortly.",
+                    admissionLimiter.getRetryAfter());
+        }
+    }
+
+    /**
+     * The result of a successful attempt and how long it took from admission.
+     */
+    private record Attempt<T>(T result, long latencyNanos) {
+    }
+
+    /**
+     * A request on the attempt executor and the admission slot it holds.
+     */
+    private record Request<T>(Future<T> future, LlmAdmissionLimiter.Permit permit, AtomicBoolean running) {
+
+        void cancel() {
+            // A request cancelled before it started never runs, so it cannot give its slot back itself
+            if (future.cancel(true) && !running.get()) {
+                permit.abandoned();
+            }
+        }
+    }
+
+    /**
+     * @return The p95 of recent successful attempt latencies (at least min-delay), or null until enough samples exist.
+     */
+    private Long hedgeDelayNanos() {
+        long[] samples;
+        latencyLock.lock();
+        try {
+            if (latencyCount < MIN_LATENCY_SAMPLES) {
+                return null;
+            }
+            samples = Arrays.copyOf(latencies, latencyCount);
+        } finally {
+            latencyLock.unlock();
+        }
+        Arrays.sort(samples);
+        long p95 = samples[(int) Math.ceil(samples.length * 0.95) - 1];
+        return Math.max(p95, minHedgeDelay.toNanos());
+    }
+
+    private void recordLatency(long nanos) {
+        latencyLock.lock();
+        try {
+            latencies[latencyNext] = nanos;
+            latencyNext = (latencyNext + 1) % LATENCY_WINDOW;
+            latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW);
+        } finally {
+            latencyLock.unlock();
+        }
+    }
+
+    /**
+     * Exponential backoff with full jitter: a random wait between 0 and min(max, initial * 2^(attempt-1)).
+     */
+    private Duration backoff(int attempt) {
+        long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off from a failed AI call", e);
+        }
+    }
+
+    private Counter attemptCounter(String operation, String outcome) {
+        return meterRegistry.counter(METRIC_PREFIX + ".attempts", "operation", operation, "outcome", outcome);
+    }
+
+    /**
+     * The per-attempt timeout; a TimeoutException cause makes it count as transient.
+     */
+    static final class AttemptTimeoutException extends RuntimeException {
+        AttemptTimeoutException(String message) {
+            super(message, new TimeoutException(message));
+        }
+    }
+}
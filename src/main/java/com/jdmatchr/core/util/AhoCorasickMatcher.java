@@ -0,0 +1,157 @@
+package com.jdmatchr.core.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Finds every occurrence of a fixed set of terms in one pass over the text (Aho-Corasick automaton), so
+ * matching a few hundred skills against a resume costs one walk over the resume instead of one per skill.
+ *
+ * Matching is case-insensitive, any whitespace run in the text matches a single space in a term, and
+ * only whole words match: "java" is not found in "javascript", while "c++" and "node.js" work as expected.
+ * Instances are immutable and thread-safe.
+ */
+public final class AhoCorasickMatcher {
+
+    /**
+     * @param termIndex Index of the term in the list the matcher was built from.
+     * @param start First char of the match in the normalized text.
+     * @param end Index after the last char of the match in the normalized text.
+     */
+    public record Match(int termIndex, int start, int end) {
+    }
+
+    private static final int[] NO_OUTPUTS = new int[0];
+
+    // Node 0 is the root; transitions are per-node maps because terms use a small, sparse alphabet
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final int[] failure;
+    private final int[][] outputs; // Term indexes ending at each node, including those reached via failure links
+    private final int[] termLengths;
+
+    /**
+     * @param terms The terms to find. Blank terms never match.
+     */
+    public AhoCorasickMatcher(List<String> terms) {
+        termLengths = new int[terms.size()];
+        List<List<Integer>> nodeOutputs = new ArrayList<>();
+        transitions.add(new HashMap<>());
+        nodeOutputs.add(new ArrayList<>());
+
+        for (int termIndex = 0; termIndex < terms.size(); termIndex++) {
+            char[] term = normalize(terms.get(termIndex));
+            termLengths[termIndex] = term.length;
+            if (term.length == 0) {
+                continue;
+            }
+            int node = 0;
+            for (char c : term) {
+                Integer next = transitions.get(node).get(c);
+                if (next == null) {
+                    next = transitions.size();
+                    transitions.get(node).put(c, next);
+                    transitions.add(new HashMap<>());
+                    nodeOutputs.add(new ArrayList<>());
+                }
+                node = next;
+            }
+            nodeOutputs.get(node).add(termIndex);
+        }
+
+        // Breadth-first, so a node's failure target (a shorter suffix) is complete before the node itself
+        failure = new int[transitions.size()];
+        Queue<Integer> queue = new ArrayDeque<>(transitions.get(0).values());
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (Map.Entry<Character, Integer> edge : transitions.get(node).entrySet()) {
+                int child = edge.getValue();
+                int fallback = failure[node];
+                while (fallback != 0 && !transitions.get(fallback).containsKey(edge.getKey())) {
+                    fallback = failure[fallback];
+                }
+                Integer target = transitions.get(fallback).get(edge.getKey());
+                failure[child] = target != null && target != child ? target : 0;
+                nodeOutputs.get(child).addAll(nodeOutputs.get(failure[child]));
+                queue.add(child);
+            }
+        }
+
+        outputs = new int[nodeOutputs.size()][];
+        for (int node = 0; node < outputs.length; node++) {
+            List<Integer> found = nodeOutputs.get(node);
+            outputs[node] = found.isEmpty() ? NO_OUTPUTS : found.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * @return All whole-word matches, ordered by end position. Overlapping matches ("spring" and
+     *         "spring boot") are all reported.
+     */
+    public List<Match> findAll(String text) {
+        char[] chars = normalize(text);
+        List<Match> matches = new ArrayList<>();
+        int node = 0;
+        for (int i = 0; i < chars.length; i++) {
+            char c = chars[i];
+            Integer next;
+            while ((next = transitions.get(node).get(c)) == null && node != 0) {
+                node = failure[node];
+            }
+            node = next != null ? next : 0;
+            for (int termIndex : outputs[node]) {
+                int start = i + 1 - termLengths[termIndex];
+                if (isBoundary(chars, start - 1) && isBoundary(chars, i + 1)) {
+                    matches.add(new Match(termIndex, start, i + 1));
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return How often each term occurs as a whole word, indexed like the terms.
+     */
+    public int[] countAll(String text) {
+        int[] counts = new int[termLengths.length];
+        for (Match match : findAll(text)) {
+            counts[match.termIndex()]++;
+        }
+        return counts;
+    }
+
+    private static boolean isBoundary(char[] chars, int index) {
+        return index < 0 || index >= chars.length || !Character.isLetterOrDigit(chars[index]);
+    }
+
+    /**
+     * Lower-cases and collapses whitespace runs to one space, the same way for terms and text.
+     */
+    private static char[] normalize(String text) {
+        if (text == null) {
+            return new char[0];
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        char[] out = new char[lower.length()];
+        int length = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = length > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out[length++] = ' ';
+                pendingSpace = false;
+            }
+            out[length++] = c;
+        }
+        return length == out.length ? out : Arrays.copyOf(out, length);
+    }
+}
@@ -0,0 +1,93 @@
+package com.jdmatchr.core.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small thread-safe in-memory cache with a hard size cap (least-recently-used eviction)
+ * and per-entry expiry. Expired entries are dropped lazily on access.
+ *
+ * Intentionally dependency-free; it is meant for modest, per-node caches
+ * (a few thousand entries), not as a general purpose cache provider.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final int maxEntries;
+    private final Duration defaultTtl;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    public BoundedTtlCache(int maxEntries, Duration defaultTtl) {
+        this(maxEntries, defaultTtl, Clock.systemUTC());
+    }
+
+    public BoundedTtlCache(int maxEntries, Duration defaultTtl, Clock clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.defaultTtl = defaultTtl;
+        this.clock = clock;
+        // accessOrder=true turns the LinkedHashMap into an LRU list
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            // Qualified: inside this LinkedHashMap subclass a bare Entry resolves to LinkedHashMap.Entry on JDK 21
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, BoundedTtlCache.Entry<V>> eldest) {
+                return size() > BoundedTtlCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the cached value, or null if absent or expired.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(clock.instant())) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    /**
+     * Stores a value using the cache's default TTL.
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.instant().plus(defaultTtl)));
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return the number of stored entries, including expired ones not yet evicted.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    private record Entry<V>(V value, Instant expiresAt) {
+        boolean isExpired(Instant now) {
+            return !now.isBefore(expiresAt);
+        }
+    }
+}
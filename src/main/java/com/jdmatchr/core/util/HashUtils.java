@@ -0,0 +1,44 @@
+package com.jdmatchr.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 helpers used to build content-addressed cache keys.
+ */
+public final class HashUtils {
+
+    private HashUtils() {
+    }
+
+    public static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE is required to ship SHA-256
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Hashes the given parts as one value. Each part is length-prefixed so that
+     * ("ab", "c") and ("a", "bc") produce different digests. Null parts are treated as empty.
+     *
+     * @return the lowercase hex encoded SHA-256 digest (64 chars).
+     */
+    public static String sha256Hex(String... parts) {
+        MessageDigest digest = newSha256();
+        for (String part : parts) {
+            byte[] bytes = (part != null ? part : "").getBytes(StandardCharsets.UTF_8);
+            digest.update(intToBytes(bytes.length));
+            digest.update(bytes);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static byte[] intToBytes(int value) {
+        return new byte[] {(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+    }
+}
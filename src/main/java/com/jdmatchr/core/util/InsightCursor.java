@@ -0,0 +1,41 @@
+package com.jdmatchr.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a user's insight history: the (createdAt, id) of the last insight on a page. Sent to clients
+ * as an opaque URL-safe token so the encoding can change without breaking the API.
+ */
+public record InsightCursor(OffsetDateTime createdAt, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = createdAt.toInstant().toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException If token was not produced by encode().
+     */
+    public static InsightCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed history cursor");
+            }
+            Instant createdAt = Instant.parse(raw.substring(0, separator));
+            UUID id = UUID.fromString(raw.substring(separator + 1));
+            return new InsightCursor(createdAt.atOffset(ZoneOffset.UTC), id);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed history cursor", e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.jdmatchr.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Incremental parser for a streamed JSON object that reports each top-level field as soon as its
+ * value is complete. Feed it the model output chunk by chunk; anything before the opening brace
+ * (such as a ```json fence) and after the closing brace is ignored, so fences never need stripping.
+ * If the output stops early, pendingField() returns the value that was still being written.
+ *
+ * It only tracks structure (nesting, strings, escapes). Values are returned as raw JSON text, to be
+ * read with Jackson. Numbers, booleans and null are complete once the next ',' or '}' arrives.
+ * Instances are not thread-safe; use one per stream.
+ */
+public final class JsonFieldStreamParser {
+
+    /**
+     * A completed top-level field.
+     * @param name The field name.
+     * @param json The raw JSON text of its value.
+     */
+    public record Field(String name, String json) {
+    }
+
+    private enum State { BEFORE_OBJECT, EXPECT_KEY, IN_KEY, EXPECT_COLON, IN_VALUE, DONE }
+
+    private State state = State.BEFORE_OBJECT;
+    private final StringBuilder key = new StringBuilder();
+    private final StringBuilder value = new StringBuilder();
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+
+    /**
+     * @param chunk The next piece of streamed text.
+     * @return The fields completed by this chunk, in order (usually empty or one).
+     */
+    public List<Field> feed(CharSequence chunk) {
+        List<Field> completed = new ArrayList<>(1);
+        for (int i = 0; i < chunk.length(); i++) {
+            accept(chunk.charAt(i), completed);
+        }
+        return completed;
+    }
+
+    /**
+     * @return The field whose value was still incomplete when the input stopped (e.g. the model hit its output
+     *         token limit), with the raw text received so far; empty if no value was in progress.
+     */
+    public Optional<Field> pendingField() {
+        if (state != State.IN_VALUE || value.toString().isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Field(key.toString(), value.toString()));
+    }
+
+    /**
+     * @return True once the closing brace of the top-level object has been seen.
+     */
+    public boolean isComplete() {
+        return state == State.DONE;
+    }
+
+    private void accept(char c, List<Field> completed) {
+        switch (state) {
+            case BEFORE_OBJECT -> {
+                if (c == '{') {
+                    state = State.EXPECT_KEY;
+                }
+            }
+            case EXPECT_KEY -> {
+                if (c == '"') {
+                    key.setLength(0);
+                    state = State.IN_KEY;
+                } else if (c == '}') {
+                    state = State.DONE;
+                }
+                // Whitespace and the ',' between fields are skipped
+            }
+            case IN_KEY -> {
+                if (escaped) {
+                    key.append(c);
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    state = State.EXPECT_COLON;
+                } else {
+                    key.append(c);
+                }
+            }
+            case EXPECT_COLON -> {
+                if (c == ':') {
+                    value.setLength(0);
+                    depth = 0;
+                    inString = false;
+                    state = State.IN_VALUE;
+                }
+            }
+            case IN_VALUE -> acceptValueChar(c, completed);
+            case DONE -> {
+                // Trailing text (closing fence, commentary) is ignored
+            }
+        }
+    }
+
+    private void acceptValueChar(char c, List<Field> completed) {
+        if (inString) {
+            value.append(c);
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                inString = false;
+                if (depth == 0) {
+                    complete(completed, State.EXPECT_KEY);
+                }
+            }
+            return;
+        }
+        switch (c) {
+            case '"' -> {
+                value.append(c);
+                inString = true;
+            }
+            case '{', '[' -> {
+                value.append(c);
+                depth++;
+            }
+            case '}', ']' -> {
+                if (depth == 0) {
+                    // Closing brace of the top-level object right after a primitive value
+                    complete(completed, State.DONE);
+                } else {
+                    value.append(c);
+                    depth--;
+                    if (depth == 0) {
+                        complete(completed, State.EXPECT_KEY);
+                    }
+                }
+            }
+            case ',' -> {
+                if (depth == 0) {
+                    complete(completed, State.EXPECT_KEY);
+                } else {
+                    value.append(c);
+                }
+            }
+            default -> {
+                if (value.length() > 0 || !Character.isWhitespace(c)) {
+                    value.append(c);
+                }
+            }
+        }
+    }
+
+    private void complete(List<Field> completed, State next) {
+        String json = value.toString().trim();
+        if (!json.isEmpty()) {
+            completed.add(new Field(key.toString(), json));
+        }
+        value.setLength(0);
+        state = next;
+    }
+}
@@ -0,0 +1,110 @@
+package com.jdmatchr.core.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Turns a JSON value that was cut off mid-way (typically a model hitting its output token limit) into
+ * syntactically complete candidates, by cutting back to a point where the last element was complete and
+ * closing the open arrays and objects.
+ *
+ * A partly written element is always dropped, never completed: ["Quantify impact", "Add metr becomes
+ * ["Quantify impact"], and {"a": 1, "b": becomes {"a": 1}. A container is never emptied: if not even its
+ * first element is complete there is nothing to keep, and an invented {} or [] would pass for real data.
+ * A bare number, string or literal cannot be told apart from a truncated one and yields no candidates.
+ * Callers try the candidates in order with a real JSON parser and take the first that parses; only
+ * structure is tracked here.
+ */
+public final class JsonRepair {
+
+    private JsonRepair() {
+    }
+
+    /**
+     * @param partial The beginning of a JSON array or object.
+     * @param maxCandidates The maximum number of candidates to return.
+     * @return Complete JSON texts, longest (least cut) first. Empty if partial is not an array or object.
+     */
+    public static List<String> closeTruncated(String partial, int maxCandidates) {
+        String trimmed = partial == null ? "" : partial.strip();
+        List<String> candidates = new ArrayList<>();
+        if (trimmed.isEmpty() || (trimmed.charAt(0) != '{' && trimmed.charAt(0) != '[')) {
+            return candidates;
+        }
+
+        // Cut points: before each ',' between elements (never right after an opening bracket, see above)
+        List<Integer> cuts = new ArrayList<>();
+        boolean inString = false;
+        boolean escaped = false;
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == ',') {
+                cuts.add(i);
+            }
+        }
+        // The text as it is, if it merely lacks closing brackets: it ended right after a string or container.
+        // A trailing number or literal might itself be cut short, so that case falls back to the last ','.
+        char last = trimmed.charAt(trimmed.length() - 1);
+        if (!inString && (last == '"' || last == '}' || last == ']')) {
+            cuts.add(trimmed.length());
+        }
+
+        for (int i = cuts.size() - 1; i >= 0 && candidates.size() < maxCandidates; i--) {
+            String closed = close(trimmed.substring(0, cuts.get(i)));
+            if (closed != null && !candidates.contains(closed)) {
+                candidates.add(closed);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Appends the closing brackets for every container still open at the end of text.
+     * @return The closed text, or null if text ends inside a string.
+     */
+    private static String close(String text) {
+        Deque<Character> open = new ArrayDeque<>();
+        boolean inString = false;
+        boolean escaped = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{') {
+                open.push('}');
+            } else if (c == '[') {
+                open.push(']');
+            } else if ((c == '}' || c == ']') && !open.isEmpty()) {
+                open.pop();
+            }
+        }
+        if (inString) {
+            return null;
+        }
+        StringBuilder closed = new StringBuilder(text.stripTrailing());
+        while (!open.isEmpty()) {
+            closed.append(open.pop());
+        }
+        return closed.toString();
+    }
+}
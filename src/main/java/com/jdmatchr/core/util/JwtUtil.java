@@ -2,6 +2,7 @@ package com.jdmatchr.core.util;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 // import io.jsonwebtoken.SignatureAlgorithm; // Not directly used for parsing/validation here
@@ -17,6 +18,7 @@ import org.springframework.stereotype.Component;
 import jakarta.annotation.PostConstruct;
 import java.security.Key;
 import java.util.Date;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Component
@@ -28,6 +30,8 @@ public class JwtUtil {
     private String secret;
 
     private Key signingKey;
+    // Immutable and thread-safe once built, so one instance serves every request
+    private JwtParser parser;
 
     @PostConstruct
     public void init() {
@@ -36,6 +40,9 @@ public class JwtUtil {
             this.secret = "DefaultInsecureSecretKeyForDevelopmentEnvironmentOnly1234567890";
         }
         this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
         logger.info("JWT Signing Key initialized.");
     }
 
@@ -64,71 +71,24 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        try {
-            return extractExpiration(token).before(new Date());
-        } catch (ExpiredJwtException e) {
-            logger.warn("Token is expired: {}", e.getMessage());
-            return true; // Token is explicitly expired
-        } catch (Exception e) {
-            logger.error("Error extracting expiration or checking if token expired: {}", e.getMessage());
-            return true; // Treat as expired if an error occurs here
-        }
+        return parser.parseClaimsJws(token).getBody();
     }
 
     /**
-     * Validates the JWT token.
-     * If userDetails is provided, it also checks if the email in the token matches userDetails.getUsername().
+     * Verifies the token (format, signature and expiration) and returns its claims, parsing it exactly once.
+     * This is the per-request entry point: callers read everything they need from the returned claims
+     * instead of calling the extract* methods, each of which parses and verifies the token again.
+     * @return The verified claims, or empty if the token is not valid.
      */
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        logger.info("Validating token. UserDetails provided: {}", (userDetails != null));
-        if (userDetails != null) {
-            logger.info("UserDetails username (expected email): {}", userDetails.getUsername());
-        }
-
+    public Optional<Claims> parseVerifiedClaims(String token) {
         try {
-            // First, check basic token validity (signature, expiration, format)
-            // extractAllClaims will throw an exception if the token is invalid per se
-            extractAllClaims(token); // This implicitly checks signature and format
-            System.out.println(token);
-            if (isTokenExpired(token)) {
-                logger.warn("Token validation failed: Token is expired.");
-                return false;
-            }
-
-            // If userDetails are provided, perform an additional check
-            if (userDetails != null) {
-                final String emailFromToken = extractEmail(token);
-                System.out.println(userDetails);
-                System.out.println(emailFromToken);
-                logger.info("Email extracted from token for comparison: {}", emailFromToken);
-                if (emailFromToken != null && emailFromToken.equals(userDetails.getUsername())) {
-                    logger.info("Token email matches UserDetails username. Token is valid for this user.");
-                    return true;
-                } else {
-                    logger.warn("Token validation failed: Email in token ('{}') does not match UserDetails username ('{}').",
-                            emailFromToken, userDetails.getUsername());
-                    return false;
-                }
-            }
-
-            // If userDetails is null, and we've reached here, the token is structurally valid and not expired.
-            logger.info("Token is structurally valid and not expired (UserDetails not provided for specific user check).");
-            return true;
-
+            return Optional.of(extractAllClaims(token));
+        } catch (ExpiredJwtException ex) {
+            logger.warn("Expired JWT token: {}", ex.getMessage());
         } catch (SignatureException ex) {
             logger.error("Invalid JWT signature: {}", ex.getMessage());
         } catch (MalformedJwtException ex) {
             logger.error("Invalid JWT token (malformed): {}", ex.getMessage());
-        } catch (ExpiredJwtException ex) { // Should be caught by isTokenExpired, but good to have
-            logger.error("Expired JWT token (caught directly in validateToken): {}", ex.getMessage());
         } catch (UnsupportedJwtException ex) {
             logger.error("Unsupported JWT token: {}", ex.getMessage());
         } catch (IllegalArgumentException ex) {
@@ -136,6 +96,30 @@ public class JwtUtil {
         } catch (Exception ex) { // Catch-all for any other parsing/validation errors
             logger.error("Unexpected error validating token: {}", ex.getMessage());
         }
+        return Optional.empty();
+    }
+
+    /**
+     * Validates the JWT token.
+     * If userDetails is provided, it also checks if the email in the token matches userDetails.getUsername().
+     */
+    public Boolean validateToken(String token, UserDetails userDetails) {
+        Optional<Claims> claims = parseVerifiedClaims(token); // Signature, format and expiration
+        if (claims.isEmpty()) {
+            return false;
+        }
+        if (userDetails == null) {
+            logger.debug("Token is structurally valid and not expired (UserDetails not provided for specific user check).");
+            return true;
+        }
+
+        final String emailFromToken = claims.get().get("email", String.class);
+        if (emailFromToken != null && emailFromToken.equals(userDetails.getUsername())) {
+            logger.debug("Token email matches UserDetails username. Token is valid for this user.");
+            return true;
+        }
+        logger.warn("Token validation failed: Email in token ('{}') does not match UserDetails username ('{}').",
+                emailFromToken, userDetails.getUsername());
         return false;
     }
 
@@ -0,0 +1,72 @@
+package com.jdmatchr.core.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one: the first caller (the leader) runs the loader,
+ * callers arriving while it runs wait for and share its result or exception. Nothing is kept once the
+ * call finishes, so a later call with the same key runs the loader again (caching is a separate concern).
+ *
+ * Followers block their own thread while waiting; the loader runs on the leader's thread.
+ *
+ * @param <K> key type
+ * @param <V> result type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public V execute(K key, Supplier<V> loader) {
+        return execute(key, loader, () -> { });
+    }
+
+    /**
+     * @param onJoin Runs (on the caller's thread) when the call joins one that is already in flight.
+     */
+    public V execute(K key, Supplier<V> loader, Runnable onJoin) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            onJoin.run();
+            return await(existing);
+        }
+        try {
+            V result = loader.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * @return The number of keys with a call in flight.
+     */
+    public int size() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an in-flight call", e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.jdmatchr.core.util;
+
+/**
+ * Single-pass replacement for the replaceAll chains we used to run on resume and JD text.
+ *
+ * One walk over the input strips non-ASCII chars, collapses whitespace runs, optionally cuts
+ * "references"/"declaration" sections to the end of their line, trims and truncates. The output is
+ * identical to
+ * <pre>
+ * text.replaceAll("[^\\x00-\\x7F]", "")
+ *     .replaceAll("\\s{2,}", " ")
+ *     .replaceAll("(?i)(references|declaration).*", "")   // only when cutSections is true
+ *     .trim()
+ * </pre>
+ * followed by {@code StringUtils.abbreviate(result, maxLength)}, without compiling a Pattern or
+ * allocating an intermediate string per step.
+ */
+public final class TextNormalizer {
+
+    /** Passing this as maxLength disables truncation. */
+    public static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    private static final String ELLIPSIS = "...";
+    private static final char[][] SECTION_KEYWORDS = {"references".toCharArray(), "declaration".toCharArray()};
+    // Once this many chars follow a position, no later keyword match can cut it away anymore
+    private static final int KEYWORD_LOOKAHEAD = 11;
+
+    private TextNormalizer() {
+    }
+
+    public static String normalize(String text, boolean cutSections) {
+        return normalize(text, cutSections, NO_LIMIT);
+    }
+
+    /**
+     * @param text The raw text. Null is treated as empty.
+     * @param cutSections Whether to drop everything from "references"/"declaration" to the end of that line.
+     * @param maxLength Maximum result length including the "..." marker (at least 4), or {@link #NO_LIMIT}.
+     * @return The normalized text.
+     */
+    public static String normalize(String text, boolean cutSections, int maxLength) {
+        if (maxLength < ELLIPSIS.length() + 1) {
+            throw new IllegalArgumentException("maxLength must be at least 4");
+        }
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        Output out = new Output(Math.min(text.length(), maxLength == NO_LIMIT ? text.length() : maxLength + KEYWORD_LOOKAHEAD + 1), cutSections);
+        char pendingWhitespace = 0;
+        int whitespaceRun = 0;
+
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c > 0x7F) {
+                continue; // Dropped before whitespace collapsing, so "a é b" becomes "a b"
+            }
+            if (isWhitespace(c)) {
+                pendingWhitespace = c;
+                whitespaceRun++;
+                continue;
+            }
+            if (whitespaceRun > 0) {
+                out.append(whitespaceRun == 1 ? pendingWhitespace : ' ');
+                whitespaceRun = 0;
+            }
+            out.append(c);
+
+            if (maxLength != NO_LIMIT && out.isSettledPast(maxLength)) {
+                // The result is certainly longer than maxLength and its first maxLength chars can no longer change
+                return abbreviate(out, maxLength);
+            }
+        }
+        if (whitespaceRun > 0) {
+            out.append(whitespaceRun == 1 ? pendingWhitespace : ' ');
+        }
+
+        out.trimTrailing();
+        return out.length > maxLength ? abbreviate(out, maxLength) : new String(out.chars, 0, out.length);
+    }
+
+    private static String abbreviate(Output out, int maxLength) {
+        return new String(out.chars, 0, maxLength - ELLIPSIS.length()) + ELLIPSIS;
+    }
+
+    // Same set as the regex \s: [ \t\n\x0B\f\r]
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Growable char buffer holding the collapsed text, with section cutting and leading trim applied as chars arrive.
+     */
+    private static final class Output {
+        private char[] chars;
+        private int length;
+        private final boolean cutSections;
+        private boolean cutting;
+
+        Output(int initialCapacity, boolean cutSections) {
+            this.chars = new char[Math.max(initialCapacity, 16)];
+            this.cutSections = cutSections;
+        }
+
+        void append(char c) {
+            if (cutting) {
+                // Like the regex ".", a cut runs up to (but not including) the next line terminator
+                if (c == '\n' || c == '\r') {
+                    cutting = false;
+                } else {
+                    return;
+                }
+            }
+            if (length == 0 && c <= ' ') {
+                return; // Leading trim
+            }
+            if (length == chars.length) {
+                chars = java.util.Arrays.copyOf(chars, length * 2);
+            }
+            chars[length++] = c;
+            if (cutSections) {
+                cutIfKeywordEnds();
+            }
+        }
+
+        private void cutIfKeywordEnds() {
+            for (char[] keyword : SECTION_KEYWORDS) {
+                int start = length - keyword.length;
+                if (start >= 0 && endsWithIgnoreCase(start, keyword)) {
+                    length = start;
+                    cutting = true;
+                    return;
+                }
+            }
+        }
+
+        private boolean endsWithIgnoreCase(int start, char[] keyword) {
+            for (int k = 0; k < keyword.length; k++) {
+                char c = chars[start + k];
+                if (c >= 'A' && c <= 'Z') {
+                    c = (char) (c + ('a' - 'A'));
+                }
+                if (c != keyword[k]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * True once a non-blank char at index >= maxLength is far enough back that no keyword cut can
+         * remove it, i.e. the trimmed result is guaranteed to exceed maxLength.
+         */
+        boolean isSettledPast(int maxLength) {
+            if (cutting) {
+                return false;
+            }
+            int settled = length - KEYWORD_LOOKAHEAD;
+            return settled >= maxLength && chars[settled] > ' ';
+        }
+
+        void trimTrailing() {
+            while (length > 0 && chars[length - 1] <= ' ') {
+                length--;
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.jdmatchr.core.controller;
+
+import com.jdmatchr.core.dto.AnalysisJobDto;
+import com.jdmatchr.core.exception.CapacityExceededException;
+import com.jdmatchr.core.repository.UserRepository;
+import com.jdmatchr.core.security.JwtPrincipal;
+import com.jdmatchr.core.security.JwtPrincipalArgumentResolver;
+import com.jdmatchr.core.service.AnalysisJobService;
+import com.jdmatchr.core.service.AnalyzerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.Authentication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AnalyzerControllerTest {
+
+    private final UUID userId = UUID.randomUUID();
+
+    private AnalyzerService analyzerService;
+    private AnalysisJobService analysisJobService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        analyzerService = mock(AnalyzerService.class);
+        analysisJobService = mock(AnalysisJobService.class);
+        when(analysisJobService.getJobForUser(any(UUID.class), any(UUID.class))).thenReturn(Optional.empty());
+        AnalyzerController controller = new AnalyzerController(analyzerService, analysisJobService,
+                mock(UserRepository.class), Duration.ofMinutes(3), 30, 20, 100);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setCustomArgumentResolvers(new JwtPrincipalArgumentResolver())
+                .build();
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void ownerCanPollTheirJob() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        UUID insightId = UUID.randomUUID();
+        OffsetDateTime now = OffsetDateTime.now();
+        when(analysisJobService.getJobForUser(jobId, userId)).thenReturn(Optional.of(
+                new AnalysisJobDto(jobId, "COMPLETED", "Backend Engineer", "cv.pdf", insightId, null, now, now, now)));
+
+        mockMvc.perform(signedIn(get("/api/v1/insights/jobs/{jobId}", jobId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobId").value(jobId.toString()))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.insightId").value(insightId.toString()));
+    }
+
+    @Test
+    void unknownOrForeignJobIsNotFound() throws Exception {
+        mockMvc.perform(signedIn(get("/api/v1/insights/jobs/{jobId}", UUID.randomUUID())))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void pollingWithoutAPrincipalIsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/v1/insights/jobs/{jobId}", UUID.randomUUID()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void busyResumeParserIsServiceUnavailableWithRetryAfter() throws Exception {
+        when(analyzerService.analyzeDocuments(any(), anyString(), anyString(), any()))
+                .thenThrow(new CapacityExceededException("Too many resumes are being processed.", Duration.ofSeconds(5)));
+        MockMultipartFile resume = new MockMultipartFile("resumeFile", "cv.pdf", "application/pdf", "%PDF".getBytes());
+
+        mockMvc.perform(signedIn(multipart("/api/v1/insights/process").file(resume)
+                        .param("jobTitle", "Backend Engineer")
+                        .param("jobDescription", "We need Java.")))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+    }
+
+    // Like Spring Security's request wrapper, the servlet request also reports the authentication as its user principal
+    private MockHttpServletRequestBuilder signedIn(MockHttpServletRequestBuilder request) {
+        JwtPrincipal principal = new JwtPrincipal(userId, "ada@example.com", List.of("USER"));
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.authorities());
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return request.principal(authentication);
+    }
+}
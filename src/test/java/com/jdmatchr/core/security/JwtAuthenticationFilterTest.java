@@ -0,0 +1,102 @@
+package com.jdmatchr.core.security;
+
+import com.jdmatchr.core.util.JwtUtil;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "test-secret-that-is-long-enough-for-hs256-signing";
+
+    private JwtAuthenticationFilter filter;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = spy(new JwtUtil());
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        jwtUtil.init();
+        filter = new JwtAuthenticationFilter(jwtUtil, new VerifiedTokenCache(new SimpleMeterRegistry(), true, 100));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void verifiedClaimsBecomeThePrincipal() throws Exception {
+        UUID userId = UUID.randomUUID();
+
+        Authentication authentication = authenticate(token(userId.toString()).claim("roles", List.of("ADMIN")));
+
+        assertThat(authentication.getPrincipal()).isEqualTo(new JwtPrincipal(userId, "ada@example.com", List.of("ADMIN")));
+        assertThat(authentication.getName()).isEqualTo("ada@example.com");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void tokensWithoutRolesGetTheUserRole() throws Exception {
+        Authentication authentication = authenticate(token(UUID.randomUUID().toString()));
+
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void subjectThatIsNotAUserIdIsNotAuthenticated() throws Exception {
+        assertThat(authenticate(token("ada@example.com"))).isNull();
+    }
+
+    @Test
+    void repeatedTokenIsVerifiedOnlyOnce() throws Exception {
+        String token = token(UUID.randomUUID().toString()).compact();
+
+        Authentication first = authenticate(token);
+        SecurityContextHolder.clearContext();
+        Authentication second = authenticate(token);
+
+        assertThat(second.getPrincipal()).isEqualTo(first.getPrincipal());
+        verify(jwtUtil, times(1)).parseVerifiedClaims(token);
+    }
+
+    private Authentication authenticate(JwtBuilder token) throws Exception {
+        return authenticate(token.compact());
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/insights/history");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static JwtBuilder token(String subject) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .claim("email", "ada@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)));
+    }
+}
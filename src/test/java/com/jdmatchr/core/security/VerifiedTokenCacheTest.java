@@ -0,0 +1,111 @@
+package com.jdmatchr.core.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) { now = now.plus(duration); }
+
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(java.time.ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+
+    private final MutableClock clock = new MutableClock();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void entriesExpireWithTheirToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(meterRegistry, true, 100, clock);
+        JwtPrincipal principal = principal(UUID.randomUUID());
+        cache.put("token", principal, clock.instant().plus(Duration.ofMinutes(10)));
+
+        assertThat(cache.get("token")).contains(principal);
+        clock.advance(Duration.ofMinutes(10));
+        assertThat(cache.get("token")).isEmpty();
+        assertThat(meterRegistry.get("jdmatchr.auth.token.cache").tag("result", "hit").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void tokensWithoutExpiryAreNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(meterRegistry, true, 100, clock);
+        cache.put("token", principal(UUID.randomUUID()), null);
+
+        assertThat(cache.get("token")).isEmpty();
+    }
+
+    @Test
+    void evictsOnlyTheGivenUsersTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(meterRegistry, true, 100, clock);
+        UUID userId = UUID.randomUUID();
+        Instant expiresAt = clock.instant().plus(Duration.ofHours(1));
+        cache.put("laptop", principal(userId), expiresAt);
+        cache.put("phone", principal(userId), expiresAt);
+        cache.put("other", principal(UUID.randomUUID()), expiresAt);
+
+        assertThat(cache.evictUser(userId)).isEqualTo(2);
+        assertThat(cache.get("laptop")).isEmpty();
+        assertThat(cache.get("other")).isPresent();
+    }
+
+    @Test
+    void fullCacheDropsExpiredEntriesFirst() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(meterRegistry, true, 2, clock);
+        cache.put("short", principal(UUID.randomUUID()), clock.instant().plus(Duration.ofMinutes(1)));
+        cache.put("long", principal(UUID.randomUUID()), clock.instant().plus(Duration.ofHours(1)));
+        clock.advance(Duration.ofMinutes(5));
+
+        cache.put("new", principal(UUID.randomUUID()), clock.instant().plus(Duration.ofHours(1)));
+
+        assertThat(cache.get("long")).isPresent();
+        assertThat(cache.get("new")).isPresent();
+        assertThat(cacheSize()).isEqualTo(2.0);
+    }
+
+    @Test
+    void fullCacheOfLiveTokensFreesABatchAtOnce() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(meterRegistry, true, 20, clock);
+        Instant expiresAt = clock.instant().plus(Duration.ofHours(1));
+        for (int i = 0; i < 20; i++) {
+            cache.put("token-" + i, principal(UUID.randomUUID()), expiresAt);
+        }
+
+        cache.put("first", principal(UUID.randomUUID()), expiresAt);
+        assertThat(cacheSize()).isEqualTo(19.0);
+
+        // The next token fits without another sweep
+        cache.put("second", principal(UUID.randomUUID()), expiresAt);
+        assertThat(cacheSize()).isEqualTo(20.0);
+        assertThat(cache.get("first")).isPresent();
+        assertThat(cache.get("second")).isPresent();
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(meterRegistry, false, 100, clock);
+        cache.put("token", principal(UUID.randomUUID()), clock.instant().plus(Duration.ofHours(1)));
+
+        assertThat(cache.get("token")).isEmpty();
+    }
+
+    private double cacheSize() {
+        return meterRegistry.get("jdmatchr.auth.token.cache.size").gauge().value();
+    }
+
+    private static JwtPrincipal principal(UUID userId) {
+        return new JwtPrincipal(userId, "ada@example.com", List.of("USER"));
+    }
+}
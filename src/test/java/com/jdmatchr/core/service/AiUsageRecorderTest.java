@@ -0,0 +1,48 @@
+package com.jdmatchr.core.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.openai.api.OpenAiApi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AiUsageRecorderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AiUsageRecorder recorder = new AiUsageRecorder(meterRegistry);
+
+    @Test
+    void splitsPromptTokensIntoCachedAndUncached() {
+        OpenAiApi.Usage nativeUsage = new OpenAiApi.Usage(300, 1200, 1500,
+                new OpenAiApi.Usage.PromptTokensDetails(null, 1024), null, null, null);
+
+        recorder.record("resume-analysis", new DefaultUsage(1200, 300, 1500, nativeUsage));
+
+        assertThat(tokens("prompt_cached")).isEqualTo(1024);
+        assertThat(tokens("prompt_uncached")).isEqualTo(176);
+        assertThat(tokens("completion")).isEqualTo(300);
+    }
+
+    @Test
+    void countsEverythingAsUncachedWhenTheProviderReportsNoCacheDetails() {
+        recorder.record("resume-analysis", new DefaultUsage(1200, 300, 1500));
+
+        assertThat(tokens("prompt_cached")).isZero();
+        assertThat(tokens("prompt_uncached")).isEqualTo(1200);
+    }
+
+    @Test
+    void repeatedCallsAddUpOnTheSameCounters() {
+        recorder.record("resume-analysis", new DefaultUsage(100, 10, 110));
+        recorder.record("resume-analysis", new DefaultUsage(200, 20, 220));
+
+        assertThat(tokens("prompt_uncached")).isEqualTo(300);
+        assertThat(tokens("completion")).isEqualTo(30);
+        assertThat(meterRegistry.find("jdmatchr.ai.tokens").counters()).hasSize(3);
+    }
+
+    private double tokens(String type) {
+        return meterRegistry.get("jdmatchr.ai.tokens").tag("operation", "resume-analysis").tag("type", type).counter().count();
+    }
+}
@@ -0,0 +1,204 @@
+package com.jdmatchr.core.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jdmatchr.core.dto.AnalysisResultDto;
+import com.jdmatchr.core.service.StubLlmServer.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives AnalysisAiService against a local stub of an OpenAI-compatible endpoint that answers with scripted
+ * (and partly broken) analysis JSON.
+ */
+class AnalysisAiServiceTest {
+
+    private static final String MODEL = "stub";
+    private static final String ROLE_FIT_JSON = """
+            {"prediction": {"verdict": "Strong", "reason": "Solid Java."},
+             "radarData": {"technicalSkills": 80, "softSkills": 70, "experienceLevel": 75, "cultureFit": 72},
+             "alignmentBreakdown": {"skills": 82, "experience": 74, "education": 90, "keywords": 68}}""";
+    private static final LocalScores LOCAL_SCORES = new LocalScores(List.of("Java"), List.of("Kafka"), 70, 65);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StubLlmServer stub;
+    private SimpleMeterRegistry meterRegistry;
+    private PromptBuilderService promptBuilderService;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = new StubLlmServer("{}");
+        meterRegistry = new SimpleMeterRegistry();
+        promptBuilderService = new PromptBuilderServiceImpl(new PromptBudgetAllocator(4000, 0.55),
+                new KeywordScorer(List.of("Java", "Kafka"), 10), meterRegistry);
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    void completeResponseNeedsOneCall() throws Exception {
+        stub.enqueue(Response.ok("```json\n" + analysisJson() + "\n```"));
+
+        AnalysisAiService.ModelAnalysis analysis = service(true).getAnalysisFromAi(prompt());
+
+        assertThat(analysis.result().matchScore()).isEqualTo(78);
+        assertThat(analysis.result().atsScore()).isEqualTo(65); // Local, not from the model
+        assertThat(analysis.result().keywordAnalysis().matchedKeywords()).containsExactly("Java");
+        assertThat(stub.systemPrompts()).hasSize(1);
+        assertThat(outputs("complete")).isEqualTo(1.0);
+    }
+
+    @Test
+    void onlyTheMissingSectionsAreRequestedAgain() throws Exception {
+        // Cut off by the output limit in the middle of interviewPreparationTopics, before fluffAnalysis
+        stub.enqueue(Response.ok("{\"matchScore\": 78, \"roleFitAndAlignmentMetrics\": {}, \"resumeSuggestions\": [\"Quantify impact\"],"
+                + " \"interviewPreparationTopics\": [\"Caching\", \"Kafka part"));
+        stub.enqueue(Response.ok("{\"fluffAnalysis\": {\"summary\": \"Concise\", \"detected\": []}, \"matchScore\": 12}"));
+
+        AnalysisAiService.ModelAnalysis analysis = service(true).getAnalysisFromAi(prompt());
+
+        assertThat(stub.systemPrompts()).hasSize(2);
+        assertThat(stub.systemPrompts().get(1)).contains("\"fluffAnalysis\"").doesNotContain("\"matchScore\"");
+        assertThat(analysis.result().fluffAnalysis()).isNotNull();
+        assertThat(analysis.result().interviewPreparationTopics()).containsExactly("Caching");
+        assertThat(analysis.result().matchScore()).isEqualTo(78); // Sections that were not requested are not replaced
+        assertThat(outputs("sections_requested")).isEqualTo(1.0);
+    }
+
+    @Test
+    void truncatedNestedSectionIsRequestedAgainRatherThanRepairedWithoutItsFields() throws Exception {
+        // Cut off inside radarData: the only repair would lack radarData's other scores and alignmentBreakdown
+        stub.enqueue(Response.ok("{\"matchScore\": 78, \"fluffAnalysis\": {\"summary\": \"Concise\", \"detected\": []},"
+                + " \"resumeSuggestions\": [\"Quantify impact\"], \"interviewPreparationTopics\": [\"Kafka\"],"
+                + " \"roleFitAndAlignmentMetrics\": {\"prediction\": {\"verdict\": \"Strong\", \"reason\": \"Solid Java.\"},"
+                + " \"radarData\": {\"technicalSkills\": 80, \"softSkills\": 7"));
+        stub.enqueue(Response.ok("{\"roleFitAndAlignmentMetrics\": " + ROLE_FIT_JSON + "}"));
+
+        AnalysisAiService.ModelAnalysis analysis = service(true).getAnalysisFromAi(prompt());
+
+        assertThat(stub.systemPrompts()).hasSize(2);
+        assertThat(stub.systemPrompts().get(1)).contains("\"roleFitAndAlignmentMetrics\"").doesNotContain("\"fluffAnalysis\"");
+        JsonNode roleFit = objectMapper.valueToTree(analysis.result()).get("roleFitAndAlignmentMetrics");
+        assertThat(roleFit.at("/radarData/softSkills").asInt()).isEqualTo(70);
+        assertThat(roleFit.at("/alignmentBreakdown/skills").asInt()).isEqualTo(82);
+        assertThat(outputs("sections_requested")).isEqualTo(1.0);
+    }
+
+    @Test
+    void missingSectionsStayEmptyWhenRequestingThemIsDisabled() throws Exception {
+        stub.enqueue(Response.ok("{\"matchScore\": 78, \"resumeSuggestions\": []}"));
+
+        AnalysisAiService.ModelAnalysis analysis = service(false).getAnalysisFromAi(prompt());
+
+        assertThat(stub.systemPrompts()).hasSize(1);
+        assertThat(analysis.result().matchScore()).isEqualTo(78);
+        assertThat(analysis.result().fluffAnalysis()).isNull();
+        assertThat(outputs("incomplete")).isEqualTo(1.0);
+    }
+
+    @Test
+    void responseWithoutJsonFails() {
+        stub.enqueue(Response.ok("Sorry, I can't do that."));
+
+        assertThatThrownBy(() -> service(true).getAnalysisFromAi(prompt())).isInstanceOf(JsonProcessingException.class);
+        assertThat(outputs("unparseable")).isEqualTo(1.0);
+    }
+
+    @Test
+    void streamedResponseIsCompletedTheSameWay() throws Exception {
+        AnalysisAiService service = service(true);
+        AnalysisResultParser.Assembly assembly = service.newResponseAssembly();
+        assembly.feed("{\"matchScore\": 78, \"fluffAnalysis\": {\"summary\": \"Ok\", \"detected\": []},");
+        assembly.feed(" \"roleFitAndAlignmentMetrics\": {}, \"resumeSuggestions\": [\"A\", \"B\"");
+        stub.enqueue(Response.ok("{\"interviewPreparationTopics\": [\"Kafka\"]}"));
+
+        AnalysisResultDto result = service.completeStreamedAnalysis(prompt(), assembly, MODEL);
+
+        assertThat(result.resumeSuggestions()).containsExactly("A", "B");
+        assertThat(result.interviewPreparationTopics()).containsExactly("Kafka");
+        assertThat(result.atsScore()).isEqualTo(65);
+    }
+
+    @Test
+    void modelLatencyLeavesOutTheWaitForAnAdmissionSlot() throws Exception {
+        stub.enqueue(Response.ok(analysisJson()));
+        LlmAdmissionLimiter admissionLimiter = new LlmAdmissionLimiter(meterRegistry, 1, 1, Duration.ofSeconds(10),
+                Duration.ofSeconds(10), false, 1, Duration.ofSeconds(20));
+        AnalysisModelRouter router = new AnalysisModelRouter(meterRegistry, List.of(MODEL, "fallback"), 0.3,
+                Duration.ofMillis(500), Duration.ofMinutes(5));
+        AnalysisAiService service = service(true, admissionLimiter, router);
+        LlmAdmissionLimiter.Permit onlySlot = admissionLimiter.acquire("other");
+
+        CompletableFuture<AnalysisAiService.ModelAnalysis> analysis = CompletableFuture.supplyAsync(() -> {
+            try {
+                return service.getAnalysisFromAi(prompt());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (admissionLimiter.getQueueDepth() != 1) {
+            assertThat(System.nanoTime()).as("the analysis never queued for a slot").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+        Thread.sleep(1_000); // Twice the latency budget, spent queued
+        onlySlot.succeeded();
+
+        assertThat(analysis.get(5, TimeUnit.SECONDS).modelName()).isEqualTo(MODEL);
+        // Had the wait counted, the primary model would now be degraded and ordered after the fallback
+        assertThat(router.candidates(prompt().estimatedTokens())).containsExactly(MODEL, "fallback");
+    }
+
+    private AnalysisPrompt prompt() {
+        AnalysisPrompt built = promptBuilderService.buildPrompt("Backend Engineer", "Java and Kafka", "Java developer");
+        return new AnalysisPrompt(built.systemText(), built.userText(), built.jobDescription(), built.resumeText(),
+                built.estimatedTokens(), LOCAL_SCORES);
+    }
+
+    private AnalysisAiService service(boolean requestMissingSections) {
+        LlmAdmissionLimiter admissionLimiter = new LlmAdmissionLimiter(meterRegistry, 1, 0, Duration.ZERO, Duration.ofSeconds(10),
+                false, 1, Duration.ofSeconds(20));
+        AnalysisModelRouter router = mock(AnalysisModelRouter.class);
+        when(router.candidates(anyInt())).thenReturn(List.of(MODEL));
+        return service(requestMissingSections, admissionLimiter, router);
+    }
+
+    private AnalysisAiService service(boolean requestMissingSections, LlmAdmissionLimiter admissionLimiter, AnalysisModelRouter router) {
+        ResilientLlmClient resilientLlmClient = new ResilientLlmClient(meterRegistry, admissionLimiter, Runnable::run, 1, Duration.ofSeconds(5),
+                Duration.ZERO, Duration.ZERO, false, Duration.ZERO,
+                () -> new LlmCircuitBreaker(10, 5, 0.5, Duration.ofSeconds(30), System::nanoTime), System::nanoTime);
+        return new AnalysisAiService(ChatClient.builder(stub.chatModel(MODEL)), new AiUsageRecorder(meterRegistry),
+                resilientLlmClient, router, new AnalysisResultParser(objectMapper), promptBuilderService, meterRegistry,
+                requestMissingSections);
+    }
+
+    private static String analysisJson() {
+        return """
+                {"matchScore": 78, "fluffAnalysis": {"summary": "Concise", "detected": []},
+                 "roleFitAndAlignmentMetrics": {"prediction": {"verdict": "Strong", "reason": "Solid Java."}},
+                 "resumeSuggestions": ["Quantify impact"], "interviewPreparationTopics": ["Kafka"]}""";
+    }
+
+    private double outputs(String outcome) {
+        return meterRegistry.get("jdmatchr.llm.output").tag("outcome", outcome).counter().count();
+    }
+}
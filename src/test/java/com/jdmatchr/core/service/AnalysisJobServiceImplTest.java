@@ -0,0 +1,179 @@
+package com.jdmatchr.core.service;
+
+import com.jdmatchr.core.dto.AnalysisJobDto;
+import com.jdmatchr.core.dto.InsightDetailDto;
+import com.jdmatchr.core.entity.AnalysisJob;
+import com.jdmatchr.core.entity.AnalysisJobStatus;
+import com.jdmatchr.core.entity.User;
+import com.jdmatchr.core.exception.AnalysisQueueFullException;
+import com.jdmatchr.core.repository.AnalysisJobRepository;
+import com.jdmatchr.core.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AnalysisJobServiceImplTest {
+
+    @TempDir
+    Path spoolDirectory;
+
+    private AnalysisJobRepository analysisJobRepository;
+    private UserRepository userRepository;
+    private AnalyzerService analyzerService;
+    private PdfParserService pdfParserService;
+    private User user;
+
+    private final Map<UUID, AnalysisJob> storedJobs = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        user = new User("Ada", "ada@example.com");
+        user.setId(UUID.randomUUID());
+
+        analysisJobRepository = mock(AnalysisJobRepository.class);
+        when(analysisJobRepository.save(any(AnalysisJob.class))).thenAnswer(invocation -> {
+            AnalysisJob job = invocation.getArgument(0);
+            if (job.getId() == null) {
+                job.setId(UUID.randomUUID());
+            }
+            storedJobs.put(job.getId(), job);
+            return job;
+        });
+        when(analysisJobRepository.findById(any(UUID.class)))
+                .thenAnswer(invocation -> Optional.ofNullable(storedJobs.get(invocation.<UUID>getArgument(0))));
+
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        analyzerService = mock(AnalyzerService.class);
+        pdfParserService = mock(PdfParserService.class);
+    }
+
+    @Test
+    void jobRunsOnTheWorkerAndRecordsTheInsight() throws Exception {
+        UUID insightId = UUID.randomUUID();
+        when(pdfParserService.parsePdf(any(File.class), eq("cv.pdf"))).thenAnswer(invocation -> {
+            assertThat(invocation.<File>getArgument(0)).hasContent("%PDF");
+            return "Java developer";
+        });
+        when(analyzerService.analyzeResumeText("Java developer", "cv.pdf", "Backend Engineer", "We need Java.", user))
+                .thenReturn(new InsightDetailDto(insightId, "Backend Engineer", "cv.pdf", OffsetDateTime.now(), "model", null));
+
+        AnalysisJobDto submitted = service(new SyncTaskExecutor(), true).submitJob(resume(), "Backend Engineer", "We need Java.", user);
+
+        AnalysisJob job = storedJobs.get(submitted.jobId());
+        assertThat(job.getStatus()).isEqualTo(AnalysisJobStatus.COMPLETED);
+        assertThat(job.getInsightId()).isEqualTo(insightId);
+        assertThat(job.getCompletedAt()).isNotNull();
+        assertThat(spoolDirectory).isEmptyDirectory();
+    }
+
+    @Test
+    void failedAnalysisIsRecordedOnTheJob() throws Exception {
+        when(pdfParserService.parsePdf(any(File.class), anyString())).thenReturn("Java developer");
+        when(analyzerService.analyzeResumeText(anyString(), anyString(), anyString(), anyString(), any(User.class)))
+                .thenThrow(new IllegalStateException("AI service unavailable"));
+
+        AnalysisJobDto submitted = service(new SyncTaskExecutor(), true).submitJob(resume(), "Backend Engineer", "We need Java.", user);
+
+        AnalysisJob job = storedJobs.get(submitted.jobId());
+        assertThat(job.getStatus()).isEqualTo(AnalysisJobStatus.FAILED);
+        assertThat(job.getErrorMessage()).isEqualTo("AI service unavailable");
+        assertThat(spoolDirectory).isEmptyDirectory();
+    }
+
+    @Test
+    void fullQueueRejectsTheJobAndDeletesItsSpoolFile() {
+        TaskExecutor saturated = task -> {
+            throw new RejectedExecutionException("queue full");
+        };
+
+        assertThatThrownBy(() -> service(saturated, true).submitJob(resume(), "Backend Engineer", "We need Java.", user))
+                .isInstanceOf(AnalysisQueueFullException.class);
+
+        assertThat(storedJobs.values()).singleElement().satisfies(job -> assertThat(job.getStatus()).isEqualTo(AnalysisJobStatus.FAILED));
+        assertThat(spoolDirectory).isEmptyDirectory();
+    }
+
+    @Test
+    void startupFailsJobsOfThePreviousProcessAndDeletesTheirSpoolFiles() throws Exception {
+        AnalysisJob running = new AnalysisJob();
+        running.setStatus(AnalysisJobStatus.RUNNING);
+        analysisJobRepository.save(running);
+        when(analysisJobRepository.findByStatusInAndCreatedAtBefore(anyList(), any(OffsetDateTime.class))).thenReturn(List.of(running));
+        Path stale = Files.createFile(spoolDirectory.resolve("jdmatchr-resume-1.pdf"));
+        Files.setLastModifiedTime(stale, FileTime.from(Instant.now().minusSeconds(3600)));
+        AnalysisJobServiceImpl service = service(new SyncTaskExecutor(), true);
+        Path current = Files.createFile(spoolDirectory.resolve("jdmatchr-resume-2.pdf"));
+        Files.setLastModifiedTime(current, FileTime.from(Instant.now().plusSeconds(1)));
+
+        service.recoverInterruptedJobs();
+
+        assertThat(running.getStatus()).isEqualTo(AnalysisJobStatus.FAILED);
+        assertThat(running.getErrorMessage()).startsWith("Interrupted by a server restart");
+        assertThat(stale).doesNotExist();
+        assertThat(current).exists(); // Spooled by this process for a job that is still queued
+        verify(analysisJobRepository).findByStatusInAndCreatedAtBefore(
+                eq(List.of(AnalysisJobStatus.PENDING, AnalysisJobStatus.RUNNING)), any(OffsetDateTime.class));
+    }
+
+    @Test
+    void startupOnlyCleansSpoolFilesWhenRecoveryIsDisabled() throws Exception {
+        Path stale = Files.createFile(spoolDirectory.resolve("jdmatchr-resume-1.pdf"));
+        Files.setLastModifiedTime(stale, FileTime.from(Instant.now().minusSeconds(3600)));
+
+        service(new SyncTaskExecutor(), false).recoverInterruptedJobs();
+
+        assertThat(stale).doesNotExist();
+        verify(analysisJobRepository, never()).findByStatusInAndCreatedAtBefore(anyList(), any(OffsetDateTime.class));
+    }
+
+    @Test
+    void jobsAreOnlyVisibleToTheirOwner() {
+        AnalysisJob job = new AnalysisJob();
+        job.setId(UUID.randomUUID());
+        job.setStatus(AnalysisJobStatus.PENDING);
+        job.setJobTitle("Backend Engineer");
+        when(analysisJobRepository.findByIdAndUserId(job.getId(), user.getId())).thenReturn(Optional.of(job));
+
+        AnalysisJobServiceImpl service = service(new SyncTaskExecutor(), true);
+
+        assertThat(service.getJobForUser(job.getId(), user.getId())).hasValueSatisfying(dto -> {
+            assertThat(dto.jobId()).isEqualTo(job.getId());
+            assertThat(dto.status()).isEqualTo("PENDING");
+        });
+        assertThat(service.getJobForUser(job.getId(), UUID.randomUUID())).isEmpty();
+    }
+
+    private AnalysisJobServiceImpl service(TaskExecutor executor, boolean recoverOnStartup) {
+        return new AnalysisJobServiceImpl(analysisJobRepository, userRepository, analyzerService, pdfParserService, executor,
+                spoolDirectory, recoverOnStartup);
+    }
+
+    private static MockMultipartFile resume() {
+        return new MockMultipartFile("resumeFile", "cv.pdf", "application/pdf", "%PDF".getBytes());
+    }
+}
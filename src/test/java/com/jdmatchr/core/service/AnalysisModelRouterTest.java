@@ -0,0 +1,81 @@
+package com.jdmatchr.core.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisModelRouterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void healthyModelsAreTriedInConfiguredOrder() {
+        AnalysisModelRouter router = router("pro", "flash");
+
+        assertThat(router.getPrimaryModel()).isEqualTo("pro");
+        assertThat(router.candidates(1_000)).containsExactly("pro", "flash");
+    }
+
+    @Test
+    void modelsThatCannotTakeThePromptAreSkipped() {
+        AnalysisModelRouter router = router("small:4000", "large");
+
+        assertThat(router.candidates(3_000)).containsExactly("small", "large");
+        assertThat(router.candidates(5_000)).containsExactly("large");
+    }
+
+    @Test
+    void largestModelIsUsedWhenNoneIsConfiguredForThePrompt() {
+        AnalysisModelRouter router = router("small:4000", "medium:8000");
+
+        assertThat(router.candidates(20_000)).containsExactly("medium");
+    }
+
+    @Test
+    void failingModelMovesBehindTheHealthyOnes() {
+        AnalysisModelRouter router = router("pro", "flash");
+        for (int i = 0; i < 5; i++) {
+            router.recordFailure("pro");
+        }
+
+        assertThat(router.candidates(1_000)).containsExactly("flash", "pro");
+        assertThat(meterRegistry.get("jdmatchr.llm.routing.degraded").tag("model", "pro").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void slowModelMovesBehindTheHealthyOnes() {
+        AnalysisModelRouter router = router("pro", "flash");
+        router.recordSuccess("pro", Duration.ofSeconds(45));
+
+        assertThat(router.candidates(1_000)).containsExactly("flash", "pro");
+    }
+
+    @Test
+    void degradedModelGetsOneProbePerInterval() {
+        AnalysisModelRouter router = router("pro", "flash");
+        for (int i = 0; i < 5; i++) {
+            router.recordFailure("pro");
+        }
+        assertThat(router.candidates(1_000)).containsExactly("flash", "pro");
+
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertThat(router.candidates(1_000)).containsExactly("pro", "flash");
+        assertThat(router.candidates(1_000)).containsExactly("flash", "pro");
+
+        // Successful probes bring the error rate back under the threshold
+        for (int i = 0; i < 12; i++) {
+            router.recordSuccess("pro", Duration.ofSeconds(1));
+        }
+        assertThat(router.candidates(1_000)).containsExactly("pro", "flash");
+    }
+
+    private AnalysisModelRouter router(String... models) {
+        return new AnalysisModelRouter(meterRegistry, List.of(models), 0.3, Duration.ofSeconds(30), Duration.ofSeconds(30), clock::get);
+    }
+}
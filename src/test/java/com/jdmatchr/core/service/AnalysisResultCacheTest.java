@@ -0,0 +1,34 @@
+package com.jdmatchr.core.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jdmatchr.core.repository.AnalysisResultCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AnalysisResultCacheTest {
+
+    @Test
+    void keysNameTheRoutersPrimaryModel() {
+        AnalysisResultCache miniFirst = cache(List.of("gpt-4o-mini", "gpt-4o:120000"));
+        AnalysisResultCache fullFirst = cache(List.of("gpt-4o:120000", "gpt-4o-mini"));
+
+        assertThat(miniFirst.getModelName()).isEqualTo("gpt-4o-mini");
+        assertThat(fullFirst.getModelName()).isEqualTo("gpt-4o");
+        assertThat(miniFirst.buildKey("Backend Engineer", "JD", "Resume", "v1"))
+                .isNotEqualTo(fullFirst.buildKey("Backend Engineer", "JD", "Resume", "v1"));
+    }
+
+    private static AnalysisResultCache cache(List<String> models) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AnalysisModelRouter router = new AnalysisModelRouter(meterRegistry, models, 0.3, Duration.ofSeconds(30),
+                Duration.ofSeconds(30));
+        return new AnalysisResultCache(mock(AnalysisResultCacheRepository.class), new ObjectMapper(), meterRegistry,
+                true, 10, Duration.ofHours(1), false, Duration.ofDays(7), router);
+    }
+}
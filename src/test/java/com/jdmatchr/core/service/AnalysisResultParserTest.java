@@ -0,0 +1,83 @@
+package com.jdmatchr.core.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jdmatchr.core.dto.AnalysisResultDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AnalysisResultParserTest {
+
+    private static final List<String> REQUIRED = List.of("matchScore", "fluffAnalysis", "resumeSuggestions", "interviewPreparationTopics");
+
+    private final AnalysisResultParser parser = new AnalysisResultParser(new ObjectMapper());
+
+    @Test
+    void readsAFencedResponseChunkByChunk() throws Exception {
+        String response = """
+                Here you go:
+                ```json
+                {"matchScore": 81, "fluffAnalysis": {"summary": "Tight", "detected": []},
+                 "resumeSuggestions": ["Quantify impact"], "interviewPreparationTopics": ["System design"]}
+                ```""";
+        AnalysisResultParser.Assembly assembly = parser.newAssembly();
+        List<String> streamed = new ArrayList<>();
+        for (int i = 0; i < response.length(); i += 5) {
+            assembly.feed(response.substring(i, Math.min(response.length(), i + 5))).forEach(section -> streamed.add(section.name()));
+        }
+
+        AnalysisResultParser.ParsedSections parsed = assembly.finish();
+
+        assertThat(streamed).containsExactly("matchScore", "fluffAnalysis", "resumeSuggestions", "interviewPreparationTopics");
+        assertThat(parsed.missing(REQUIRED)).isEmpty();
+        assertThat(parsed.repairedSection()).isNull();
+        AnalysisResultDto result = parser.toResult(parsed.sections());
+        assertThat(result.matchScore()).isEqualTo(81);
+        assertThat(result.resumeSuggestions()).containsExactly("Quantify impact");
+    }
+
+    @Test
+    void invalidSectionsAreDroppedAndTheRestIsKept() throws Exception {
+        AnalysisResultParser.ParsedSections parsed = parser.parse("""
+                {"matchScore": "high", "fluffAnalysis": {"summary": "Ok", "detected": "none"},
+                 "resumeSuggestions": ["Lead with results"], "interviewPreparationTopics": ["Kafka"], "verdict": "Strong"}""");
+
+        assertThat(parsed.sections()).containsOnlyKeys("resumeSuggestions", "interviewPreparationTopics");
+        assertThat(parsed.missing(REQUIRED)).containsExactly("matchScore", "fluffAnalysis");
+    }
+
+    @Test
+    void scoresOutsideZeroToHundredAreRejected() throws Exception {
+        assertThat(parser.parse("{\"matchScore\": 140, \"resumeSuggestions\": []}").sections()).containsOnlyKeys("resumeSuggestions");
+    }
+
+    @Test
+    void truncatedLastSectionIsRepaired() throws Exception {
+        AnalysisResultParser.ParsedSections parsed = parser.parse("""
+                {"matchScore": 70, "resumeSuggestions": ["Quantify impact", "Add a summary"], "interviewPreparationTopics": ["Caching", "Kafka partit""");
+
+        assertThat(parsed.repairedSection()).isEqualTo("interviewPreparationTopics");
+        assertThat(parser.toResult(parsed.sections()).interviewPreparationTopics()).containsExactly("Caching");
+        assertThat(parsed.missing(REQUIRED)).containsExactly("fluffAnalysis");
+    }
+
+    @Test
+    void truncatedNumberIsNotGuessed() throws Exception {
+        AnalysisResultParser.ParsedSections parsed = parser.parse("{\"resumeSuggestions\": [], \"matchScore\": 7");
+
+        assertThat(parsed.sections()).containsOnlyKeys("resumeSuggestions");
+        assertThat(parsed.repairedSection()).isNull();
+    }
+
+    @Test
+    void responseWithoutAnyValidSectionFails() {
+        assertThatThrownBy(() -> parser.parse("I cannot help with that."))
+                .isInstanceOf(JsonProcessingException.class)
+                .hasMessageContaining("No valid analysis section");
+    }
+}
@@ -0,0 +1,369 @@
+package com.jdmatchr.core.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jdmatchr.core.dto.AnalysisResultDto;
+import com.jdmatchr.core.dto.InsightDetailDto;
+import com.jdmatchr.core.dto.InsightHistoryFilter;
+import com.jdmatchr.core.dto.InsightHistoryPageDto;
+import com.jdmatchr.core.dto.InsightSummaryDto;
+import com.jdmatchr.core.dto.JobDescriptionInput;
+import com.jdmatchr.core.entity.Insights;
+import com.jdmatchr.core.entity.User;
+import com.jdmatchr.core.repository.InsightInputRepository;
+import com.jdmatchr.core.repository.InsightsRepository;
+import com.jdmatchr.core.repository.UserRepository;
+import com.jdmatchr.core.util.InsightCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class AnalyzerServiceImplTest {
+
+    private static final String PRIMARY_MODEL = "primary-model";
+    private static final LocalScores LOCAL_SCORES = new LocalScores(List.of("Java"), List.of("Kafka"), 70, 65);
+
+    private DataSource dataSource;
+    private InsightsRepository insightsRepository;
+    private InsightInputRepository insightInputRepository;
+    private PromptBuilderService promptBuilderService;
+    private PdfParserService pdfParserService;
+    private AnalysisAiService analysisAiService;
+    private AnalysisResultCache analysisResultCache;
+    private SimpleMeterRegistry meterRegistry;
+    private AnalyzerServiceImpl analyzerService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+
+        insightsRepository = mock(InsightsRepository.class);
+        insightInputRepository = mock(InsightInputRepository.class);
+        promptBuilderService = mock(PromptBuilderService.class);
+        pdfParserService = mock(PdfParserService.class);
+        analysisAiService = mock(AnalysisAiService.class);
+        analysisResultCache = mock(AnalysisResultCache.class);
+        when(analysisResultCache.buildKey(any(), any(), any(), any())).thenReturn("key");
+        when(analysisResultCache.get(anyString())).thenReturn(Optional.empty());
+        when(analysisResultCache.getModelName()).thenReturn(PRIMARY_MODEL);
+
+        meterRegistry = new SimpleMeterRegistry();
+        analyzerService = newAnalyzerService(true);
+
+        when(promptBuilderService.buildPrompt(anyString(), anyString(), anyString()))
+                .thenReturn(new AnalysisPrompt("system", "prompt", "JD", "resume", 100, LOCAL_SCORES));
+    }
+
+    @Test
+    void aiCallRunsWithoutTransactionOrCheckedOutConnection() throws Exception {
+        AtomicBoolean aiPhaseChecked = new AtomicBoolean(false);
+        when(analysisAiService.getAnalysisFromAi(any(AnalysisPrompt.class))).thenAnswer(invocation -> {
+            assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+            verify(dataSource, never()).getConnection();
+            aiPhaseChecked.set(true);
+            return new AnalysisAiService.ModelAnalysis(sampleResult(), PRIMARY_MODEL);
+        });
+
+        AtomicBoolean savedInTransaction = new AtomicBoolean(false);
+        when(insightsRepository.save(any(Insights.class))).thenAnswer(invocation -> {
+            savedInTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+            Insights insight = invocation.getArgument(0);
+            insight.setId(UUID.randomUUID());
+            return insight;
+        });
+
+        InsightDetailDto result = analyzerService.analyzeResumeText(
+                "Java developer with Spring Boot experience", "resume.pdf", "Backend Engineer", "We need Java and Spring.", sampleUser());
+
+        assertThat(aiPhaseChecked).isTrue();
+        assertThat(savedInTransaction).isTrue();
+        assertThat(result.id()).isNotNull();
+        assertThat(result.analysisResult().matchScore()).isEqualTo(80);
+        assertThat(result.modelName()).isEqualTo(PRIMARY_MODEL);
+        // Exactly one connection: the short write-only transaction for the insert
+        verify(dataSource, times(1)).getConnection();
+    }
+
+    @Test
+    void failedAiCallNeverTouchesTheDatabase() throws Exception {
+        when(analysisAiService.getAnalysisFromAi(any(AnalysisPrompt.class))).thenThrow(new RuntimeException("provider down"));
+
+        assertThatThrownBy(() -> analyzerService.analyzeResumeText("text", "resume.pdf", "Backend Engineer", "JD", sampleUser()))
+                .hasMessageContaining("AI analysis failed");
+
+        verify(dataSource, never()).getConnection();
+        verify(insightsRepository, never()).save(any());
+        verify(insightInputRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void cacheHitSkipsTheAiCall() throws Exception {
+        when(analysisResultCache.get("key")).thenReturn(Optional.of(sampleResult()));
+        when(insightsRepository.save(any(Insights.class))).thenAnswer(invocation -> {
+            Insights insight = invocation.getArgument(0);
+            insight.setId(UUID.randomUUID());
+            return insight;
+        });
+
+        InsightDetailDto result = analyzerService.analyzeResumeText("text", "resume.pdf", "Backend Engineer", "JD", sampleUser());
+
+        assertThat(result.analysisResult().matchScore()).isEqualTo(80);
+        verify(analysisAiService, never()).getAnalysisFromAi(any(AnalysisPrompt.class));
+        verify(analysisResultCache, never()).put(anyString(), any(), any());
+    }
+
+    @Test
+    void cacheHitKeepsTheLocalScoresOfTheFullResume() throws Exception {
+        // Cached for a resume whose prompted (trimmed) text is the same but whose tail, beyond the budget, differed
+        when(analysisResultCache.get("key")).thenReturn(Optional.of(sampleResult()));
+        when(insightsRepository.save(any(Insights.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        InsightDetailDto result = analyzerService.analyzeResumeText("text", "resume.pdf", "Backend Engineer", "JD", sampleUser());
+
+        assertThat(result.analysisResult().atsScore()).isEqualTo(LOCAL_SCORES.atsScore());
+        assertThat(result.analysisResult().keywordAnalysis()).isEqualTo(LOCAL_SCORES.keywordAnalysis());
+    }
+
+    @Test
+    void streamedSectionsArriveBeforeTheInsightIsSaved() throws Exception {
+        when(analysisAiService.streamAnalysisFromAi(any(AnalysisPrompt.class)))
+                .thenReturn(new AnalysisAiService.ModelAnalysisStream(
+                        Flux.just("```json\n{\"matchScore\": 80, \"ats", "Score\": 75, \"resumeSuggestions\": [\"Quantify", " impact\"]}\n```"),
+                        PRIMARY_MODEL));
+        AnalysisResultParser resultParser = new AnalysisResultParser(new ObjectMapper());
+        when(analysisAiService.newResponseAssembly()).thenAnswer(invocation -> resultParser.newAssembly());
+        when(analysisAiService.completeStreamedAnalysis(any(AnalysisPrompt.class), any(AnalysisResultParser.Assembly.class), eq(PRIMARY_MODEL)))
+                .thenReturn(LOCAL_SCORES.applyTo(sampleResult()));
+        List<String> events = new CopyOnWriteArrayList<>();
+        when(insightsRepository.save(any(Insights.class))).thenAnswer(invocation -> {
+            events.add("saved");
+            Insights insight = invocation.getArgument(0);
+            insight.setId(UUID.randomUUID());
+            return insight;
+        });
+        CompletableFuture<InsightDetailDto> completed = new CompletableFuture<>();
+
+        analyzerService.streamAnalysis(null, "Backend Engineer", "JD", sampleUser(), new AnalysisStreamListener() {
+            @Override public void onSection(String name, JsonNode value) { events.add(name + "=" + value); }
+            @Override public void onComplete(InsightDetailDto insight) { completed.complete(insight); }
+            @Override public void onError(Throwable error) { completed.completeExceptionally(error); }
+        });
+
+        InsightDetailDto insight = completed.get(5, TimeUnit.SECONDS);
+        assertThat(insight.id()).isNotNull();
+        // Local sections come first; the model's own atsScore is ignored
+        assertThat(events).containsExactly("atsScore=65",
+                "keywordAnalysis={\"missingKeywords\":[\"Kafka\"],\"keywordDensityScore\":70,\"matchedKeywords\":[\"Java\"]}",
+                "matchScore=80", "resumeSuggestions=[\"Quantify impact\"]",
+                // Completed after the stream ended
+                "interviewPreparationTopics=[\"System design\"]", "saved");
+        assertThat(insight.analysisResult().atsScore()).isEqualTo(65);
+        verify(analysisResultCache).put(eq("key"), any(), eq(LOCAL_SCORES.applyTo(sampleResult())));
+    }
+
+    @Test
+    void resultFromFallbackModelIsSavedWithItsModelButNotCached() throws Exception {
+        when(analysisAiService.getAnalysisFromAi(any(AnalysisPrompt.class)))
+                .thenReturn(new AnalysisAiService.ModelAnalysis(sampleResult(), "fallback-model"));
+        when(insightsRepository.save(any(Insights.class))).thenAnswer(invocation -> {
+            Insights insight = invocation.getArgument(0);
+            insight.setId(UUID.randomUUID());
+            return insight;
+        });
+
+        InsightDetailDto result = analyzerService.analyzeResumeText("text", "resume.pdf", "Backend Engineer", "JD", sampleUser());
+
+        assertThat(result.modelName()).isEqualTo("fallback-model");
+        verify(analysisResultCache, never()).put(anyString(), any(), any());
+    }
+
+    @Test
+    void concurrentIdenticalRequestsShareOneAiCall() throws Exception {
+        CountDownLatch releaseAiCall = new CountDownLatch(1);
+        when(analysisAiService.getAnalysisFromAi(any(AnalysisPrompt.class))).thenAnswer(invocation -> {
+            releaseAiCall.await(5, TimeUnit.SECONDS);
+            return new AnalysisAiService.ModelAnalysis(sampleResult(), PRIMARY_MODEL);
+        });
+        when(insightsRepository.save(any(Insights.class))).thenAnswer(invocation -> {
+            Insights insight = invocation.getArgument(0);
+            insight.setId(UUID.randomUUID());
+            return insight;
+        });
+        User user = sampleUser();
+
+        CompletableFuture<InsightDetailDto> first = CompletableFuture.supplyAsync(
+                () -> analyzerService.analyzeResumeText("text", "resume.pdf", "Backend Engineer", "JD", user));
+        CompletableFuture<InsightDetailDto> second = CompletableFuture.supplyAsync(
+                () -> analyzerService.analyzeResumeText("text", "resume.pdf", "Backend Engineer", "JD", user));
+        waitForCoalescedRequests(1);
+        releaseAiCall.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).id()).isNotEqualTo(second.get(5, TimeUnit.SECONDS).id());
+        verify(analysisAiService, times(1)).getAnalysisFromAi(any(AnalysisPrompt.class));
+        verify(insightsRepository, times(2)).save(any(Insights.class));
+    }
+
+    @Test
+    void coalescedRequestsCanShareOneInsight() throws Exception {
+        analyzerService = newAnalyzerService(false);
+        CountDownLatch releaseAiCall = new CountDownLatch(1);
+        when(analysisAiService.getAnalysisFromAi(any(AnalysisPrompt.class))).thenAnswer(invocation -> {
+            releaseAiCall.await(5, TimeUnit.SECONDS);
+            return new AnalysisAiService.ModelAnalysis(sampleResult(), PRIMARY_MODEL);
+        });
+        when(insightsRepository.save(any(Insights.class))).thenAnswer(invocation -> {
+            Insights insight = invocation.getArgument(0);
+            insight.setId(UUID.randomUUID());
+            return insight;
+        });
+        User user = sampleUser();
+
+        CompletableFuture<InsightDetailDto> first = CompletableFuture.supplyAsync(
+                () -> analyzerService.analyzeResumeText("text", "resume.pdf", "Backend Engineer", "JD", user));
+        CompletableFuture<InsightDetailDto> second = CompletableFuture.supplyAsync(
+                () -> analyzerService.analyzeResumeText("text", "resume.pdf", "Backend Engineer", "JD", user));
+        waitForCoalescedRequests(1);
+        releaseAiCall.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).id()).isEqualTo(second.get(5, TimeUnit.SECONDS).id());
+        verify(insightsRepository, times(1)).save(any(Insights.class));
+    }
+
+    @Test
+    void batchParsesTheResumeOnceAndSavesAllInsightsTogether() throws Exception {
+        MockMultipartFile resume = new MockMultipartFile("resumeFile", "resume.pdf", "application/pdf", new byte[] {1});
+        when(pdfParserService.parsePdf(resume)).thenReturn("Java developer");
+        when(promptBuilderService.buildPrompt(anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> new AnalysisPrompt("system", "prompt", invocation.getArgument(1), "resume", 100, LOCAL_SCORES));
+        when(analysisResultCache.buildKey(any(), any(), any(), any())).thenAnswer(invocation -> "key-" + invocation.getArgument(1));
+        when(analysisAiService.getAnalysisFromAi(any(AnalysisPrompt.class))).thenAnswer(invocation -> {
+            if (invocation.<AnalysisPrompt>getArgument(0).jobDescription().equals("JD 2")) {
+                throw new RuntimeException("provider down");
+            }
+            return new AnalysisAiService.ModelAnalysis(sampleResult(), PRIMARY_MODEL);
+        });
+        when(insightsRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Insights> insights = invocation.getArgument(0);
+            insights.forEach(insight -> insight.setId(UUID.randomUUID()));
+            return insights;
+        });
+        List<String> events = new CopyOnWriteArrayList<>();
+        CompletableFuture<List<InsightDetailDto>> completed = new CompletableFuture<>();
+
+        analyzerService.analyzeBatch(resume,
+                List.of(new JobDescriptionInput("Backend", "JD 1"), new JobDescriptionInput("Platform", "JD 2"),
+                        new JobDescriptionInput("Data", "JD 3")),
+                sampleUser(), new BatchAnalysisListener() {
+                    @Override public void onResult(int index, String jobTitle, String modelName, AnalysisResultDto result) { events.add("result " + index); }
+                    @Override public void onItemError(int index, String jobTitle, Throwable error) { events.add("error " + index); }
+                    @Override public void onComplete(List<InsightDetailDto> insights) { completed.complete(insights); }
+                    @Override public void onError(Throwable error) { completed.completeExceptionally(error); }
+                });
+
+        List<InsightDetailDto> insights = completed.get(5, TimeUnit.SECONDS);
+        assertThat(insights).extracting(InsightDetailDto::jobTitle).containsExactly("Backend", "Data");
+        assertThat(events).containsExactlyInAnyOrder("result 0", "error 1", "result 2");
+        verify(pdfParserService, times(1)).parsePdf(resume);
+        verify(insightsRepository, times(1)).saveAll(anyList());
+        verify(insightInputRepository, times(1)).saveAll(anyList());
+        verify(insightsRepository, never()).save(any());
+    }
+
+    @Test
+    void historyPageReadsOneExtraRowToFindTheNextCursor() {
+        User user = sampleUser();
+        OffsetDateTime now = OffsetDateTime.now();
+        List<InsightSummaryDto> rows = List.of(summary(now), summary(now.minusMinutes(1)), summary(now.minusMinutes(2)));
+        when(insightsRepository.findSummaryPage(eq(user.getId()), eq(InsightHistoryFilter.NONE), isNull(), eq(3))).thenReturn(rows);
+
+        InsightHistoryPageDto page = analyzerService.getInsightsHistoryForUser(user.getId(), InsightHistoryFilter.NONE, null, 2);
+
+        assertThat(page.items()).containsExactly(rows.get(0), rows.get(1));
+        assertThat(page.hasMore()).isTrue();
+        InsightCursor next = InsightCursor.decode(page.nextCursor());
+        assertThat(next.id()).isEqualTo(rows.get(1).id());
+        assertThat(next.createdAt().toInstant()).isEqualTo(rows.get(1).analysisDate().toInstant());
+
+        when(insightsRepository.findSummaryPage(eq(user.getId()), eq(InsightHistoryFilter.NONE), eq(next), eq(3)))
+                .thenReturn(List.of(rows.get(2)));
+        InsightHistoryPageDto lastPage = analyzerService.getInsightsHistoryForUser(user.getId(), InsightHistoryFilter.NONE, page.nextCursor(), 2);
+
+        assertThat(lastPage.items()).containsExactly(rows.get(2));
+        assertThat(lastPage.hasMore()).isFalse();
+        assertThat(lastPage.nextCursor()).isNull();
+    }
+
+    @Test
+    void malformedHistoryCursorIsRejectedBeforeQuerying() {
+        assertThatThrownBy(() -> analyzerService.getInsightsHistoryForUser(UUID.randomUUID(), InsightHistoryFilter.NONE, "garbage", 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(insightsRepository);
+    }
+
+    private AnalyzerServiceImpl newAnalyzerService(boolean persistEachCoalescedRequest) {
+        return new AnalyzerServiceImpl(
+                mock(UserRepository.class),
+                insightsRepository,
+                new ObjectMapper(),
+                pdfParserService,
+                promptBuilderService,
+                analysisAiService,
+                analysisResultCache,
+                new DataSourceTransactionManager(dataSource),
+                meterRegistry,
+                true,
+                persistEachCoalescedRequest,
+                2,
+                insightInputRepository,
+                true
+        );
+    }
+
+    private void waitForCoalescedRequests(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("jdmatchr.analysis.coalesced").counter().count() < expected) {
+            assertThat(System.nanoTime()).as("coalesced requests").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static User sampleUser() {
+        User user = new User("Test User", "test@example.com");
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+
+    private static InsightSummaryDto summary(OffsetDateTime createdAt) {
+        return new InsightSummaryDto(UUID.randomUUID(), "Backend Engineer", createdAt, 80, 75, "resume.pdf");
+    }
+
+    private static AnalysisResultDto sampleResult() {
+        return new AnalysisResultDto(80, 75, null, null, null, List.of("Quantify impact"), List.of("System design"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.jdmatchr.core.service;
+
+import com.jdmatchr.core.exception.LlmCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class GeminiChatServiceTest {
+
+    private ChatClient chatClient;
+    private SimpleMeterRegistry meterRegistry;
+    private LlmAdmissionLimiter admissionLimiter;
+    private GeminiChatService geminiChatService;
+
+    @BeforeEach
+    void setUp() {
+        chatClient = mock(ChatClient.class, RETURNS_DEEP_STUBS);
+        ChatClient.Builder builder = mock(ChatClient.Builder.class);
+        when(builder.build()).thenReturn(chatClient);
+        meterRegistry = new SimpleMeterRegistry();
+        admissionLimiter = new LlmAdmissionLimiter(meterRegistry, 1, 0, Duration.ZERO, Duration.ofSeconds(10),
+                false, 1, Duration.ofSeconds(20));
+        ResilientLlmClient resilientLlmClient = new ResilientLlmClient(meterRegistry, admissionLimiter, Runnable::run, 1, Duration.ofSeconds(5),
+                Duration.ZERO, Duration.ZERO, false, Duration.ZERO,
+                () -> new LlmCircuitBreaker(10, 5, 0.5, Duration.ofSeconds(30), System::nanoTime), System::nanoTime);
+        geminiChatService = new GeminiChatService(builder, new AiUsageRecorder(meterRegistry), resilientLlmClient);
+    }
+
+    @Test
+    void cancellingTheStreamCancelsTheUpstreamRequest() {
+        AtomicBoolean upstreamCancelled = new AtomicBoolean(false);
+        AtomicLong requested = new AtomicLong();
+        Flux<ChatResponse> upstream = Flux.<ChatResponse>never()
+                .startWith(chunk("Hello", null))
+                .doOnRequest(requested::addAndGet)
+                .doOnCancel(() -> upstreamCancelled.set(true));
+        when(chatClient.prompt().user(anyString()).stream().chatResponse()).thenReturn(upstream);
+
+        ChatResponse first = geminiChatService.streamChatResponse("Hi").blockFirst();
+
+        assertThat(first.getResult().getOutput().getText()).isEqualTo("Hello");
+        assertThat(upstreamCancelled).isTrue();
+        assertThat(requested.get()).isLessThanOrEqualTo(32); // Bounded demand, not Long.MAX_VALUE
+        assertThat(admissionLimiter.getInFlight()).isZero(); // The cancelled stream gave its slot back
+    }
+
+    @Test
+    void streamIsRejectedWhileAllSlotsAreTaken() {
+        when(chatClient.prompt().user(anyString()).stream().chatResponse()).thenReturn(Flux.just(chunk("Hello", null)));
+        LlmAdmissionLimiter.Permit heldSlot = admissionLimiter.acquire("other");
+
+        assertThatThrownBy(() -> geminiChatService.streamChatResponse("Hi").blockLast())
+                .isInstanceOf(LlmCapacityExceededException.class);
+
+        heldSlot.succeeded();
+        assertThat(geminiChatService.streamChatResponse("Hi").blockLast().getResult().getOutput().getText()).isEqualTo("Hello");
+    }
+
+    @Test
+    void recordsUsageFromTheFinalChunk() {
+        when(chatClient.prompt().user(anyString()).stream().chatResponse())
+                .thenReturn(Flux.just(chunk("Hel", null), chunk("lo", new DefaultUsage(12, 3, 15))));
+
+        List<ChatResponse> responses = geminiChatService.streamChatResponse("Hi").collectList().block();
+
+        assertThat(responses).hasSize(2);
+        assertThat(meterRegistry.get("jdmatchr.ai.tokens").tag("operation", "gemini-chat").tag("type", "completion").counter().count())
+                .isEqualTo(3);
+    }
+
+    private static ChatResponse chunk(String text, DefaultUsage usage) {
+        ChatResponseMetadata.Builder metadata = ChatResponseMetadata.builder();
+        if (usage != null) {
+            metadata.usage(usage);
+        }
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))), metadata.build());
+    }
+}
@@ -0,0 +1,70 @@
+package com.jdmatchr.core.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeywordScorerTest {
+
+    private static final List<String> DICTIONARY = List.of(
+            "# test dictionary",
+            "Java",
+            "Spring Boot",
+            "Kubernetes | k8s",
+            "Kafka | apache kafka",
+            "PostgreSQL | postgres");
+
+    private static final String JD = "We build Java services with Spring Boot on Kubernetes. Java 21, Kafka and Java experience required.";
+
+    @Test
+    void splitsJdSkillsIntoMatchedAndMissingMostEmphasizedFirst() {
+        KeywordScorer scorer = new KeywordScorer(DICTIONARY, 10);
+
+        LocalScores scores = scorer.score(JD, "Built Java and Spring Boot services on k8s. Contact: jane@example.com");
+
+        assertThat(scores.matchedKeywords()).containsExactly("Java", "Spring Boot", "Kubernetes");
+        assertThat(scores.missingKeywords()).containsExactly("Kafka");
+        // Weights: Java 3 (mentioned three times), the others 1; 5 of 6 matched
+        assertThat(scores.keywordDensityScore()).isBetween(58, 100);
+    }
+
+    @Test
+    void atsScoreRewardsCoverageSectionsAndLength() {
+        KeywordScorer scorer = new KeywordScorer(DICTIONARY, 10);
+        String filler = " Delivered reliable backend features for customers.".repeat(60);
+        String strong = "jane@example.com\nExperience\nJava, Spring Boot, Kubernetes and Kafka at scale." + filler
+                + "\nEducation\nBSc Computer Science\nSkills\nJava Kafka";
+        String weak = "I like computers.";
+
+        LocalScores strongScores = scorer.score(JD, strong);
+        LocalScores weakScores = scorer.score(JD, weak);
+
+        assertThat(strongScores.missingKeywords()).isEmpty();
+        assertThat(strongScores.atsScore()).isEqualTo(100);
+        assertThat(weakScores.atsScore()).isLessThan(5);
+    }
+
+    @Test
+    void jdWithoutKnownSkillsScoresStructureOnly() {
+        KeywordScorer scorer = new KeywordScorer(DICTIONARY, 10);
+
+        LocalScores scores = scorer.score("Friendly team player wanted.", "Experience Education Skills jane@example.com");
+
+        assertThat(scores.matchedKeywords()).isEmpty();
+        assertThat(scores.keywordDensityScore()).isZero();
+        assertThat(scores.atsScore()).isBetween(60, 70); // All sections, but far too short
+    }
+
+    @Test
+    void bundledDictionaryLoadsAndCapsTheKeywordLists() {
+        KeywordScorer scorer = new KeywordScorer(new DefaultResourceLoader(), "classpath:skills-dictionary.txt", 2);
+
+        LocalScores scores = scorer.score("Java, Python, Docker, Kubernetes, PostgreSQL and REST APIs.", "Python");
+
+        assertThat(scores.matchedKeywords()).containsExactly("Python");
+        assertThat(scores.missingKeywords()).hasSize(2);
+    }
+}
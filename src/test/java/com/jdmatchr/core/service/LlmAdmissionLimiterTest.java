@@ -0,0 +1,140 @@
+package com.jdmatchr.core.service;
+
+import com.jdmatchr.core.exception.LlmCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LlmAdmissionLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void rejectsImmediatelyWhenTheQueueIsFull() {
+        LlmAdmissionLimiter limiter = fixedLimiter(1, 0, Duration.ofSeconds(5));
+        limiter.acquire("test");
+
+        assertThatThrownBy(() -> limiter.acquire("test"))
+                .isInstanceOf(LlmCapacityExceededException.class)
+                .satisfies(e -> assertThat(((LlmCapacityExceededException) e).getRetryAfterSeconds()).isEqualTo("10"));
+        assertThat(waitCount("queue_full")).isEqualTo(1);
+    }
+
+    @Test
+    void queuedCallerIsAdmittedWhenASlotIsFreed() {
+        LlmAdmissionLimiter limiter = fixedLimiter(1, 1, Duration.ofSeconds(5));
+        LlmAdmissionLimiter.Permit first = limiter.acquire("test");
+
+        CompletableFuture<LlmAdmissionLimiter.Permit> second = CompletableFuture.supplyAsync(() -> limiter.acquire("test"));
+        waitForQueueDepth(limiter, 1);
+        assertThat(second).isNotDone();
+
+        first.succeeded();
+
+        assertThat(second.join()).isNotNull();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.getQueueDepth()).isZero();
+        assertThat(waitCount("admitted")).isEqualTo(2);
+    }
+
+    @Test
+    void queuedCallerGivesUpAfterMaxWait() {
+        LlmAdmissionLimiter limiter = fixedLimiter(1, 1, Duration.ofMillis(50));
+        limiter.acquire("test");
+
+        assertThatThrownBy(() -> limiter.acquire("test")).isInstanceOf(LlmCapacityExceededException.class);
+        assertThat(limiter.getQueueDepth()).isZero();
+        assertThat(waitCount("timeout")).isEqualTo(1);
+    }
+
+    @Test
+    void slotIsReleasedWhenTheCallFails() {
+        LlmAdmissionLimiter limiter = fixedLimiter(1, 0, Duration.ZERO);
+
+        LlmAdmissionLimiter.Permit failed = limiter.acquire("test");
+        failed.failed(new IllegalStateException("boom"));
+
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.acquire("test")).isNotNull();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void onlyTheFirstReleaseOfAPermitCounts() {
+        LlmAdmissionLimiter limiter = fixedLimiter(2, 0, Duration.ZERO);
+        LlmAdmissionLimiter.Permit permit = limiter.acquire("test");
+        limiter.acquire("test");
+
+        permit.failed(new IllegalStateException("boom"));
+        permit.abandoned();
+        permit.succeeded();
+
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void adaptiveLimitBacksOffOnThrottlingAndRecoversOnFastSuccesses() {
+        AtomicLong nanos = new AtomicLong();
+        LlmAdmissionLimiter limiter = new LlmAdmissionLimiter(meterRegistry, 10, 0, Duration.ZERO, Duration.ofSeconds(10),
+                true, 2, Duration.ofSeconds(5), nanos::get);
+        WebClientResponseException tooManyRequests = WebClientResponseException.create(429, "Too Many Requests", null, null, null);
+
+        limiter.acquire("test").failed(new RuntimeException("wrapped", tooManyRequests));
+        assertThat(limiter.getLimit()).isEqualTo(7);
+
+        // A second 429 inside the cooldown belongs to the same burst
+        limiter.acquire("test").failed(tooManyRequests);
+        assertThat(limiter.getLimit()).isEqualTo(7);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        limiter.acquire("test").failed(tooManyRequests);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        // Roughly one extra slot per window of fast successes
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire("test").succeeded();
+        }
+        assertThat(limiter.getLimit()).isEqualTo(5);
+
+        // A call slower than the latency target counts like throttling
+        LlmAdmissionLimiter.Permit slow = limiter.acquire("test");
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        slow.succeeded();
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void nonThrottlingFailuresDoNotChangeTheAdaptiveLimit() {
+        LlmAdmissionLimiter limiter = new LlmAdmissionLimiter(meterRegistry, 10, 0, Duration.ZERO, Duration.ofSeconds(10),
+                true, 2, Duration.ofSeconds(5), System::nanoTime);
+
+        limiter.acquire("test").failed(new IllegalStateException("400 - bad request"));
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    private static void waitForQueueDepth(LlmAdmissionLimiter limiter, int depth) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getQueueDepth() != depth) {
+            assertThat(System.nanoTime()).as("queue depth never reached %d", depth).isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private LlmAdmissionLimiter fixedLimiter(int maxConcurrency, int maxQueue, Duration maxWait) {
+        return new LlmAdmissionLimiter(meterRegistry, maxConcurrency, maxQueue, maxWait, Duration.ofSeconds(10),
+                false, 1, Duration.ofSeconds(20), System::nanoTime);
+    }
+
+    private long waitCount(String outcome) {
+        return meterRegistry.get("jdmatchr.llm.admission.wait").tag("outcome", outcome).timer().count();
+    }
+}
@@ -0,0 +1,231 @@
+package com.jdmatchr.core.service;
+
+import com.jdmatchr.core.exception.CapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PdfParserServiceImplTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PdfParserServiceImpl parser;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        parser = new PdfParserServiceImpl(meterRegistry, new SyncTaskExecutor(), true, 10, Duration.ofHours(1), 10, 3500);
+    }
+
+    @Test
+    void secondUploadOfSameBytesIsServedFromCache() throws IOException {
+        byte[] pdf = createPdf(List.of("Jane Doe", "Senior Java Developer", "Spring Boot, PostgreSQL"));
+
+        String first = parser.parsePdf(new MockMultipartFile("resumeFile", "resume.pdf", "application/pdf", pdf));
+        String second = parser.parsePdf(new MockMultipartFile("resumeFile", "renamed.pdf", "application/pdf", pdf));
+
+        assertThat(first).contains("Senior Java Developer");
+        assertThat(second).isEqualTo(first);
+        assertThat(cacheCount("hit")).isEqualTo(1.0);
+        assertThat(cacheCount("miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    void differentContentIsParsedAgain() throws IOException {
+        parser.parsePdf(new MockMultipartFile("resumeFile", "a.pdf", "application/pdf", createPdf(List.of("Resume A"))));
+        String b = parser.parsePdf(new MockMultipartFile("resumeFile", "b.pdf", "application/pdf", createPdf(List.of("Resume B"))));
+
+        assertThat(b).contains("Resume B");
+        assertThat(cacheCount("miss")).isEqualTo(2.0);
+    }
+
+    @Test
+    void extractionStopsOnceTheCharacterBudgetIsFilled() throws IOException {
+        PdfParserServiceImpl budgetedParser = new PdfParserServiceImpl(new SimpleMeterRegistry(), new SyncTaskExecutor(), false, 10, Duration.ofHours(1), 10, 60);
+        byte[] pdf = createMultiPagePdf(List.of(
+                List.of("Page one summary: backend engineer"),
+                List.of("Page two experience: payments platform"),
+                List.of("Page three should never be read")));
+
+        String text = budgetedParser.parsePdf(new MockMultipartFile("resumeFile", "cv.pdf", "application/pdf", pdf));
+
+        assertThat(text).startsWith("Page one summary").endsWith("...").hasSize(60);
+        assertThat(text).doesNotContain("Page three");
+    }
+
+    @Test
+    void extractionStopsAtThePageBudget() throws IOException {
+        PdfParserServiceImpl budgetedParser = new PdfParserServiceImpl(new SimpleMeterRegistry(), new SyncTaskExecutor(), false, 10, Duration.ofHours(1), 2, 3500);
+        byte[] pdf = createMultiPagePdf(List.of(List.of("First page"), List.of("Second page"), List.of("Third page")));
+
+        String text = budgetedParser.parsePdf(new MockMultipartFile("resumeFile", "cv.pdf", "application/pdf", pdf));
+
+        assertThat(text).isEqualTo("First page Second page");
+    }
+
+    @Test
+    void parsingRunsOnTheParsingExecutor() throws IOException {
+        List<String> parserThreads = new CopyOnWriteArrayList<>();
+        Executor recordingExecutor = task -> {
+            Thread worker = new Thread(() -> {
+                parserThreads.add(Thread.currentThread().getName());
+                task.run();
+            }, "pdf-parser-test");
+            worker.start();
+        };
+        PdfParserServiceImpl offloadingParser = new PdfParserServiceImpl(new SimpleMeterRegistry(), recordingExecutor, false, 10, Duration.ofHours(1), 10, 3500);
+
+        String text = offloadingParser.parsePdf(new MockMultipartFile("resumeFile", "cv.pdf", "application/pdf", createPdf(List.of("Offloaded"))));
+
+        assertThat(text).isEqualTo("Offloaded");
+        assertThat(parserThreads).containsExactly("pdf-parser-test");
+    }
+
+    @Test
+    void failuresOnTheParsingExecutorSurfaceAsIOException() {
+        PdfParserServiceImpl offloadingParser = new PdfParserServiceImpl(new SimpleMeterRegistry(), task -> new Thread(task).start(), false, 10, Duration.ofHours(1), 10, 3500);
+        MockMultipartFile notAPdf = new MockMultipartFile("resumeFile", "cv.pdf", "application/pdf", "not a pdf".getBytes());
+
+        assertThatThrownBy(() -> offloadingParser.parsePdf(notAPdf)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void fullParsingQueueMeansCapacityExceeded() throws IOException {
+        PdfParserServiceImpl saturatedParser = new PdfParserServiceImpl(new SimpleMeterRegistry(), task -> {
+            throw new RejectedExecutionException("queue full");
+        }, false, 10, Duration.ofHours(1), 10, 3500);
+        MockMultipartFile pdf = new MockMultipartFile("resumeFile", "cv.pdf", "application/pdf", createPdf(List.of("Queued")));
+
+        assertThatThrownBy(() -> saturatedParser.parsePdf(pdf))
+                .isInstanceOfSatisfying(CapacityExceededException.class, e -> assertThat(e.getRetryAfterSeconds()).isEqualTo("5"));
+    }
+
+    @Test
+    void largeUploadIsParsedWithoutMaterializingItOnTheHeap(@TempDir Path tempDir) throws IOException {
+        int fillerSize = 8 * 1024 * 1024;
+        Path pdfPath = tempDir.resolve("large-resume.pdf");
+        Files.write(pdfPath, createPdfWithFiller(List.of("Jane Doe", "Staff Engineer"), fillerSize));
+        PdfParserServiceImpl uncachedParser = new PdfParserServiceImpl(new SimpleMeterRegistry(), new SyncTaskExecutor(), false, 10, Duration.ofHours(1), 10, 3500);
+        MultipartFile upload = new DiskBackedMultipartFile(pdfPath);
+
+        uncachedParser.parsePdf(upload); // Warm up class loading and PDFBox static state
+        long before = currentThreadAllocatedBytes();
+        String text = uncachedParser.parsePdf(upload);
+        long allocated = currentThreadAllocatedBytes() - before;
+
+        assertThat(text).contains("Staff Engineer");
+        // The old getBytes() + Loader.loadPDF(byte[]) path allocated at least one full copy of the upload.
+        assertThat(allocated).isLessThan(fillerSize / 2);
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private double cacheCount(String result) {
+        return meterRegistry.get("jdmatchr.pdf.cache.requests").tag("result", result).counter().count();
+    }
+
+    static byte[] createPdf(List<String> lines) throws IOException {
+        return createPdfWithFiller(lines, 0);
+    }
+
+    static byte[] createMultiPagePdf(List<List<String>> pages) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (List<String> lines : pages) {
+                addPage(document, lines);
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Builds a one-page PDF; a non-zero fillerSize attaches an opaque stream of that many bytes
+     * (like an embedded image or font) that text extraction never needs to read.
+     */
+    static byte[] createPdfWithFiller(List<String> lines, int fillerSize) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            if (fillerSize > 0) {
+                byte[] filler = new byte[fillerSize];
+                new Random(42).nextBytes(filler);
+                COSStream fillerStream = document.getDocument().createCOSStream();
+                try (OutputStream fillerOut = fillerStream.createRawOutputStream()) {
+                    fillerOut.write(filler);
+                }
+                document.getDocumentCatalog().getCOSObject().setItem(COSName.getPDFName("Filler"), fillerStream);
+            }
+            addPage(document, lines);
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static void addPage(PDDocument document, List<String> lines) throws IOException {
+        PDPage page = new PDPage();
+        document.addPage(page);
+        try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+            content.beginText();
+            content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+            content.setLeading(14);
+            content.newLineAtOffset(50, 700);
+            for (String line : lines) {
+                content.showText(line);
+                content.newLine();
+            }
+            content.endText();
+        }
+    }
+
+    /**
+     * Mimics a disk-backed multipart upload and fails the test if anything asks for the whole content as a byte[].
+     */
+    private record DiskBackedMultipartFile(Path path) implements MultipartFile {
+        @Override public String getName() { return "resumeFile"; }
+        @Override public String getOriginalFilename() { return path.getFileName().toString(); }
+        @Override public String getContentType() { return "application/pdf"; }
+        @Override public boolean isEmpty() { return getSize() == 0; }
+        @Override public long getSize() {
+            try {
+                return Files.size(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        @Override public byte[] getBytes() { throw new AssertionError("The upload must not be copied onto the heap"); }
+        @Override public InputStream getInputStream() throws IOException { return Files.newInputStream(path); }
+        @Override public void transferTo(File dest) throws IOException {
+            Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.jdmatchr.core.service;
+
+import com.jdmatchr.core.util.TokenEstimator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PromptBudgetAllocatorTest {
+
+    private static final String JD = """
+            About us: We are a fast growing fintech company with offices in five countries and a great culture.
+            Requirements: 5+ years of Java and Spring Boot. Experience with PostgreSQL and Kafka.
+            Benefits: Free lunch, gym membership, generous parental leave and a yearly team offsite in the mountains.
+            """.strip();
+
+    private static final String RESUME = """
+            Summary: Backend engineer focused on payments.
+            Experience: Built a ledger service in Java handling 2k requests per second.
+            Hobbies: Chess, cycling, landscape photography and baking sourdough bread on weekends.
+            """.strip();
+
+    @Test
+    void keepsEverythingWhenInputsFit() {
+        PromptBudgetAllocator allocator = new PromptBudgetAllocator(4000, 0.55);
+
+        PromptBudgetAllocator.Allocation allocation = allocator.allocate(JD, RESUME);
+
+        assertThat(allocation.trimmed()).isFalse();
+        assertThat(allocation.jobDescription()).isEqualTo(JD);
+        assertThat(allocation.resumeText()).isEqualTo(RESUME);
+        assertThat(allocation.jobDescriptionTokens()).isEqualTo(TokenEstimator.estimate(JD));
+    }
+
+    @Test
+    void dropsLeastImportantSectionsFirstAndStaysWithinBudget() {
+        int budget = 80;
+        PromptBudgetAllocator allocator = new PromptBudgetAllocator(budget, 0.55);
+
+        PromptBudgetAllocator.Allocation allocation = allocator.allocate(JD, RESUME);
+
+        assertThat(allocation.trimmed()).isTrue();
+        assertThat(allocation.jobDescriptionTokens() + allocation.resumeTokens()).isLessThanOrEqualTo(budget);
+        assertThat(allocation.jobDescription()).contains("Requirements: 5+ years of Java and Spring Boot.")
+                .doesNotContain("Benefits").doesNotContain("About us");
+        assertThat(allocation.resumeText()).contains("Experience: Built a ledger service")
+                .doesNotContain("Hobbies");
+    }
+
+    @Test
+    void unusedShareMovesToTheOtherSide() {
+        String shortJd = "Requirements: Java.";
+        int budget = TokenEstimator.estimate(shortJd) + TokenEstimator.estimate(RESUME) - 1;
+        PromptBudgetAllocator allocator = new PromptBudgetAllocator(budget, 0.1);
+
+        PromptBudgetAllocator.Allocation allocation = allocator.allocate(shortJd, RESUME);
+
+        assertThat(allocation.jobDescription()).isEqualTo(shortJd);
+        // Only the least important resume section had to go, despite the resume's 10% share
+        assertThat(allocation.resumeText()).contains("Summary").contains("Experience").doesNotContain("Hobbies");
+    }
+}
@@ -0,0 +1,369 @@
+package com.jdmatchr.core.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jdmatchr.core.dto.AnalysisResultDto;
+import com.jdmatchr.core.dto.ReanalysisJobDto;
+import com.jdmatchr.core.dto.ReanalysisJobRequest;
+import com.jdmatchr.core.entity.AnalysisJobStatus;
+import com.jdmatchr.core.entity.InsightInput;
+import com.jdmatchr.core.entity.InsightRevision;
+import com.jdmatchr.core.entity.Insights;
+import com.jdmatchr.core.entity.ReanalysisJob;
+import com.jdmatchr.core.exception.LlmCapacityExceededException;
+import com.jdmatchr.core.repository.InsightInputRepository;
+import com.jdmatchr.core.repository.InsightRevisionRepository;
+import com.jdmatchr.core.repository.InsightsRepository;
+import com.jdmatchr.core.repository.ReanalysisJobRepository;
+import com.jdmatchr.core.service.StubLlmServer.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReanalysisJobServiceImplTest {
+
+    private static final String MODEL = "reanalysis-model";
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final String ANALYSIS_JSON = """
+            {"matchScore": 78, "fluffAnalysis": {"summary": "Concise", "detected": []},
+             "roleFitAndAlignmentMetrics": {"prediction": {"verdict": "Strong", "reason": "Solid Java."}},
+             "resumeSuggestions": ["Quantify impact"], "interviewPreparationTopics": ["Kafka"]}""";
+
+    private ReanalysisJobRepository reanalysisJobRepository;
+    private InsightsRepository insightsRepository;
+    private InsightInputRepository insightInputRepository;
+    private InsightRevisionRepository insightRevisionRepository;
+    private PromptBuilderService promptBuilderService;
+    private PlatformTransactionManager transactionManager;
+    private AnalysisAiService analysisAiService;
+    private ReanalysisJobServiceImpl reanalysisJobService;
+
+    private final List<Insights> storedInsights = new ArrayList<>();
+    private final Map<UUID, InsightInput> storedInputs = new HashMap<>();
+    private final Map<UUID, ReanalysisJob> storedJobs = new HashMap<>();
+    private final List<InsightRevision> savedRevisions = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+
+        reanalysisJobRepository = mock(ReanalysisJobRepository.class);
+        when(reanalysisJobRepository.save(any(ReanalysisJob.class))).thenAnswer(invocation -> {
+            ReanalysisJob job = invocation.getArgument(0);
+            if (job.getId() == null) {
+                job.setId(UUID.randomUUID());
+            }
+            storedJobs.put(job.getId(), job);
+            return job;
+        });
+        when(reanalysisJobRepository.findById(any(UUID.class)))
+                .thenAnswer(invocation -> Optional.ofNullable(storedJobs.get(invocation.<UUID>getArgument(0))));
+        when(reanalysisJobRepository.findByStatusInOrderByCreatedAtAsc(anyList())).thenAnswer(invocation -> storedJobs.values().stream()
+                .filter(job -> invocation.<Collection<AnalysisJobStatus>>getArgument(0).contains(job.getStatus())).toList());
+
+        insightsRepository = mock(InsightsRepository.class);
+        when(insightsRepository.findReanalysisPage(any(), any(), any(), any(), any())).thenAnswer(invocation -> page(
+                invocation.getArgument(2), invocation.getArgument(3), invocation.<Pageable>getArgument(4).getPageSize()));
+
+        insightInputRepository = mock(InsightInputRepository.class);
+        when(insightInputRepository.findAllById(anyList())).thenAnswer(invocation -> invocation.<Collection<UUID>>getArgument(0)
+                .stream().filter(storedInputs::containsKey).map(storedInputs::get).toList());
+
+        insightRevisionRepository = mock(InsightRevisionRepository.class);
+        when(insightRevisionRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            savedRevisions.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        promptBuilderService = mock(PromptBuilderService.class);
+        when(promptBuilderService.getPromptVersion()).thenReturn("v-test");
+        when(promptBuilderService.buildPrompt(anyString(), anyString(), anyString()))
+                .thenReturn(new AnalysisPrompt("system", "prompt", "JD", "resume", 100,
+                        new LocalScores(List.of(), List.of(), 0, 50)));
+
+        analysisAiService = mock(AnalysisAiService.class);
+        when(analysisAiService.getAnalysisFromAi(any(AnalysisPrompt.class), eq(List.of(MODEL)), eq("bulk-reanalysis")))
+                .thenReturn(new AnalysisAiService.ModelAnalysis(
+                        new AnalysisResultDto(91, 88, null, null, null, List.of(), List.of()), MODEL));
+
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        reanalysisJobService = service(analysisAiService, mock(AnalysisModelRouter.class), new SyncTaskExecutor(), 60_000);
+    }
+
+    @Test
+    void jobWalksAllPagesSavesRevisionsAndSkipsInsightsWithoutInputs() {
+        Insights first = storeInsight(0, true);
+        Insights second = storeInsight(1, false);
+        Insights third = storeInsight(2, true);
+
+        ReanalysisJobDto submitted = reanalysisJobService.submitJob(new ReanalysisJobRequest(null, null, null, MODEL, false));
+
+        ReanalysisJob job = storedJobs.get(submitted.jobId());
+        assertThat(job.getStatus()).isEqualTo(AnalysisJobStatus.COMPLETED);
+        assertThat(job.getPromptVersion()).isEqualTo("v-test");
+        assertThat(job.getProcessedCount()).isEqualTo(3);
+        assertThat(job.getSucceededCount()).isEqualTo(2);
+        assertThat(job.getSkippedCount()).isEqualTo(1);
+        assertThat(job.getFailedCount()).isZero();
+        assertThat(job.getCheckpointInsightId()).isEqualTo(third.getId());
+
+        assertThat(savedRevisions).extracting(InsightRevision::getInsightId).containsExactly(first.getId(), third.getId());
+        assertThat(savedRevisions).allSatisfy(revision -> {
+            assertThat(revision.getReanalysisJobId()).isEqualTo(job.getId());
+            assertThat(revision.getMatchScore()).isEqualTo(91.0);
+            assertThat(revision.getAtsScore()).isEqualTo(88);
+            assertThat(revision.getModelName()).isEqualTo(MODEL);
+        });
+        // Second page starts after the last insight of the first one
+        verify(insightsRepository).findReanalysisPage(any(), any(), eq(second.getCreatedAt()), eq(second.getId()), any());
+        // Insights are left alone unless applyToInsights is set
+        verify(insightsRepository, never()).saveAll(anyList());
+        assertThat(first.getMatchScore()).isEqualTo(50.0);
+    }
+
+    @Test
+    void applyToInsightsOverwritesTheStoredResult() {
+        Insights insight = storeInsight(0, true);
+
+        reanalysisJobService.submitJob(new ReanalysisJobRequest(null, null, null, MODEL, true));
+
+        verify(insightsRepository).saveAll(List.of(insight));
+        assertThat(insight.getMatchScore()).isEqualTo(91.0);
+        assertThat(insight.getModelName()).isEqualTo(MODEL);
+    }
+
+    @Test
+    void failedJobResumesFromItsCheckpoint() throws Exception {
+        Insights first = storeInsight(0, true);
+        Insights second = storeInsight(1, true);
+        ReanalysisJob job = new ReanalysisJob();
+        job.setStatus(AnalysisJobStatus.FAILED);
+        job.setModelName(MODEL);
+        job.setCheckpointCreatedAt(first.getCreatedAt());
+        job.setCheckpointInsightId(first.getId());
+        job.setProcessedCount(1);
+        job.setSucceededCount(1);
+        job.setErrorMessage("provider down");
+        reanalysisJobRepository.save(job);
+
+        reanalysisJobService.resumeJob(job.getId());
+
+        assertThat(job.getStatus()).isEqualTo(AnalysisJobStatus.COMPLETED);
+        assertThat(job.getErrorMessage()).isNull();
+        assertThat(job.getProcessedCount()).isEqualTo(2);
+        assertThat(savedRevisions).extracting(InsightRevision::getInsightId).containsExactly(second.getId());
+        verify(analysisAiService, times(1)).getAnalysisFromAi(any(AnalysisPrompt.class), anyList(), anyString());
+        assertThatThrownBy(() -> reanalysisJobService.resumeJob(job.getId())).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void failingInsightIsCountedAndTheJobCarriesOn() throws Exception {
+        storeInsight(0, true);
+        storeInsight(1, true);
+        when(analysisAiService.getAnalysisFromAi(any(AnalysisPrompt.class), anyList(), anyString()))
+                .thenThrow(new IllegalStateException("unparseable response"))
+                .thenReturn(new AnalysisAiService.ModelAnalysis(
+                        new AnalysisResultDto(70, 60, null, null, null, List.of(), List.of()), MODEL));
+
+        ReanalysisJobDto submitted = reanalysisJobService.submitJob(new ReanalysisJobRequest(null, null, null, MODEL, false));
+
+        ReanalysisJob job = storedJobs.get(submitted.jobId());
+        assertThat(job.getStatus()).isEqualTo(AnalysisJobStatus.COMPLETED);
+        assertThat(job.getFailedCount()).isEqualTo(1);
+        assertThat(job.getSucceededCount()).isEqualTo(1);
+        ArgumentCaptor<List<InsightRevision>> revisions = ArgumentCaptor.captor();
+        verify(insightRevisionRepository).saveAll(revisions.capture());
+        assertThat(revisions.getValue()).hasSize(1);
+    }
+
+    @Test
+    void interruptDuringAnAiCallLeavesTheCheckpointWhereItWas() throws Exception {
+        storeInsight(0, true);
+        storeInsight(1, true);
+        storeInsight(2, true);
+        CountDownLatch secondCallStarted = new CountDownLatch(1);
+        when(analysisAiService.getAnalysisFromAi(any(AnalysisPrompt.class), anyList(), anyString()))
+                .thenReturn(new AnalysisAiService.ModelAnalysis(
+                        new AnalysisResultDto(70, 60, null, null, null, List.of(), List.of()), MODEL))
+                .thenAnswer(invocation -> {
+                    secondCallStarted.countDown();
+                    try {
+                        new CountDownLatch(1).await();
+                        throw new AssertionError("The worker was not interrupted");
+                    } catch (InterruptedException e) {
+                        // Wrapped like the AI layers do, and without restoring the interrupt flag
+                        throw new RuntimeException("Failed to get analysis from resume analysis AI service",
+                                new IllegalStateException("Interrupted while waiting for the AI service", e));
+                    }
+                });
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        ReanalysisJobServiceImpl service = service(analysisAiService, mock(AnalysisModelRouter.class), worker::execute, 60_000);
+
+        ReanalysisJobDto submitted = service.submitJob(new ReanalysisJobRequest(null, null, null, MODEL, false));
+        assertThat(secondCallStarted.await(10, TimeUnit.SECONDS)).isTrue();
+        worker.shutdownNow(); // What the executor does on shutdown
+        assertThat(worker.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        ReanalysisJob job = storedJobs.get(submitted.jobId());
+        assertThat(job.getStatus()).isEqualTo(AnalysisJobStatus.RUNNING);
+        assertThat(job.getCheckpointInsightId()).isNull();
+        assertThat(job.getProcessedCount()).isZero();
+        assertThat(job.getFailedCount()).isZero();
+        verify(insightRevisionRepository, never()).saveAll(anyList());
+        verify(analysisAiService, times(2)).getAnalysisFromAi(any(AnalysisPrompt.class), anyList(), anyString());
+    }
+
+    @Test
+    void insightFailsOnceAiCapacityStaysExhausted() throws Exception {
+        storeInsight(0, true);
+        when(analysisAiService.getAnalysisFromAi(any(AnalysisPrompt.class), anyList(), anyString()))
+                .thenThrow(new LlmCapacityExceededException("Circuit open", Duration.ZERO));
+
+        ReanalysisJobDto submitted = reanalysisJobService.submitJob(new ReanalysisJobRequest(null, null, null, MODEL, false));
+
+        ReanalysisJob job = storedJobs.get(submitted.jobId());
+        assertThat(job.getStatus()).isEqualTo(AnalysisJobStatus.COMPLETED);
+        assertThat(job.getFailedCount()).isEqualTo(1);
+        verify(analysisAiService, times(5)).getAnalysisFromAi(any(AnalysisPrompt.class), anyList(), anyString());
+    }
+
+    /**
+     * The real AI stack against the stub provider: the first insight runs into 429s until the model's circuit
+     * opens, waits out the capacity error and succeeds; the worker is then interrupted in the middle of the
+     * second page, and a restart continues from the first page's checkpoint.
+     */
+    @Test
+    void jobAgainstTheProviderSurvivesThrottlingAndAnInterruptedPage() throws Exception {
+        Insights first = storeInsight(0, true);
+        Insights second = storeInsight(1, true);
+        Insights third = storeInsight(2, true);
+        first.setJobTitle("Role A");
+        second.setJobTitle("Role B");
+        third.setJobTitle("Role C");
+        int requestsPerMinute = 200; // 300 ms between calls
+        try (StubLlmServer stub = new StubLlmServer(ANALYSIS_JSON)) {
+            // Role A: two 429s open the circuit (window 2), the third attempt is refused with a capacity error.
+            // Role C: the provider hangs until the worker is interrupted.
+            stub.enqueue(Response.status(429), Response.status(429), Response.ok(ANALYSIS_JSON), Response.ok(ANALYSIS_JSON),
+                    Response.delayed(200, 30_000));
+            ExecutorService attemptThreads = Executors.newCachedThreadPool();
+            ExecutorService worker = Executors.newSingleThreadExecutor();
+            try {
+                SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+                promptBuilderService = new PromptBuilderServiceImpl(new PromptBudgetAllocator(4000, 0.55),
+                        new KeywordScorer(List.of("Java", "Kafka"), 10), meterRegistry);
+                AnalysisAiService aiService = aiService(stub, attemptThreads, meterRegistry);
+                AnalysisModelRouter router = mock(AnalysisModelRouter.class);
+                when(router.candidates(anyInt())).thenReturn(List.of("routed-model"));
+
+                ReanalysisJobDto submitted = service(aiService, router, worker::execute, requestsPerMinute)
+                        .submitJob(new ReanalysisJobRequest(null, null, null, "pinned-model", false));
+                stub.awaitRequests(5, Duration.ofSeconds(20));
+                worker.shutdownNow();
+                assertThat(worker.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+                ReanalysisJob job = storedJobs.get(submitted.jobId());
+                assertThat(job.getStatus()).isEqualTo(AnalysisJobStatus.RUNNING);
+                assertThat(job.getCheckpointInsightId()).isEqualTo(second.getId());
+                assertThat(job.getProcessedCount()).isEqualTo(2);
+                assertThat(job.getFailedCount()).isZero(); // Neither the capacity error nor the interrupt failed an insight
+                // Paced: Role C went out at least one interval after Role B
+                assertThat(Duration.ofNanos(stub.arrivalNanos(4) - stub.arrivalNanos(3))).isGreaterThan(Duration.ofMillis(250));
+
+                // Restart
+                service(aiService, router, new SyncTaskExecutor(), requestsPerMinute).resumeInterruptedJobs();
+
+                assertThat(job.getStatus()).isEqualTo(AnalysisJobStatus.COMPLETED);
+                assertThat(job.getProcessedCount()).isEqualTo(3);
+                assertThat(job.getSucceededCount()).isEqualTo(3);
+                assertThat(job.getCheckpointInsightId()).isEqualTo(third.getId());
+            } finally {
+                worker.shutdownNow();
+                attemptThreads.shutdownNow();
+            }
+
+            assertThat(savedRevisions).extracting(InsightRevision::getInsightId)
+                    .containsExactly(first.getId(), second.getId(), third.getId());
+            assertThat(savedRevisions).extracting(InsightRevision::getModelName).containsOnly("pinned-model");
+            assertThat(stub.requests()).extracting(request -> request.get("model").asText()).containsOnly("pinned-model");
+            assertThat(stub.requests()).extracting(request -> request.get("messages").get(1).get("content").asText())
+                    .extracting(text -> text.contains("Role A") ? "A" : text.contains("Role B") ? "B" : "C")
+                    .containsExactly("A", "A", "A", "B", "C", "C");
+        }
+    }
+
+    private ReanalysisJobServiceImpl service(AnalysisAiService aiService, AnalysisModelRouter router, TaskExecutor executor,
+                                             int requestsPerMinute) {
+        return new ReanalysisJobServiceImpl(reanalysisJobRepository, insightsRepository, insightInputRepository,
+                insightRevisionRepository, promptBuilderService, aiService, router, new ObjectMapper(), transactionManager,
+                executor, 2, requestsPerMinute, true);
+    }
+
+    private AnalysisAiService aiService(StubLlmServer stub, ExecutorService attemptThreads, SimpleMeterRegistry meterRegistry) {
+        LlmAdmissionLimiter admissionLimiter = new LlmAdmissionLimiter(meterRegistry, 1, 0, Duration.ZERO, Duration.ofSeconds(10),
+                false, 1, Duration.ofSeconds(20));
+        ResilientLlmClient resilientLlmClient = new ResilientLlmClient(meterRegistry, admissionLimiter, attemptThreads, 3, Duration.ofSeconds(60),
+                Duration.ofMillis(10), Duration.ofMillis(20), false, Duration.ZERO,
+                () -> new LlmCircuitBreaker(2, 2, 0.5, Duration.ofMillis(200), System::nanoTime), System::nanoTime);
+        return new AnalysisAiService(ChatClient.builder(stub.chatModel("routed-model")), new AiUsageRecorder(meterRegistry),
+                resilientLlmClient, mock(AnalysisModelRouter.class), new AnalysisResultParser(new ObjectMapper()),
+                promptBuilderService, meterRegistry, true);
+    }
+
+    private Insights storeInsight(int minutes, boolean withInput) {
+        Insights insight = new Insights();
+        insight.setId(UUID.randomUUID());
+        insight.setJobTitle("Backend Engineer");
+        insight.setCreatedAt(T0.plusMinutes(minutes));
+        insight.setMatchScore(50.0);
+        storedInsights.add(insight);
+        if (withInput) {
+            storedInputs.put(insight.getId(), new InsightInput(insight.getId(), "We need Java.", "Java developer"));
+        }
+        return insight;
+    }
+
+    private List<Insights> page(OffsetDateTime afterCreatedAt, UUID afterId, int size) {
+        return storedInsights.stream()
+                .filter(i -> i.getCreatedAt().isAfter(afterCreatedAt)
+                        || (i.getCreatedAt().isEqual(afterCreatedAt) && i.getId().compareTo(afterId) > 0))
+                .sorted(Comparator.comparing(Insights::getCreatedAt).thenComparing(Insights::getId))
+                .limit(size)
+                .toList();
+    }
+}
@@ -0,0 +1,185 @@
+package com.jdmatchr.core.service;
+
+import com.jdmatchr.core.exception.LlmCapacityExceededException;
+import com.jdmatchr.core.service.StubLlmServer.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives a real Spring AI OpenAI client against a local stub server that injects errors and latency.
+ */
+class ResilientLlmClientTest {
+
+    private static final String OPERATION = "test";
+
+    private StubLlmServer stub;
+    private ExecutorService attemptThreads;
+    private SimpleMeterRegistry meterRegistry;
+    private LlmAdmissionLimiter admissionLimiter;
+    private ChatClient chatClient;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = new StubLlmServer("hello");
+        attemptThreads = Executors.newCachedThreadPool();
+        meterRegistry = new SimpleMeterRegistry();
+        admissionLimiter = limiter(2);
+        chatClient = ChatClient.create(stub.chatModel("stub"));
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.close();
+        attemptThreads.shutdownNow();
+    }
+
+    @Test
+    void transientErrorsAreRetried() {
+        stub.enqueue(Response.status(503), Response.status(429));
+        ResilientLlmClient client = client(3, Duration.ofSeconds(5), false, breaker(10, 10));
+
+        assertThat(client.call(OPERATION, this::ask)).isEqualTo("hello");
+        assertThat(stub.requestCount()).isEqualTo(3);
+        assertThat(attempts("transient_failure")).isEqualTo(2);
+    }
+
+    @Test
+    void clientErrorsAreNotRetried() {
+        stub.enqueue(Response.status(400));
+        ResilientLlmClient client = client(3, Duration.ofSeconds(5), false, breaker(10, 10));
+
+        assertThatThrownBy(() -> client.call(OPERATION, this::ask)).hasMessageStartingWith("400");
+        assertThat(stub.requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void slowAttemptIsAbandonedAtTheAttemptTimeoutAndRetried() {
+        stub.enqueue(Response.delayed(200, 3_000));
+        ResilientLlmClient client = client(2, Duration.ofMillis(300), false, breaker(10, 10));
+
+        long start = System.nanoTime();
+        assertThat(client.call(OPERATION, this::ask)).isEqualTo("hello");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(stub.requestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void hedgedRequestAnswersWhenTheFirstIsSlow() {
+        ResilientLlmClient client = client(1, Duration.ofSeconds(10), true, breaker(10, 10));
+        for (int i = 0; i < 20; i++) {
+            client.call(OPERATION, this::ask); // Fast calls establish the p95 latency
+        }
+        stub.enqueue(Response.delayed(200, 5_000));
+
+        long start = System.nanoTime();
+        assertThat(client.call(OPERATION, this::ask)).isEqualTo("hello");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+        assertThat(meterRegistry.get("jdmatchr.llm.hedges").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void hedgeIsOnlySentWhenAnAdmissionSlotIsFree() {
+        admissionLimiter = limiter(1);
+        ResilientLlmClient client = client(1, Duration.ofSeconds(10), true, breaker(10, 10));
+        for (int i = 0; i < 20; i++) {
+            client.call(OPERATION, this::ask);
+        }
+        stub.enqueue(Response.delayed(200, 1_000));
+
+        assertThat(client.call(OPERATION, this::ask)).isEqualTo("hello");
+
+        assertThat(stub.requestCount()).isEqualTo(21);
+        assertThat(meterRegistry.find("jdmatchr.llm.hedges").counter()).isNull();
+    }
+
+    @Test
+    void everyAttemptTakesItsOwnAdmissionSlot() {
+        // One slot and no queue: the retry is only admitted if the failed attempt gave its slot back
+        admissionLimiter = limiter(1);
+        stub.enqueue(Response.status(503));
+        ResilientLlmClient client = client(2, Duration.ofSeconds(5), false, breaker(10, 10));
+
+        assertThat(client.call(OPERATION, this::ask)).isEqualTo("hello");
+
+        assertThat(meterRegistry.get("jdmatchr.llm.admission.wait").tag("outcome", "admitted").timer().count()).isEqualTo(2);
+        assertThat(admissionLimiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void attemptExecutorWithoutAFreeThreadMeansCapacityExceeded() {
+        ResilientLlmClient client = new ResilientLlmClient(meterRegistry, admissionLimiter, task -> {
+            throw new RejectedExecutionException("no thread");
+        }, 3, Duration.ofSeconds(5), Duration.ofMillis(10), Duration.ofMillis(50), false, Duration.ofMillis(200),
+                () -> breaker(10, 10), System::nanoTime);
+
+        assertThatThrownBy(() -> client.call(OPERATION, this::ask))
+                .isInstanceOfSatisfying(LlmCapacityExceededException.class, e -> assertThat(e.getRetryAfterSeconds()).isEqualTo("10"));
+        assertThat(stub.requestCount()).isZero();
+        assertThat(admissionLimiter.getInFlight()).isZero();
+        assertThat(client.isCircuitClosed("default")).isTrue();
+    }
+
+    @Test
+    void openCircuitFailsFastWithoutCallingTheProvider() {
+        for (int i = 0; i < 4; i++) {
+            stub.enqueue(Response.status(500));
+        }
+        ResilientLlmClient client = client(1, Duration.ofSeconds(5), false, breaker(4, 4));
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> client.call(OPERATION, this::ask)).hasMessageStartingWith("500");
+        }
+
+        assertThatThrownBy(() -> client.call(OPERATION, this::ask))
+                .isInstanceOf(LlmCapacityExceededException.class);
+        assertThat(stub.requestCount()).isEqualTo(4);
+    }
+
+    @Test
+    void streamIsRetriedBeforeItsFirstChunk() {
+        stub.enqueue(Response.status(503));
+        ResilientLlmClient client = client(2, Duration.ofSeconds(5), false, breaker(10, 10));
+
+        List<String> chunks = client.stream(OPERATION, () -> chatClient.prompt().user("Hi").stream().content())
+                .collectList().block(Duration.ofSeconds(10));
+
+        assertThat(String.join("", chunks)).isEqualTo("hello");
+        assertThat(stub.requestCount()).isEqualTo(2);
+    }
+
+    private String ask() {
+        return chatClient.prompt().user("Hi").call().content();
+    }
+
+    private ResilientLlmClient client(int maxAttempts, Duration attemptTimeout, boolean hedging, LlmCircuitBreaker breaker) {
+        return new ResilientLlmClient(meterRegistry, admissionLimiter, attemptThreads, maxAttempts, attemptTimeout, Duration.ofMillis(10),
+                Duration.ofMillis(50), hedging, Duration.ofMillis(200), () -> breaker, System::nanoTime);
+    }
+
+    private LlmAdmissionLimiter limiter(int maxConcurrency) {
+        return new LlmAdmissionLimiter(meterRegistry, maxConcurrency, 0, Duration.ZERO, Duration.ofSeconds(10),
+                false, 1, Duration.ofSeconds(20));
+    }
+
+    private static LlmCircuitBreaker breaker(int windowSize, int minimumCalls) {
+        return new LlmCircuitBreaker(windowSize, minimumCalls, 0.5, Duration.ofSeconds(30), System::nanoTime);
+    }
+
+    private double attempts(String outcome) {
+        return meterRegistry.get("jdmatchr.llm.attempts").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,182 @@
+package com.jdmatchr.core.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for an OpenAI-compatible chat completions endpoint, for tests that drive a real Spring AI
+ * client. Responses are played back in the order they were scripted (status, delay, content); requests beyond
+ * the script get a 200 with the default content. Every request body is kept for assertions.
+ */
+final class StubLlmServer implements AutoCloseable {
+
+    record Response(int status, long delayMillis, String content) {
+
+        static Response ok(String content) {
+            return new Response(200, 0, content);
+        }
+
+        static Response status(int status) {
+            return new Response(status, 0, null);
+        }
+
+        static Response delayed(int status, long delayMillis) {
+            return new Response(status, delayMillis, null);
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService threads;
+    private final Queue<Response> script = new ConcurrentLinkedQueue<>();
+    private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+    private final List<Long> arrivals = new CopyOnWriteArrayList<>();
+    private final String defaultContent;
+
+    StubLlmServer(String defaultContent) throws IOException {
+        this.defaultContent = defaultContent;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        threads = Executors.newCachedThreadPool();
+        server.setExecutor(threads);
+        server.createContext("/v1/chat/completions", this::handle);
+        server.start();
+    }
+
+    void enqueue(Response... responses) {
+        Collections.addAll(script, responses);
+    }
+
+    /**
+     * @return A chat model for this server with Spring AI's own retry switched off, as in production.
+     */
+    OpenAiChatModel chatModel(String defaultModel) {
+        OpenAiApi api = OpenAiApi.builder().baseUrl("http://127.0.0.1:" + server.getAddress().getPort()).apiKey("test").build();
+        return OpenAiChatModel.builder()
+                .openAiApi(api)
+                .defaultOptions(OpenAiChatOptions.builder().model(defaultModel).build())
+                .retryTemplate(RetryTemplate.builder().maxAttempts(1).build())
+                .build();
+    }
+
+    /**
+     * @return The bodies of all requests so far, in arrival order.
+     */
+    List<JsonNode> requests() {
+        return requests;
+    }
+
+    /**
+     * @return When the request with the given index arrived, in System.nanoTime() terms.
+     */
+    long arrivalNanos(int index) {
+        return arrivals.get(index);
+    }
+
+    int requestCount() {
+        return requests.size();
+    }
+
+    /**
+     * @return The system message of every request so far.
+     */
+    List<String> systemPrompts() {
+        return requests.stream().map(request -> request.get("messages").get(0).get("content").asText()).toList();
+    }
+
+    /**
+     * Waits until at least the given number of requests arrived.
+     */
+    void awaitRequests(int count, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (requests.size() < count) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Expected " + count + " requests, got " + requests.size());
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        threads.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long arrivedAt = System.nanoTime();
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        synchronized (this) {
+            // Same index in both lists
+            arrivals.add(arrivedAt);
+            requests.add(request);
+        }
+        Response response = script.poll();
+        if (response == null) {
+            response = Response.ok(defaultContent);
+        }
+        try {
+            Thread.sleep(response.delayMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String content = response.content() != null ? response.content() : defaultContent;
+        byte[] body;
+        if (response.status() != 200) {
+            body = ("{\"error\":{\"message\":\"stub " + response.status() + "\"}}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+        } else if (request.path("stream").asBoolean()) {
+            int half = content.length() / 2;
+            body = (chunk(content.substring(0, half), null) + chunk(content.substring(half), "stop") + "data: [DONE]\n\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        } else {
+            body = objectMapper.writeValueAsBytes(completion(request.path("model").asText(), content));
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+        }
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.sendResponseHeaders(response.status(), body.length);
+            out.write(body);
+        } catch (IOException e) {
+            // The client abandoned this attempt
+        }
+    }
+
+    private ObjectNode completion(String model, String content) {
+        ObjectNode completion = objectMapper.createObjectNode();
+        completion.put("id", "c1").put("object", "chat.completion").put("created", 1).put("model", model);
+        ObjectNode choice = completion.putArray("choices").addObject();
+        choice.put("index", 0).put("finish_reason", "stop");
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        completion.putObject("usage").put("prompt_tokens", 3).put("completion_tokens", 1).put("total_tokens", 4);
+        return completion;
+    }
+
+    private String chunk(String content, String finishReason) throws IOException {
+        ObjectNode chunk = objectMapper.createObjectNode();
+        chunk.put("id", "c1").put("object", "chat.completion.chunk").put("created", 1).put("model", "stub");
+        ObjectNode choice = chunk.putArray("choices").addObject();
+        choice.put("index", 0).put("finish_reason", finishReason);
+        choice.putObject("delta").put("role", "assistant").put("content", content);
+        return "data: " + objectMapper.writeValueAsString(chunk) + "\n\n";
+    }
+}
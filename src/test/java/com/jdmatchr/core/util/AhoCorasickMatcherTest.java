@@ -0,0 +1,45 @@
+package com.jdmatchr.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AhoCorasickMatcherTest {
+
+    private final AhoCorasickMatcher matcher = new AhoCorasickMatcher(
+            List.of("java", "javascript", "spring", "spring boot", "c++", "node.js", "he", "she", "hers"));
+
+    @Test
+    void findsOverlappingTermsInOnePass() {
+        assertThat(matcher.findAll("ushers")).isEmpty(); // None of them is a whole word here
+        assertThat(matcher.countAll("he she hers")).containsExactly(0, 0, 0, 0, 0, 0, 1, 1, 1);
+        assertThat(matcher.findAll("Spring Boot"))
+                .containsExactly(new AhoCorasickMatcher.Match(2, 0, 6), new AhoCorasickMatcher.Match(3, 0, 11));
+    }
+
+    @Test
+    void matchesWholeWordsOnly() {
+        assertThat(matcher.countAll("JavaScript, not Java. Javas are coffee."))
+                .containsExactly(1, 1, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    void ignoresCaseAndWhitespaceRunsAndHandlesSymbols() {
+        int[] counts = matcher.countAll("SPRING\n\t  BOOT services in C++ and Node.js (C++17 not counted)");
+
+        assertThat(counts[3]).isEqualTo(1); // spring boot
+        assertThat(counts[4]).isEqualTo(1); // c++
+        assertThat(counts[5]).isEqualTo(1); // node.js
+    }
+
+    @Test
+    void emptyInputsNeverMatch() {
+        AhoCorasickMatcher withBlank = new AhoCorasickMatcher(List.of("", "go lang"));
+
+        assertThat(withBlank.findAll(null)).isEmpty();
+        assertThat(withBlank.countAll("  ")).containsExactly(0, 0);
+        assertThat(withBlank.countAll("Go   Lang")).containsExactly(0, 1);
+    }
+}
@@ -0,0 +1,51 @@
+package com.jdmatchr.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedTtlCacheTest {
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) { now = now.plus(duration); }
+
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(java.time.ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(2, Duration.ofMinutes(5));
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a"); // "b" is now the least recently used
+        cache.put("c", "3");
+
+        assertThat(cache.get("a")).isEqualTo("1");
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo("3");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() {
+        MutableClock clock = new MutableClock();
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(5), clock);
+        cache.put("a", "x");
+
+        clock.advance(Duration.ofMinutes(2));
+        assertThat(cache.get("a")).isEqualTo("x");
+
+        clock.advance(Duration.ofMinutes(3));
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,33 @@
+package com.jdmatchr.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InsightCursorTest {
+
+    @Test
+    void roundTripsThePositionIncludingMicroseconds() {
+        OffsetDateTime createdAt = OffsetDateTime.of(2025, 5, 14, 9, 30, 12, 123_456_000, ZoneOffset.ofHours(2));
+        UUID id = UUID.randomUUID();
+
+        String token = new InsightCursor(createdAt, id).encode();
+        InsightCursor decoded = InsightCursor.decode(token);
+
+        assertThat(token).doesNotContain("|", "=", "+", "/");
+        assertThat(decoded.createdAt().toInstant()).isEqualTo(createdAt.toInstant());
+        assertThat(decoded.id()).isEqualTo(id);
+    }
+
+    @Test
+    void rejectsTokensItDidNotProduce() {
+        assertThatThrownBy(() -> InsightCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> InsightCursor.decode("aGVsbG8")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> InsightCursor.decode("eWVzdGVyZGF5fDEyMw")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,61 @@
+package com.jdmatchr.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonFieldStreamParserTest {
+
+    private static final String RESPONSE = """
+            ```json
+            {
+              "matchScore": 82,
+              "atsScore": 74,
+              "fluffAnalysis": { "summary": "Uses \\"synergy\\" twice, {braces} too.", "detected": [] },
+              "keywordAnalysis": { "matchedKeywords": ["Java", "Spring]"], "missingKeywords": [], "keywordDensityScore": 61 },
+              "resumeSuggestions": ["Quantify impact"],
+              "verdict": "Strong"
+            }
+            ```""";
+
+    @Test
+    void emitsEachTopLevelFieldOnceCompleteRegardlessOfChunking() {
+        for (int chunkSize : new int[] {1, 3, 7, RESPONSE.length()}) {
+            JsonFieldStreamParser parser = new JsonFieldStreamParser();
+            List<JsonFieldStreamParser.Field> fields = new ArrayList<>();
+            for (int i = 0; i < RESPONSE.length(); i += chunkSize) {
+                fields.addAll(parser.feed(RESPONSE.substring(i, Math.min(RESPONSE.length(), i + chunkSize))));
+            }
+
+            assertThat(parser.isComplete()).isTrue();
+            assertThat(fields).extracting(JsonFieldStreamParser.Field::name)
+                    .containsExactly("matchScore", "atsScore", "fluffAnalysis", "keywordAnalysis", "resumeSuggestions", "verdict");
+            assertThat(fields.get(0).json()).isEqualTo("82");
+            assertThat(fields.get(2).json()).isEqualTo("{ \"summary\": \"Uses \\\"synergy\\\" twice, {braces} too.\", \"detected\": [] }");
+            assertThat(fields.get(5).json()).isEqualTo("\"Strong\"");
+        }
+    }
+
+    @Test
+    void reportsAnObjectSectionOnlyAfterItsClosingBrace() {
+        JsonFieldStreamParser parser = new JsonFieldStreamParser();
+
+        assertThat(parser.feed("{\"matchScore\": 90, \"keywordAnalysis\": {\"matchedKeywords\": [\"Java\"")).extracting(JsonFieldStreamParser.Field::name)
+                .containsExactly("matchScore");
+        assertThat(parser.feed("]}")).extracting(JsonFieldStreamParser.Field::name).containsExactly("keywordAnalysis");
+        assertThat(parser.isComplete()).isFalse();
+    }
+
+    @Test
+    void pendingFieldHoldsTheValueCutOffByTheEndOfInput() {
+        JsonFieldStreamParser parser = new JsonFieldStreamParser();
+        parser.feed("{\"matchScore\": 90, \"resumeSuggestions\": [\"Quantify\", \"Add");
+
+        assertThat(parser.pendingField()).contains(new JsonFieldStreamParser.Field("resumeSuggestions", "[\"Quantify\", \"Add"));
+        parser.feed("\"]}");
+        assertThat(parser.pendingField()).isEmpty();
+    }
+}
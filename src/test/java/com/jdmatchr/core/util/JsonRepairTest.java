@@ -0,0 +1,52 @@
+package com.jdmatchr.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonRepairTest {
+
+    @Test
+    void dropsThePartlyWrittenElementAndClosesTheContainers() {
+        assertThat(JsonRepair.closeTruncated("[\"Quantify impact\", \"Add metr", 1))
+                .containsExactly("[\"Quantify impact\"]");
+        assertThat(JsonRepair.closeTruncated("{\"summary\": \"Clear\", \"detected\": [{\"original\": \"x\", \"sugg", 1))
+                .containsExactly("{\"summary\": \"Clear\", \"detected\": [{\"original\": \"x\"}]}");
+    }
+
+    @Test
+    void keepsTheLastElementWhenOnlyTheClosingBracketsAreMissing() {
+        assertThat(JsonRepair.closeTruncated("{\"a\": [\"x\", \"y\"]", 1)).containsExactly("{\"a\": [\"x\", \"y\"]}");
+    }
+
+    @Test
+    void neverKeepsATrailingNumberThatMayBeCutShort() {
+        assertThat(JsonRepair.closeTruncated("{\"skills\": 80, \"experience\": 7", 1)).containsExactly("{\"skills\": 80}");
+    }
+
+    @Test
+    void offersShorterCandidatesWhenTheLongestDoesNotParse() {
+        // The dangling key makes the first candidate invalid JSON; the caller moves on to the next
+        assertThat(JsonRepair.closeTruncated("{\"a\": 1, \"b\"", 3)).containsExactly("{\"a\": 1, \"b\"}", "{\"a\": 1}");
+    }
+
+    @Test
+    void neverEmptiesAContainerWhoseFirstElementIsCutOff() {
+        assertThat(JsonRepair.closeTruncated("[\"Add metr", 3)).isEmpty();
+        assertThat(JsonRepair.closeTruncated("{\"prediction\": {\"verdict\": \"Str", 3)).isEmpty();
+        assertThat(JsonRepair.closeTruncated("{\"summary\": \"Ok\", \"detected\": [{\"original\": \"x", 3))
+                .containsExactly("{\"summary\": \"Ok\"}");
+    }
+
+    @Test
+    void commasAndBracketsInsideStringsAreNotStructure() {
+        assertThat(JsonRepair.closeTruncated("[\"a, [b]\", \"c", 1)).containsExactly("[\"a, [b]\"]");
+    }
+
+    @Test
+    void scalarsYieldNoCandidates() {
+        assertThat(JsonRepair.closeTruncated("\"half a sent", 3)).isEmpty();
+        assertThat(JsonRepair.closeTruncated("4", 3)).isEmpty();
+        assertThat(JsonRepair.closeTruncated(null, 3)).isEmpty();
+    }
+}
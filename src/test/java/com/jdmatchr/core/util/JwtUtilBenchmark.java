@@ -0,0 +1,68 @@
+package com.jdmatchr.core.util;
+
+import com.jdmatchr.core.security.JwtPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT authentication cost: the former path (a new parser per call, the token parsed and its
+ * signature verified three times) vs parseVerifiedClaims (one cached parser, one parse).
+ * Not run by surefire; start it with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.jdmatchr.core.util.JwtUtilBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private Key signingKey;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = JwtUtilTest.newJwtUtil();
+        signingKey = Keys.hmacShaKeyFor(JwtUtilTest.SECRET.getBytes(StandardCharsets.UTF_8));
+        token = JwtUtilTest.token(JwtUtilTest.SECRET, TimeUnit.DAYS.toMillis(1));
+    }
+
+    @Benchmark
+    public Optional<JwtPrincipal> parsePerCall() {
+        // validateToken: extractAllClaims, then isTokenExpired -> extractExpiration; then the filter's extractClaim
+        legacyParse(token);
+        if (legacyParse(token).getExpiration().before(new Date())) {
+            return Optional.empty();
+        }
+        return JwtPrincipal.fromClaims(legacyParse(token));
+    }
+
+    @Benchmark
+    public Optional<JwtPrincipal> singleParse() {
+        return jwtUtil.parseVerifiedClaims(token).flatMap(JwtPrincipal::fromClaims);
+    }
+
+    private Claims legacyParse(String jwt) {
+        return Jwts.parserBuilder().setSigningKey(signingKey).build().parseClaimsJws(jwt).getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtUtilBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.jdmatchr.core.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilTest {
+
+    static final String SECRET = "test-secret-that-is-long-enough-for-hs256-signing";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = newJwtUtil();
+    }
+
+    @Test
+    void validTokenYieldsItsClaims() {
+        Optional<Claims> claims = jwtUtil.parseVerifiedClaims(token(SECRET, 60_000));
+
+        assertThat(claims).isPresent();
+        assertThat(claims.get().getSubject()).isEqualTo("0b6c4f0e-7d2a-4c55-9a3e-2f1d8f6b9c10");
+        assertThat(claims.get().get("email", String.class)).isEqualTo("ada@example.com");
+    }
+
+    @Test
+    void expiredOrForeignTokensYieldNothing() {
+        assertThat(jwtUtil.parseVerifiedClaims(token(SECRET, -60_000))).isEmpty();
+        assertThat(jwtUtil.parseVerifiedClaims(token("another-secret-that-is-long-enough-for-hs256", 60_000))).isEmpty();
+        assertThat(jwtUtil.parseVerifiedClaims("not.a.jwt")).isEmpty();
+    }
+
+    @Test
+    void validateTokenChecksTheEmailAgainstUserDetails() {
+        String token = token(SECRET, 60_000);
+
+        assertThat(jwtUtil.validateToken(token)).isTrue();
+        assertThat(jwtUtil.validateToken(token, new User("ada@example.com", "x", List.of()))).isTrue();
+        assertThat(jwtUtil.validateToken(token, new User("bob@example.com", "x", List.of()))).isFalse();
+    }
+
+    static JwtUtil newJwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    static String token(String secret, long expiresInMillis) {
+        return Jwts.builder()
+                .setSubject("0b6c4f0e-7d2a-4c55-9a3e-2f1d8f6b9c10")
+                .claim("email", "ada@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() + expiresInMillis))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
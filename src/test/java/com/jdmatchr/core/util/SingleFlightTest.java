@@ -0,0 +1,72 @@
+package com.jdmatchr.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void concurrentCallersShareTheLeadersResult() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch joined = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("k", () -> {
+            loads.incrementAndGet();
+            await(joined);
+            return "value";
+        }));
+        waitUntilInFlight();
+        String follower = singleFlight.execute("k", () -> "other", joined::countDown);
+
+        assertThat(follower).isEqualTo("value");
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        assertThat(loads).hasValue(1);
+        assertThat(singleFlight.size()).isZero();
+    }
+
+    @Test
+    void followersGetTheLeadersException() {
+        CountDownLatch joined = new CountDownLatch(1);
+
+        CompletableFuture.runAsync(() -> singleFlight.execute("k", () -> {
+            await(joined);
+            throw new IllegalStateException("provider down");
+        }));
+        waitUntilInFlight();
+
+        assertThatThrownBy(() -> singleFlight.execute("k", () -> "other", joined::countDown))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("provider down");
+    }
+
+    @Test
+    void laterCallsRunTheLoaderAgain() {
+        assertThat(singleFlight.execute("k", () -> "first")).isEqualTo("first");
+        assertThat(singleFlight.execute("k", () -> "second")).isEqualTo("second");
+    }
+
+    private void waitUntilInFlight() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.size() == 0) {
+            assertThat(System.nanoTime()).as("call in flight").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.jdmatchr.core.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TextNormalizer vs the replaceAll chain it replaced, on resume-sized and JD-sized inputs.
+ * Not run by surefire; start it with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.jdmatchr.core.util.TextNormalizerBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextNormalizerBenchmark {
+
+    @Param({"4000", "40000"})
+    private int inputLength;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        String page = "John Doe  •  Senior Backend Engineer\n\nExperience:   Built payment APIs with Java 17,\tSpring Boot "
+                + "and PostgreSQL.  Reduced p99 latency by 40%.  – Led a team of 5.\n"
+                + "Skills: Kafka, Redis, Docker, Kubernetes   ✅\n";
+        StringBuilder builder = new StringBuilder(inputLength);
+        while (builder.length() < inputLength) {
+            builder.append(page);
+        }
+        builder.setLength(inputLength);
+        builder.append("\nReferences available upon request\nDeclaration: all of the above is true.");
+        text = builder.toString();
+    }
+
+    @Benchmark
+    public String regexChain() {
+        return TextNormalizerTest.legacyNormalize(text, true, TextNormalizer.NO_LIMIT);
+    }
+
+    @Benchmark
+    public String singlePass() {
+        return TextNormalizer.normalize(text, true);
+    }
+
+    @Benchmark
+    public String regexChainTruncated() {
+        return TextNormalizerTest.legacyNormalize(text, true, 3500);
+    }
+
+    @Benchmark
+    public String singlePassTruncated() {
+        return TextNormalizer.normalize(text, true, 3500);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TextNormalizerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
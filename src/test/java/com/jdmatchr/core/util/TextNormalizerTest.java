@@ -0,0 +1,57 @@
+package com.jdmatchr.core.util;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextNormalizerTest {
+
+    private static final String[] FRAGMENTS = {
+            "a", "Java", " ", "  ", "\t", "\n", "\r\n", "\n\n", "\u000B", "\f", "\u0001", "é", "🚀", " ",
+            "references", "REFERENCES", "Declaration", "refer", "ences", "declar", "ation:", "x.", "-", "Spring Boot"
+    };
+
+    /** The replaceAll chain TextNormalizer replaces. */
+    static String legacyNormalize(String text, boolean cutSections, int maxLength) {
+        String cleaned = text.replaceAll("[^\\x00-\\x7F]", "").replaceAll("\\s{2,}", " ");
+        if (cutSections) {
+            cleaned = cleaned.replaceAll("(?i)(references|declaration).*", "");
+        }
+        return StringUtils.abbreviate(cleaned.trim(), maxLength);
+    }
+
+    @Test
+    void matchesTheRegexChainOnRandomInput() {
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder text = new StringBuilder();
+            int fragments = random.nextInt(40);
+            for (int f = 0; f < fragments; f++) {
+                text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            boolean cutSections = random.nextBoolean();
+            int maxLength = random.nextBoolean() ? TextNormalizer.NO_LIMIT : 4 + random.nextInt(60);
+
+            assertThat(TextNormalizer.normalize(text.toString(), cutSections, maxLength))
+                    .as("input %s, cutSections %s, maxLength %s", text, cutSections, maxLength)
+                    .isEqualTo(legacyNormalize(text.toString(), cutSections, maxLength));
+        }
+    }
+
+    @Test
+    void cutsSectionsToTheEndOfTheirLine() {
+        String text = "Skills: Java\nReferences available on request\nExperience: 5 years  declaration signed";
+
+        assertThat(TextNormalizer.normalize(text, true)).isEqualTo("Skills: Java\n\nExperience: 5 years");
+        assertThat(TextNormalizer.normalize(text, false)).isEqualTo("Skills: Java\nReferences available on request\nExperience: 5 years declaration signed");
+    }
+
+    @Test
+    void truncatesWithAnEllipsis() {
+        assertThat(TextNormalizer.normalize("🧠 Senior   Java Engineer ", false, 12)).isEqualTo("Senior Ja...");
+        assertThat(TextNormalizer.normalize(null, true)).isEmpty();
+    }
+}